@@ -0,0 +1,206 @@
+package bench;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Base H2 en mémoire (mode MySQL) remplie de données synthétiques pour les benchmarks
+ *
+ * Les DAO de l'application s'y connectent sans modification : les propriétés {@code parc.db.url},
+ * {@code parc.db.user} et {@code parc.db.password} sont positionnées avant le premier accès au pool
+ * (arguments JVM des forks JMH, ou bloc statique ci-dessous pour une exécution sans fork)
+ *
+ * Le contenu est déterministe (graine fixe) : deux exécutions avec les mêmes tailles mesurent
+ * exactement les mêmes données
+ */
+public final class BaseEmbarquee {
+
+    static final String URL = "jdbc:h2:mem:parc;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    /** Arguments JVM des forks JMH : toutes les classes de benchmark les reprennent */
+    static final String ARG_URL = "-Dparc.db.url=" + URL;
+    static final String ARG_USER = "-Dparc.db.user=sa";
+    static final String ARG_PASSWORD = "-Dparc.db.password=";
+
+    static final int JOURS_HISTORIQUE = 60;
+    static final int JOURS_A_VENIR = 30;
+    static final int HEURE_OUVERTURE = 10;
+    static final int HEURE_FERMETURE = 18;
+
+    private static final int TAILLE_LOT = 1_000;
+
+    private static Tailles chargees; // tailles actuellement en base
+
+    static {
+        System.setProperty("parc.db.url", System.getProperty("parc.db.url", URL));
+        System.setProperty("parc.db.user", System.getProperty("parc.db.user", "sa"));
+        System.setProperty("parc.db.password", System.getProperty("parc.db.password", ""));
+    }
+
+    private BaseEmbarquee() {
+    }
+
+    /**
+     * Volume des données à générer
+     */
+    record Tailles(int utilisateurs, int attractions, int reservations, int longueurDescription) {
+    }
+
+    /**
+     * Recrée le schéma et le remplit, sauf s'il contient déjà des données de ces tailles
+     */
+    static synchronized void preparer(Tailles tailles) {
+        if (tailles.equals(chargees)) {
+            return;
+        }
+        try (Connection conn = DriverManager.getConnection(
+                System.getProperty("parc.db.url"), System.getProperty("parc.db.user"), System.getProperty("parc.db.password"))) {
+            creerSchema(conn);
+            remplir(conn, tailles, new Random(42));
+            chargees = tailles;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Impossible de préparer la base de benchmark", e);
+        }
+    }
+
+    private static void creerSchema(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+            st.execute("CREATE TABLE Utilisateur (id INT AUTO_INCREMENT PRIMARY KEY, nom VARCHAR(100), "
+                    + "email VARCHAR(150) UNIQUE, mot_de_passe VARCHAR(255), type VARCHAR(20), type_code TINYINT, "
+                    + "age INT, date_inscription DATE)");
+            st.execute("CREATE TABLE Attraction (id INT AUTO_INCREMENT PRIMARY KEY, nom VARCHAR(100), "
+                    + "description TEXT, prix DECIMAL(8, 2), capacite INT, disponible BOOLEAN)");
+            st.execute("CREATE TABLE Reduction (id INT AUTO_INCREMENT PRIMARY KEY, nom VARCHAR(100), "
+                    + "pourcentage INT, critere VARCHAR(20), critere_code TINYINT)");
+            st.execute("CREATE TABLE Reservation (id INT AUTO_INCREMENT PRIMARY KEY, id_utilisateur INT, "
+                    + "id_attraction INT NOT NULL, date_reservation DATE NOT NULL, heure_reservation TIME, "
+                    + "nombre_billets INT NOT NULL, statut VARCHAR(20), statut_code TINYINT)");
+            st.execute("CREATE TABLE Facture (id INT AUTO_INCREMENT PRIMARY KEY, id_reservation INT NOT NULL, "
+                    + "montant_total DECIMAL(10, 2), date_facture DATE, reduction_appliquee BOOLEAN)");
+            st.execute("CREATE TABLE Stat_Attraction (id_attraction INT PRIMARY KEY, nb_reservations INT NOT NULL, "
+                    + "billets INT NOT NULL, chiffre_affaires DECIMAL(14, 2) NOT NULL)");
+            st.execute("CREATE TABLE Stat_Attraction_Jour (jour DATE NOT NULL, id_attraction INT NOT NULL, "
+                    + "nb_reservations INT NOT NULL, billets INT NOT NULL, chiffre_affaires DECIMAL(14, 2) NOT NULL, "
+                    + "PRIMARY KEY (jour, id_attraction))");
+
+            // mêmes index que sql/001, sql/002 et sql/005 (une seule facture par réservation : INSERT IGNORE
+            // de FactureDAO#insertFactures y compris)
+            st.execute("CREATE INDEX idx_reservation_creneau ON Reservation "
+                    + "(id_attraction, date_reservation, heure_reservation, nombre_billets)");
+            st.execute("CREATE INDEX idx_reservation_utilisateur ON Reservation (id_utilisateur)");
+            st.execute("CREATE UNIQUE INDEX uq_facture_reservation ON Facture (id_reservation)");
+        }
+    }
+
+    private static void remplir(Connection conn, Tailles t, Random alea) throws SQLException {
+        conn.setAutoCommit(false);
+        String[] types = {"CLIENT", "MEMBRE", "Membre", "client", "INVITE"};
+        String[] statuts = {"CONFIRMEE", "Confirmée", "CONFIRMEE", "ANNULEE", "EN_ATTENTE"};
+        LocalDate aujourdhui = LocalDate.now();
+
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO Utilisateur "
+                + "(id, nom, email, mot_de_passe, type, age, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= t.utilisateurs(); id++) {
+                ps.setInt(1, id);
+                ps.setString(2, "Client " + id);
+                ps.setString(3, "client" + id + "@parc.test");
+                ps.setString(4, "motdepasse" + id);
+                ps.setString(5, types[alea.nextInt(types.length)]);
+                ps.setInt(6, 5 + alea.nextInt(80));
+                ps.setDate(7, Date.valueOf(aujourdhui.minusDays(alea.nextInt(1_000))));
+                ajouter(ps, id);
+            }
+            ps.executeBatch();
+        }
+
+        String description = "Description détaillée de l'attraction. ".repeat(t.longueurDescription() / 40 + 1)
+                .substring(0, t.longueurDescription());
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO Attraction "
+                + "(id, nom, description, prix, capacite, disponible) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int id = 1; id <= t.attractions(); id++) {
+                ps.setInt(1, id);
+                ps.setString(2, "Attraction " + id);
+                ps.setString(3, description);
+                ps.setDouble(4, 5 + alea.nextInt(30));
+                ps.setInt(5, id % 10 == 0 ? 0 : 20 + alea.nextInt(200)); // une sur dix sans limite
+                ps.setBoolean(6, id % 7 != 0);
+                ajouter(ps, id);
+            }
+            ps.executeBatch();
+        }
+
+        try (Statement st = conn.createStatement()) {
+            st.execute("INSERT INTO Reduction (nom, pourcentage, critere) VALUES "
+                    + "('Tarif enfant', 30, 'ENFANT'), ('Tarif senior', 20, 'Senior'), ('Carte fidélité', 10, 'Fidélité')");
+        }
+
+        try (PreparedStatement r = conn.prepareStatement("INSERT INTO Reservation (id, id_utilisateur, id_attraction, "
+                + "date_reservation, heure_reservation, nombre_billets, statut) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement f = conn.prepareStatement("INSERT INTO Facture (id, id_reservation, montant_total, "
+                     + "date_facture, reduction_appliquee) VALUES (?, ?, ?, ?, ?)")) {
+            int jours = JOURS_HISTORIQUE + JOURS_A_VENIR;
+            for (int id = 1; id <= t.reservations(); id++) {
+                int billets = 1 + alea.nextInt(4);
+                LocalDate jour = aujourdhui.minusDays(JOURS_HISTORIQUE).plusDays(alea.nextInt(jours));
+
+                r.setInt(1, id);
+                if (alea.nextInt(10) == 0) {
+                    r.setNull(2, Types.INTEGER); // invité
+                } else {
+                    r.setInt(2, 1 + alea.nextInt(t.utilisateurs()));
+                }
+                r.setInt(3, 1 + alea.nextInt(t.attractions()));
+                r.setDate(4, Date.valueOf(jour));
+                r.setTime(5, Time.valueOf(String.format("%02d:00:00",
+                        HEURE_OUVERTURE + alea.nextInt(HEURE_FERMETURE - HEURE_OUVERTURE + 1))));
+                r.setInt(6, billets);
+                r.setString(7, statuts[alea.nextInt(statuts.length)]);
+                r.addBatch();
+
+                f.setInt(1, id);
+                f.setInt(2, id);
+                f.setDouble(3, billets * (5 + alea.nextInt(30)));
+                f.setDate(4, Date.valueOf(jour.minusDays(alea.nextInt(10))));
+                f.setBoolean(5, alea.nextInt(4) == 0);
+                f.addBatch();
+
+                if (id % TAILLE_LOT == 0) {
+                    r.executeBatch();
+                    f.executeBatch();
+                }
+            }
+            r.executeBatch();
+            f.executeBatch();
+        }
+
+        // Remplissage des tables de synthèse, comme la fin de sql/003
+        try (Statement st = conn.createStatement()) {
+            st.execute("INSERT INTO Stat_Attraction (id_attraction, nb_reservations, billets, chiffre_affaires) "
+                    + "SELECT r.id_attraction, COUNT(*), SUM(r.nombre_billets), COALESCE(SUM(f.montant_total), 0) "
+                    + "FROM Reservation r LEFT JOIN Facture f ON f.id_reservation = r.id GROUP BY r.id_attraction");
+            st.execute("INSERT INTO Stat_Attraction_Jour (jour, id_attraction, nb_reservations, billets, chiffre_affaires) "
+                    + "SELECT r.date_reservation, r.id_attraction, COUNT(*), SUM(r.nombre_billets), COALESCE(SUM(f.montant_total), 0) "
+                    + "FROM Reservation r LEFT JOIN Facture f ON f.id_reservation = r.id "
+                    + "GROUP BY r.date_reservation, r.id_attraction");
+        }
+
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    private static void ajouter(PreparedStatement ps, int numero) throws SQLException {
+        ps.addBatch();
+        if (numero % TAILLE_LOT == 0) {
+            ps.executeBatch();
+        }
+    }
+}
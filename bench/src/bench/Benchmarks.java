@@ -0,0 +1,21 @@
+package bench;
+
+/**
+ * Point d'entrée de la suite de benchmarks
+ *
+ * Accepte les options de la ligne de commande JMH, par exemple :
+ * - {@code Benchmarks Creneaux -p reservations=100000} pour une seule classe et une seule taille
+ * - {@code Benchmarks -lp} pour lister les paramètres disponibles
+ *
+ * Les tailles de données ({@code reservations}, {@code attractions}, {@code longueurDescription}) sont
+ * des {@code @Param} JMH : la base H2 est recréée au début de chaque essai dont les tailles changent
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(args);
+    }
+}
@@ -0,0 +1,117 @@
+package bench;
+
+import controller.InventaireCreneaux;
+import dao.ReservationDAO;
+import model.Reservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul des créneaux disponibles d'une attraction pour un jour, tel que l'affiche
+ * {@code ReservationView.updateHeureBox}
+ *
+ * - {@code toutesReservations} : approche d'origine, toutes les réservations lues puis filtrées en mémoire
+ * - {@code billetsParCreneau} : agrégat SQL par heure ({@link ReservationDAO#getBookedSlots})
+ * - {@code inventaireChaud} / {@code inventaireFroid} : {@link InventaireCreneaux} déjà chargé, ou relu à chaque appel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BaseEmbarquee.ARG_URL, BaseEmbarquee.ARG_USER, BaseEmbarquee.ARG_PASSWORD})
+public class CreneauxBench {
+
+    private static final int ID_ATTRACTION = 1;
+    private static final int CAPACITE = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int reservations;
+
+    @Param({"50"})
+    public int attractions;
+
+    private ReservationDAO reservationDAO;
+    private InventaireCreneaux inventaire;
+    private LocalDate jour;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        BaseEmbarquee.preparer(new BaseEmbarquee.Tailles(Math.max(1, reservations / 10), attractions, reservations, 200));
+        reservationDAO = new ReservationDAO();
+        inventaire = InventaireCreneaux.getInstance();
+        jour = LocalDate.now().plusDays(1); // un jour à venir, comme dans l'écran de réservation
+    }
+
+    @Benchmark
+    public List<String> toutesReservations() {
+        List<Reservation> reservations = reservationDAO.getAllReservations();
+        List<LocalTime> heuresReservees = new ArrayList<>();
+
+        for (Reservation r : reservations) {
+            if (r.getIdAttraction() == ID_ATTRACTION &&
+                    r.getDateReservation().isEqual(jour)) {
+                heuresReservees.add(r.getHeureReservation());
+            }
+        }
+
+        List<String> libelles = new ArrayList<>();
+        for (int heure = BaseEmbarquee.HEURE_OUVERTURE; heure <= BaseEmbarquee.HEURE_FERMETURE; heure++) {
+            LocalTime t = LocalTime.of(heure, 0);
+            libelles.add(heuresReservees.contains(t) ? heure + "h00 (indisponible)" : heure + "h00");
+        }
+        return libelles;
+    }
+
+    @Benchmark
+    public List<String> billetsParCreneau() {
+        Map<LocalTime, Integer> billets = reservationDAO.getBookedSlots(ID_ATTRACTION, jour);
+        if (billets == null) {
+            throw new IllegalStateException("Lecture des créneaux impossible");
+        }
+
+        List<String> libelles = new ArrayList<>();
+        for (int heure = BaseEmbarquee.HEURE_OUVERTURE; heure <= BaseEmbarquee.HEURE_FERMETURE; heure++) {
+            int restantes = CAPACITE - billets.getOrDefault(LocalTime.of(heure, 0), 0);
+            libelles.add(restantes <= 0 ? heure + "h00 (complet)" : heure + "h00 (" + restantes + " places)");
+        }
+        return libelles;
+    }
+
+    @Benchmark
+    public List<String> inventaireChaud() {
+        return libellesInventaire();
+    }
+
+    @Benchmark
+    public List<String> inventaireFroid() {
+        inventaire.invalider(ID_ATTRACTION);
+        return libellesInventaire();
+    }
+
+    private List<String> libellesInventaire() {
+        List<String> libelles = new ArrayList<>();
+        for (int heure = BaseEmbarquee.HEURE_OUVERTURE; heure <= BaseEmbarquee.HEURE_FERMETURE; heure++) {
+            int restantes = inventaire.getPlacesRestantes(ID_ATTRACTION, CAPACITE, jour, LocalTime.of(heure, 0));
+            libelles.add(restantes == 0 ? heure + "h00 (complet)" : heure + "h00 (" + restantes + " places)");
+        }
+        return libelles;
+    }
+}
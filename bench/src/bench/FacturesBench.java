@@ -0,0 +1,107 @@
+package bench;
+
+import controller.InventaireCreneaux;
+import controller.ReservationController;
+import dao.FactureDAO;
+import dao.FacturesDifferees;
+import dao.ReservationDAO;
+import model.ResultatReservation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Latence d'une réservation vue par le client, selon l'écriture de sa facture
+ *
+ * - {@code factureSynchrone} : réservation et facture dans la même transaction (par défaut)
+ * - {@code factureDifferee} : réservation seule, facture journalisée (fsync) puis écrite par lots
+ *   ({@link FacturesDifferees}, {@code parc.factures.differees=true})
+ *
+ * Les percentiles (mode SampleTime) comptent autant que la moyenne : l'écriture différée retire l'INSERT
+ * de la facture et le second aller-retour de la transaction, mais ajoute le fsync du journal ;
+ * {@code -t 8} mesure l'effet du regroupement des fsync entre réservations simultanées
+ * Le journal est écrit dans {@code java.io.tmpdir} : sur la base H2 en mémoire, seul le fsync touche le disque
+ * et l'écriture différée est la plus lente ; contre une vraie base ({@code -jvmArgsAppend -Dparc.db.url=...}),
+ * elle ne gagne que si valider une transaction y coûte plus qu'un fsync local
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BaseEmbarquee.ARG_URL, BaseEmbarquee.ARG_USER, BaseEmbarquee.ARG_PASSWORD})
+public class FacturesBench {
+
+    private static final int ID_ATTRACTION = 10; // une attraction sur dix est sans limite de places
+
+    @Param({"10000"})
+    public int reservations;
+
+    @Param({"50"})
+    public int attractions;
+
+    private final AtomicInteger compteur = new AtomicInteger();
+    private ReservationController synchrone;
+    private ReservationController differe;
+    private FacturesDifferees facturesDifferees;
+    private Path journal;
+    private LocalDate jour;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        BaseEmbarquee.preparer(new BaseEmbarquee.Tailles(Math.max(1, reservations / 10), attractions, reservations, 200));
+        ReservationDAO reservationDAO = new ReservationDAO();
+        FactureDAO factureDAO = new FactureDAO();
+        InventaireCreneaux inventaire = InventaireCreneaux.getInstance();
+
+        journal = Files.createTempDirectory("bench-factures");
+        facturesDifferees = new FacturesDifferees(factureDAO, journal, 100, 1L << 20);
+        synchrone = new ReservationController(reservationDAO, factureDAO, inventaire, null);
+        differe = new ReservationController(reservationDAO, factureDAO, inventaire, facturesDifferees);
+        jour = LocalDate.now().plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void terminer() throws IOException {
+        facturesDifferees.close();
+        try (Stream<Path> fichiers = Files.walk(journal)) {
+            fichiers.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ResultatReservation factureSynchrone() {
+        return reserver(synchrone);
+    }
+
+    @Benchmark
+    public ResultatReservation factureDifferee() {
+        return reserver(differe);
+    }
+
+    private ResultatReservation reserver(ReservationController controleur) {
+        int n = compteur.getAndIncrement();
+        int heure = BaseEmbarquee.HEURE_OUVERTURE + n % (BaseEmbarquee.HEURE_FERMETURE - BaseEmbarquee.HEURE_OUVERTURE + 1);
+        return controleur.reserver(1 + n % Math.max(1, reservations / 10), ID_ATTRACTION, jour, LocalTime.of(heure, 0), 2);
+    }
+}
@@ -0,0 +1,152 @@
+package bench;
+
+import dao.AttractionDAO;
+import dao.EnumCodec;
+import dao.FactureDAO;
+import dao.ReductionDAO;
+import dao.ReservationDAO;
+import dao.UtilisateurDAO;
+import model.Attraction;
+import model.AttractionResume;
+import model.Facture;
+import model.Reduction;
+import model.Reservation;
+import model.Reservation.StatutReservation;
+import model.ReservationLigne;
+import model.Utilisateur;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût des lectures de chaque DAO : requête, parcours du ResultSet et construction des objets du modèle
+ *
+ * Compare aussi la liste complète des attractions (avec description) à leur projection résumée,
+ * et le décodage des statuts par {@link EnumCodec} à l'ancien {@code valueOf(toUpperCase().replace(...))}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BaseEmbarquee.ARG_URL, BaseEmbarquee.ARG_USER, BaseEmbarquee.ARG_PASSWORD})
+public class MappingBench {
+
+    private static final String[] STATUTS = {"CONFIRMEE", "Confirmée", "ANNULEE", "Annulée", "EN_ATTENTE", "En attente"};
+
+    @Param({"10000"})
+    public int reservations;
+
+    @Param({"50"})
+    public int attractions;
+
+    @Param({"1000"})
+    public int longueurDescription;
+
+    private ReservationDAO reservationDAO;
+    private AttractionDAO attractionDAO;
+    private FactureDAO factureDAO;
+    private ReductionDAO reductionDAO;
+    private UtilisateurDAO utilisateurDAO;
+
+    private int idUtilisateur;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        BaseEmbarquee.preparer(new BaseEmbarquee.Tailles(Math.max(1, reservations / 10), attractions, reservations, longueurDescription));
+        reservationDAO = new ReservationDAO();
+        attractionDAO = new AttractionDAO();
+        factureDAO = new FactureDAO();
+        reductionDAO = new ReductionDAO();
+        utilisateurDAO = new UtilisateurDAO();
+        idUtilisateur = 1;
+    }
+
+    // ------------------ Réservations ------------------ //
+
+    @Benchmark
+    public List<Reservation> toutesReservations() {
+        return reservationDAO.getAllReservations();
+    }
+
+    @Benchmark
+    public List<ReservationLigne> pageReservations() {
+        return reservationDAO.getReservationsPage(reservations / 2, 100);
+    }
+
+    @Benchmark
+    public List<Reservation> historiqueUtilisateur() {
+        return reservationDAO.getReservationsByUtilisateur(idUtilisateur);
+    }
+
+    // ------------------ Attractions ------------------ //
+
+    @Benchmark
+    public List<Attraction> attractionsCompletes() {
+        return attractionDAO.getAllAttractions();
+    }
+
+    @Benchmark
+    public List<AttractionResume> attractionsResumees() {
+        return attractionDAO.getAttractionsResumees();
+    }
+
+    // ------------------ Autres DAO ------------------ //
+
+    @Benchmark
+    public List<Facture> facturesUtilisateur() {
+        return factureDAO.getFacturesByUtilisateur(idUtilisateur);
+    }
+
+    @Benchmark
+    public List<Reduction> reductions() {
+        return reductionDAO.getAllReductions();
+    }
+
+    @Benchmark
+    public List<Utilisateur> utilisateurs() {
+        return utilisateurDAO.getAllUtilisateurs();
+    }
+
+    // ------------------ Décodage des énumérations ------------------ //
+
+    @Benchmark
+    public void statutsCodec(Blackhole bh) {
+        for (String s : STATUTS) {
+            bh.consume(EnumCodec.STATUT_RESERVATION.decode(s));
+        }
+    }
+
+    /**
+     * Décodage d'origine, avant {@link EnumCodec} : plusieurs chaînes intermédiaires par appel,
+     * et une exception pour les libellés contenant un espace
+     */
+    @Benchmark
+    public void statutsValueOf(Blackhole bh) {
+        for (String s : STATUTS) {
+            StatutReservation statut;
+            try {
+                statut = StatutReservation.valueOf(s.toUpperCase()
+                        .replace("É", "E")
+                        .replace("È", "E")
+                        .replace("À", "A"));
+            } catch (IllegalArgumentException e) {
+                statut = StatutReservation.CONFIRMEE;
+            }
+            bh.consume(statut);
+        }
+    }
+}
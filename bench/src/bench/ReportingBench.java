@@ -0,0 +1,104 @@
+package bench;
+
+import dao.AttractionDAO;
+import dao.ReportingDAO;
+import dao.ReservationDAO;
+import model.Attraction;
+import model.Reservation;
+import model.StatistiqueReservations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrégats affichés par {@code ReportingView}, sans le rendu des graphiques
+ *
+ * {@code agregationEnMemoire} reprend le calcul d'origine (toutes les réservations comptées dans une
+ * HashMap), les deux autres lisent les tables de synthèse tenues à jour par les triggers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {BaseEmbarquee.ARG_URL, BaseEmbarquee.ARG_USER, BaseEmbarquee.ARG_PASSWORD})
+public class ReportingBench {
+
+    private static final int JOURS_AFFICHES = 30;
+
+    @Param({"1000", "10000", "100000"})
+    public int reservations;
+
+    @Param({"50"})
+    public int attractions;
+
+    private ReservationDAO reservationDAO;
+    private AttractionDAO attractionDAO;
+    private ReportingDAO reportingDAO;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        BaseEmbarquee.preparer(new BaseEmbarquee.Tailles(Math.max(1, reservations / 10), attractions, reservations, 200));
+        reservationDAO = new ReservationDAO();
+        attractionDAO = new AttractionDAO();
+        reportingDAO = new ReportingDAO();
+    }
+
+    @Benchmark
+    public Map<String, Integer> agregationEnMemoire() {
+        List<Reservation> reservations = reservationDAO.getAllReservations();
+        Map<Integer, Integer> countMap = new HashMap<>();
+
+        for (Reservation r : reservations) {
+            countMap.put(r.getIdAttraction(), countMap.getOrDefault(r.getIdAttraction(), 0) + 1);
+        }
+
+        Map<String, Integer> parAttraction = new LinkedHashMap<>();
+        for (Attraction a : attractionDAO.getAllAttractions()) {
+            parAttraction.put(a.getNom(), countMap.getOrDefault(a.getId(), 0));
+        }
+        return parAttraction;
+    }
+
+    @Benchmark
+    public Map<String, Integer> statistiquesParAttraction() {
+        Map<String, Integer> parAttraction = new LinkedHashMap<>();
+        for (StatistiqueReservations s : reportingDAO.getStatistiquesParAttraction()) {
+            parAttraction.put(s.getNomAttraction(), s.getNbReservations());
+        }
+        return parAttraction;
+    }
+
+    @Benchmark
+    public Map<LocalDate, Double> chiffreAffairesParJour() {
+        LocalDate fin = LocalDate.now();
+        LocalDate debut = fin.minusDays(JOURS_AFFICHES - 1);
+        List<StatistiqueReservations> stats = reportingDAO.getStatistiquesParJour(debut, fin);
+
+        Map<LocalDate, Double> parJour = new TreeMap<>();
+        for (LocalDate jour = debut; !jour.isAfter(fin); jour = jour.plusDays(1)) {
+            parJour.put(jour, 0.0);
+        }
+        for (StatistiqueReservations s : stats) {
+            parJour.merge(s.getJour(), s.getChiffreAffaires(), Double::sum);
+        }
+        return parJour;
+    }
+}
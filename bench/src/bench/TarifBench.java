@@ -0,0 +1,119 @@
+package bench;
+
+import controller.MoteurTarif;
+import model.Reduction;
+import model.Reduction.CritereReduction;
+import model.Utilisateur.TypeUtilisateur;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Choix de la réduction d'une réservation, sans base de données
+ *
+ * {@code boucle} reprend le parcours d'origine de {@code reserverAttraction} (première réduction
+ * applicable de la liste), {@code moteur} le calcul actuel par {@link MoteurTarif} ; {@code compilation}
+ * mesure le coût payé à chaque rechargement de la liste des réductions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TarifBench {
+
+    private static final int CLIENTS = 1_024; // puissance de deux
+
+    @Param({"3", "30"})
+    public int nbReductions;
+
+    private List<Reduction> reductions;
+    private MoteurTarif moteur;
+    private TypeUtilisateur[] types;
+    private int[] ages;
+    private double[] prix;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        Random alea = new Random(42);
+        CritereReduction[] criteres = CritereReduction.values();
+
+        reductions = new ArrayList<>(nbReductions);
+        for (int i = 0; i < nbReductions; i++) {
+            reductions.add(new Reduction(i + 1, "Réduction " + i, 5 + alea.nextInt(40), criteres[i % criteres.length]));
+        }
+        moteur = MoteurTarif.pour(reductions);
+
+        TypeUtilisateur[] tousTypes = TypeUtilisateur.values();
+        types = new TypeUtilisateur[CLIENTS];
+        ages = new int[CLIENTS];
+        prix = new double[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            types[i] = tousTypes[alea.nextInt(tousTypes.length)];
+            ages[i] = 3 + alea.nextInt(85);
+            prix[i] = 5 + alea.nextInt(30);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public void boucle(Blackhole bh) {
+        for (int i = 0; i < CLIENTS; i++) {
+            TypeUtilisateur type = types[i];
+            int age = ages[i];
+            double montantTotal = prix[i] * 2;
+            boolean reductionAppliquee = false;
+
+            if (type != TypeUtilisateur.INVITE) {
+                for (Reduction r : reductions) {
+                    boolean applicable =
+                            (r.getCritere() == CritereReduction.ENFANT && age < 12) ||
+                                    (r.getCritere() == CritereReduction.SENIOR && age > 60) ||
+                                    (r.getCritere() == CritereReduction.FIDELITE && type == TypeUtilisateur.MEMBRE);
+
+                    if (applicable) {
+                        montantTotal *= (1 - (r.getPourcentage() / 100.0));
+                        reductionAppliquee = true;
+                        break;
+                    }
+                }
+            }
+
+            bh.consume(montantTotal);
+            bh.consume(reductionAppliquee);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTS)
+    public void moteur(Blackhole bh) {
+        MoteurTarif m = MoteurTarif.pour(reductions);
+        for (int i = 0; i < CLIENTS; i++) {
+            int criteres = MoteurTarif.criteres(types[i], ages[i]);
+            bh.consume(m.montant(prix[i], 2, criteres));
+            bh.consume(m.reductionApplicable(criteres));
+        }
+    }
+
+    @Benchmark
+    public MoteurTarif compilation() {
+        return MoteurTarif.compiler(reductions, moteur.getPolitique(), 50);
+    }
+}
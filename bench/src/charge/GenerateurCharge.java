@@ -0,0 +1,258 @@
+package charge;
+
+import controller.AdminController;
+import controller.ClientController;
+import controller.ConnexionController;
+import controller.ReservationController;
+import dao.Stockage;
+import metriques.Mesure;
+import metriques.Metriques;
+import model.Attraction;
+import model.Utilisateur.TypeUtilisateur;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Générateur de charge sans interface : des visiteurs simulés ({@link Visiteur}), chacun dans un thread
+ * virtuel, se connectent, réservent et consultent leurs factures par les contrôleurs de l'application,
+ * comme le jour de l'ouverture
+ *
+ * Le rapport donne, par opération, le débit, le taux d'erreur et les percentiles de latence vus par
+ * les visiteurs, puis vérifie qu'aucun créneau n'a vendu plus de billets que sa capacité
+ *
+ * Sans {@code parc.stockage}, l'essai utilise le stockage en mémoire rempli du jeu de démonstration ;
+ * {@code -Dparc.stockage=jdbc} (et {@code parc.db.*}) le lance sur une vraie base
+ *
+ * Propriétés système (valeurs par défaut) :
+ * - {@code charge.visiteurs} (500) : nombre de visiteurs simultanés
+ * - {@code charge.dureeSecondes} (60) : durée de l'essai
+ * - {@code charge.monteeSecondes} (10) : arrivées étalées sur cette durée
+ * - {@code charge.reflexionMs} (1000) : temps de réflexion moyen entre deux actions
+ * - {@code charge.zipf} (1.0) : exposant de la popularité des attractions (0 : uniforme)
+ * - {@code charge.jours} (7) : réservations réparties sur les N prochains jours
+ * - {@code charge.billetsMax} (4) : billets par réservation, de 1 à N
+ * - {@code charge.reservationsParVisite} (3) : réservations par visite, de 1 à N
+ * - {@code charge.graine} (42) : graine des tirages aléatoires
+ */
+public final class GenerateurCharge {
+
+    static final String MOT_DE_PASSE = "charge";
+    static final int HEURE_OUVERTURE = 10;
+    static final int HEURE_FERMETURE = 18;
+    private static final long PROGRESSION_SECONDES = 5;
+
+    /**
+     * Paramètres d'un essai
+     */
+    record Config(int visiteurs, int dureeSecondes, long monteeMs, long reflexionMs, double zipf,
+                  int jours, int billetsMax, int reservationsParVisite, long graine) {
+
+        static Config depuisProprietes() {
+            return new Config(
+                    Integer.getInteger("charge.visiteurs", 500),
+                    Integer.getInteger("charge.dureeSecondes", 60),
+                    TimeUnit.SECONDS.toMillis(Integer.getInteger("charge.monteeSecondes", 10)),
+                    Long.getLong("charge.reflexionMs", 1000),
+                    Double.parseDouble(System.getProperty("charge.zipf", "1.0")),
+                    Math.max(1, Integer.getInteger("charge.jours", 7)),
+                    Math.max(1, Integer.getInteger("charge.billetsMax", 4)),
+                    Math.max(1, Integer.getInteger("charge.reservationsParVisite", 3)),
+                    Long.getLong("charge.graine", 42)
+            );
+        }
+    }
+
+    final Config config;
+    final ConnexionController connexion = new ConnexionController();
+    final ReservationController reservation = new ReservationController();
+    final ClientController client = new ClientController();
+    final List<Attraction> attractions; // par popularité décroissante
+    final LoiZipf popularite;
+
+    // Mesures vues par les visiteurs (temps de réponse des contrôleurs, attente comprise)
+    final Mesure connexions = Metriques.mesure("charge", "connecter");
+    final Mesure reservations = Metriques.mesure("charge", "reserverAttraction");
+    final Mesure factures = Metriques.mesure("charge", "getFacturesClient");
+
+    final LongAdder reservationsConfirmees = new LongAdder();
+    final LongAdder reservationsCompletes = new LongAdder();
+    final LongAdder reservationsEchouees = new LongAdder();
+    final LongAdder exceptions = new LongAdder();
+    final AtomicIntegerArray demandesParRang;
+
+    /** Billets vendus pendant l'essai, par créneau (attraction, jour, heure) */
+    private final Map<String, LongAdder> billetsParCreneau = new ConcurrentHashMap<>();
+    private volatile long finNanos;
+
+    GenerateurCharge(Config config) {
+        this.config = config;
+        List<Attraction> disponibles = new ArrayList<>();
+        for (Attraction a : new AdminController().listerAttractions()) {
+            if (a.isDisponible()) {
+                disponibles.add(a);
+            }
+        }
+        if (disponibles.isEmpty()) {
+            throw new IllegalStateException("Aucune attraction disponible à réserver");
+        }
+        Collections.shuffle(disponibles, new Random(config.graine())); // rang de popularité
+        this.attractions = disponibles;
+        this.popularite = new LoiZipf(disponibles.size(), config.zipf());
+        this.demandesParRang = new AtomicIntegerArray(disponibles.size());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (System.getProperty("parc.stockage") == null) {
+            System.setProperty("parc.stockage", "memoire");
+            System.setProperty("parc.stockage.demo", "true");
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        GenerateurCharge essai = new GenerateurCharge(Config.depuisProprietes());
+        essai.creerComptes();
+        essai.executer();
+        System.out.print(essai.rapport());
+        System.exit(essai.creneauxSurreserves().isEmpty() ? 0 : 2);
+    }
+
+    boolean termine() {
+        return System.nanoTime() >= finNanos;
+    }
+
+    void vendre(int idAttraction, LocalDate date, LocalTime heure, int billets) {
+        billetsParCreneau.computeIfAbsent(idAttraction + "|" + date + "|" + heure.getHour(), k -> new LongAdder()).add(billets);
+    }
+
+    static String email(int numero) {
+        return "visiteur" + numero + "@charge.parc";
+    }
+
+    /**
+     * Inscrit les comptes des visiteurs (déjà présents si la base a servi à un essai précédent)
+     */
+    private void creerComptes() {
+        Random aleatoire = new Random(config.graine());
+        TypeUtilisateur[] types = {TypeUtilisateur.CLIENT, TypeUtilisateur.CLIENT, TypeUtilisateur.MEMBRE};
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.visiteurs(); i++) {
+                String email = email(i);
+                TypeUtilisateur type = types[aleatoire.nextInt(types.length)];
+                int age = 4 + aleatoire.nextInt(80); // enfants et seniors : réductions appliquées
+                executor.submit(() -> connexion.inscrire("Visiteur", email, MOT_DE_PASSE, type, age));
+            }
+        }
+        connexions.reinitialiser();
+    }
+
+    private void executer() throws InterruptedException {
+        System.out.printf("Essai de charge : %d visiteurs pendant %d s (stockage %s)%n",
+                config.visiteurs(), config.dureeSecondes(), Stockage.getMode());
+
+        finNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.dureeSecondes());
+        Thread progression = Thread.ofPlatform().daemon().name("charge-progression").start(this::afficherProgression);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Random graines = new Random(config.graine());
+            for (int i = 0; i < config.visiteurs(); i++) {
+                executor.submit(new Visiteur(this, email(i), graines.nextLong()));
+            }
+        } // attend le départ du dernier visiteur
+        progression.interrupt();
+    }
+
+    private void afficherProgression() {
+        long precedent = 0;
+        while (!termine()) {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(PROGRESSION_SECONDES));
+            } catch (InterruptedException e) {
+                return;
+            }
+            long total = connexions.getAppels() + reservations.getAppels() + factures.getAppels();
+            System.out.printf("  %,d opérations (%,.0f/s), %,d réservations confirmées, %,d créneaux complets%n",
+                    total, (double) (total - precedent) / PROGRESSION_SECONDES,
+                    reservationsConfirmees.sum(), reservationsCompletes.sum());
+            precedent = total;
+        }
+    }
+
+    // ------------------ Rapport ------------------ //
+
+    /**
+     * Créneaux dont les billets dépassent la capacité : billets enregistrés dans le stockage
+     * (réservations antérieures comprises) ou vendus pendant l'essai
+     */
+    List<String> creneauxSurreserves() {
+        List<String> violations = new ArrayList<>();
+        for (Attraction a : attractions) {
+            if (a.getCapacite() <= 0) {
+                continue; // sans limite
+            }
+            for (int j = 0; j < config.jours(); j++) {
+                LocalDate date = LocalDate.now().plusDays(j);
+                Map<LocalTime, Integer> creneaux = Stockage.reservations().getBookedSlots(a.getId(), date);
+                if (creneaux == null) {
+                    violations.add(String.format("%s le %s : billets vendus illisibles", a.getNom(), date));
+                    continue;
+                }
+                for (Map.Entry<LocalTime, Integer> creneau : creneaux.entrySet()) {
+                    LongAdder vendus = billetsParCreneau.get(a.getId() + "|" + date + "|" + creneau.getKey().getHour());
+                    long pendantEssai = vendus == null ? 0 : vendus.sum();
+                    if (creneau.getValue() > a.getCapacite() || pendantEssai > a.getCapacite()) {
+                        violations.add(String.format("%s le %s à %s : %d billets enregistrés, %d vendus pendant l'essai, capacité %d",
+                                a.getNom(), date, creneau.getKey(), creneau.getValue(), pendantEssai, a.getCapacite()));
+                    }
+                }
+            }
+        }
+        return violations;
+    }
+
+    String rapport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%n=== Résultats : %d visiteurs, %d s, réflexion moyenne %d ms, Zipf %.2f ===%n",
+                config.visiteurs(), config.dureeSecondes(), config.reflexionMs(), config.zipf()));
+        sb.append(String.format("%-20s %10s %8s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "appels", "erreurs", "err(%)", "debit/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)"));
+        for (Mesure m : List.of(connexions, reservations, factures)) {
+            long appels = m.getAppels();
+            sb.append(String.format("%-20s %10d %8d %7.2f %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    m.getNom(), appels, m.getErreurs(), appels == 0 ? 0 : 100.0 * m.getErreurs() / appels,
+                    (double) appels / config.dureeSecondes(),
+                    m.percentileMicros(0.50) / 1e3, m.percentileMicros(0.90) / 1e3, m.percentileMicros(0.99) / 1e3,
+                    m.percentileMicros(0.999) / 1e3, m.getMaxMicros() / 1e3));
+        }
+
+        sb.append(String.format("%nRéservations : %,d confirmées, %,d refusées (créneau complet), %,d échouées ; %,d exceptions%n",
+                reservationsConfirmees.sum(), reservationsCompletes.sum(), reservationsEchouees.sum(), exceptions.sum()));
+
+        sb.append("\nDemandes par attraction (observé / attendu) :\n");
+        long demandes = 0;
+        for (int i = 0; i < attractions.size(); i++) {
+            demandes += demandesParRang.get(i);
+        }
+        for (int i = 0; i < attractions.size(); i++) {
+            sb.append(String.format("  %-24s %7d  %5.1f %% / %5.1f %%%n", attractions.get(i).getNom(), demandesParRang.get(i),
+                    demandes == 0 ? 0 : 100.0 * demandesParRang.get(i) / demandes, 100 * popularite.probabilite(i)));
+        }
+
+        List<String> violations = creneauxSurreserves();
+        sb.append(String.format("%nSurréservations : %d créneau(x)%n", violations.size()));
+        for (String v : violations) {
+            sb.append("  ").append(v).append('\n');
+        }
+        return sb.toString();
+    }
+}
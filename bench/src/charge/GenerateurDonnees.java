@@ -0,0 +1,535 @@
+package charge;
+
+import controller.MoteurTarif;
+import dao.ReductionDAO;
+import model.Reduction;
+import model.Reservation.StatutReservation;
+import model.Utilisateur.TypeUtilisateur;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Générateur de jeux de données à l'échelle d'une saison : utilisateurs, attractions, réductions,
+ * réservations et factures cohérents entre eux, insérés dans la base configurée par {@code parc.db.*}
+ *
+ * - Identifiants explicites, à la suite des lignes existantes : chaque lot est indépendant, les lots
+ *   s'écrivent en parallèle (une connexion par thread, une transaction par lot, requêtes groupées)
+ * - Données plausibles : popularité des attractions selon une loi de Zipf, affluence plus forte
+ *   le week-end et l'été, l'après-midi ; capacité des créneaux respectée ; factures calculées avec
+ *   les réductions en base par le {@link MoteurTarif} de l'application ; une facture par réservation
+ * - Les triggers des statistiques sont neutralisés pour les sessions du générateur
+ *   ({@code SET @parc_sans_stats = 1}, voir sql/006) ; Stat_Attraction et Stat_Attraction_Jour sont
+ *   recalculées en une fois à la fin. Aucune écriture de l'application ne doit avoir lieu pendant le chargement
+ *
+ * Avec MySQL, les lots sont envoyés en INSERT multi-lignes ({@code rewriteBatchedStatements}) et
+ * les contrôles d'unicité et de clés étrangères sont suspendus dans les sessions du générateur
+ *
+ * Propriétés système (valeurs par défaut) :
+ * - {@code donnees.reservations} (1 000 000) : une facture est créée pour chacune
+ * - {@code donnees.utilisateurs} (réservations / 20)
+ * - {@code donnees.attractions} (40)
+ * - {@code donnees.joursHistorique} (365) et {@code donnees.joursAVenir} (60) : période des réservations
+ * - {@code donnees.threads} (nombre de processeurs) et {@code donnees.lot} (5 000 lignes par transaction)
+ * - {@code donnees.vider} (false) : vide d'abord toutes les tables, comptes d'administration compris
+ * - {@code donnees.graine} (42) : deux exécutions avec la même graine produisent les mêmes lignes
+ *   (à l'exception des créneaux complets, réattribués dans l'ordre d'écriture des lots)
+ */
+public final class GenerateurDonnees {
+
+    private static final String[] NOMS = {
+            "Grand Huit", "Grande Roue", "Train Fantôme", "Chaises Volantes", "Rivière Sauvage", "Carrousel",
+            "Autos Tamponneuses", "Tour de Chute", "Bateau Pirate", "Labyrinthe des Glaces", "Tasses Folles",
+            "Petit Train", "Montagne de l'Ours", "Simulateur Spatial", "Toboggan Géant", "Cinéma Dynamique",
+            "Mine d'Or", "Palais du Rire", "Balade des Dinosaures", "Looping Express"
+    };
+
+    /** Affluence relative des créneaux de 10 h à 18 h */
+    private static final double[] POIDS_HEURES = {0.6, 0.9, 0.8, 1.0, 1.3, 1.4, 1.2, 0.9, 0.6};
+    /** Répartition du nombre de billets par réservation, de 1 à 6 */
+    private static final double[] POIDS_BILLETS = {0.25, 0.35, 0.20, 0.15, 0.03, 0.02};
+    private static final double BILLETS_MOYENS = 2.4;
+    private static final int ESSAIS_CRENEAU = 10;
+    private static final long PROGRESSION_SECONDES = 5;
+
+    /**
+     * Volume et parallélisme du chargement
+     */
+    record Config(int utilisateurs, int attractions, long reservations, int joursHistorique, int joursAVenir,
+                  int threads, int lot, boolean vider, long graine) {
+
+        static Config depuisProprietes() {
+            long reservations = Long.getLong("donnees.reservations", 1_000_000);
+            return new Config(
+                    Math.max(1, Integer.getInteger("donnees.utilisateurs", (int) Math.min(Integer.MAX_VALUE, reservations / 20))),
+                    Math.max(2, Integer.getInteger("donnees.attractions", 40)),
+                    reservations,
+                    Math.max(0, Integer.getInteger("donnees.joursHistorique", 365)),
+                    Math.max(1, Integer.getInteger("donnees.joursAVenir", 60)),
+                    Math.max(1, Integer.getInteger("donnees.threads", Runtime.getRuntime().availableProcessors())),
+                    Math.max(1, Integer.getInteger("donnees.lot", 5_000)),
+                    Boolean.getBoolean("donnees.vider"),
+                    Long.getLong("donnees.graine", 42)
+            );
+        }
+    }
+
+    /**
+     * Écriture d'une tranche [debut, fin) d'identifiants relatifs, sur la connexion d'un thread
+     */
+    @FunctionalInterface
+    private interface Tranche {
+        void ecrire(Connection conn, long debut, long fin, Random aleatoire) throws SQLException;
+    }
+
+    private final Config config;
+    private final String url;
+    private final String user;
+    private final String password;
+    private final boolean mysql;
+    private final LocalDate premierJour;
+    private final int jours;
+    private final int heures = GenerateurCharge.HEURE_FERMETURE - GenerateurCharge.HEURE_OUVERTURE + 1;
+
+    // Identifiants déjà présents : les lignes générées viennent après
+    private int baseUtilisateur;
+    private int baseAttraction;
+    private long baseReservation;
+    private long baseFacture;
+    private boolean codesCompacts; // colonnes *_code de sql/004 présentes
+
+    // Utilisateurs générés, pour le tarif de leurs réservations
+    private byte[] typeUtilisateur;
+    private byte[] ageUtilisateur;
+
+    // Attractions générées, par popularité décroissante
+    private double[] prix;
+    private int[] capacite;
+    private int illimitee; // attraction sans limite de capacité, quand tous les essais tombent sur des créneaux complets
+    private LoiZipf popularite;
+    private double[] repartitionJours;
+    private double[] repartitionHeures;
+    private double[] repartitionBillets;
+    private AtomicIntegerArray billetsVendus; // par (attraction, jour, heure)
+    private MoteurTarif moteur;
+
+    private final LongAdder lignes = new LongAdder();
+
+    GenerateurDonnees(Config config) {
+        this.config = config;
+        this.url = urlChargement(System.getProperty("parc.db.url",
+                "jdbc:mysql://localhost:3306/ParcAttractions?useServerPrepStmts=true"));
+        this.user = System.getProperty("parc.db.user", "root");
+        this.password = System.getProperty("parc.db.password", "root");
+        this.mysql = url.startsWith("jdbc:mysql:");
+        this.premierJour = LocalDate.now().minusDays(config.joursHistorique());
+        this.jours = config.joursHistorique() + config.joursAVenir();
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        new GenerateurDonnees(Config.depuisProprietes()).generer();
+    }
+
+    /**
+     * Requêtes groupées en INSERT multi-lignes : elles ne sont réécrites par le pilote MySQL
+     * qu'avec des requêtes préparées côté client
+     */
+    private static String urlChargement(String url) {
+        if (!url.startsWith("jdbc:mysql:")) {
+            return url;
+        }
+        String sansOptions = url.replaceAll("([?&])(useServerPrepStmts|rewriteBatchedStatements)=[^&]*&?", "$1")
+                .replaceAll("[?&]$", "");
+        return sansOptions + (sansOptions.contains("?") ? "&" : "?") + "useServerPrepStmts=false&rewriteBatchedStatements=true";
+    }
+
+    void generer() throws SQLException, InterruptedException {
+        long debut = System.nanoTime();
+        System.out.printf("Génération : %,d utilisateurs, %d attractions, %,d réservations et factures sur %d jours, %d threads%n",
+                config.utilisateurs(), config.attractions(), config.reservations(), jours, config.threads());
+
+        try (Connection conn = ouvrir()) {
+            if (config.vider()) {
+                vider(conn);
+            }
+            baseUtilisateur = (int) maxId(conn, "Utilisateur");
+            baseAttraction = (int) maxId(conn, "Attraction");
+            baseReservation = maxId(conn, "Reservation");
+            baseFacture = maxId(conn, "Facture");
+            codesCompacts = colonneExiste(conn, "Reservation", "statut_code");
+            insererReductionsSiAbsentes(conn);
+            insererAttractions(conn);
+        }
+        moteur = MoteurTarif.pour(new ReductionDAO().getAllReductions()); // réductions en base, lues comme l'application
+
+        preparerRepartitions();
+        executer("Utilisateur", config.utilisateurs(), this::ecrireUtilisateurs);
+        executer("Reservation et Facture", config.reservations(), this::ecrireReservations);
+
+        long debutStats = System.nanoTime();
+        try (Connection conn = ouvrir()) {
+            recalculerStatistiques(conn);
+        }
+        System.out.printf("Statistiques recalculées en %d s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - debutStats));
+        System.out.printf("Terminé en %d s%n", TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - debut));
+    }
+
+    // ------------------ Connexions ------------------ //
+
+    private Connection ouvrir() throws SQLException {
+        Connection conn = DriverManager.getConnection(url, user, password);
+        try (Statement st = conn.createStatement()) {
+            st.execute("SET @parc_sans_stats = 1"); // triggers de statistiques neutralisés (sql/006)
+            if (mysql) {
+                // données cohérentes par construction : contrôles suspendus pour cette session seulement
+                st.execute("SET unique_checks = 0");
+                st.execute("SET foreign_key_checks = 0");
+            }
+        }
+        return conn;
+    }
+
+    private void vider(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            for (String table : List.of("Facture", "Reservation", "Utilisateur", "Reduction", "Attraction",
+                    "Stat_Attraction_Jour", "Stat_Attraction")) {
+                st.execute("TRUNCATE TABLE " + table);
+            }
+        }
+    }
+
+    private static long maxId(Connection conn, String table) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static boolean colonneExiste(Connection conn, String table, String colonne) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getColumns(conn.getCatalog(), null, table, colonne)) {
+            return rs.next();
+        }
+    }
+
+    // ------------------ Tables de référence ------------------ //
+
+    private void insererReductionsSiAbsentes(Connection conn) throws SQLException {
+        if (maxId(conn, "Reduction") > 0) {
+            return;
+        }
+        List<Reduction> reductions = List.of(
+                new Reduction("Tarif enfant", 30, Reduction.CritereReduction.ENFANT),
+                new Reduction("Tarif senior", 20, Reduction.CritereReduction.SENIOR),
+                new Reduction("Carte fidélité", 10, Reduction.CritereReduction.FIDELITE));
+        String sql = codesCompacts
+                ? "INSERT INTO Reduction (nom, pourcentage, critere, critere_code) VALUES (?, ?, ?, ?)"
+                : "INSERT INTO Reduction (nom, pourcentage, critere) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Reduction r : reductions) {
+                ps.setString(1, r.getNom());
+                ps.setInt(2, r.getPourcentage());
+                ps.setString(3, r.getCritere().name());
+                if (codesCompacts) {
+                    ps.setInt(4, r.getCritere().ordinal() + 1);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Attractions classées par popularité ; la capacité de chaque créneau suit la demande attendue
+     * (avec une marge), pour que les créneaux populaires du week-end soient complets sans que la
+     * plupart des réservations soient refusées
+     */
+    private void insererAttractions(Connection conn) throws SQLException {
+        Random aleatoire = new Random(config.graine());
+        int n = config.attractions();
+        popularite = new LoiZipf(n, 0.8);
+        prix = new double[n];
+        capacite = new int[n];
+        illimitee = n - 1;
+
+        double billetsParCreneau = config.reservations() * BILLETS_MOYENS / ((double) jours * heures);
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO Attraction "
+                + "(id, nom, description, prix, capacite, disponible) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int a = 0; a < n; a++) {
+                String nom = NOMS[a % NOMS.length] + (a < NOMS.length ? "" : " " + (a / NOMS.length + 1));
+                prix[a] = 4 + aleatoire.nextInt(22);
+                capacite[a] = a == illimitee ? 0
+                        : (int) Math.max(10, Math.ceil(1.5 * billetsParCreneau * popularite.probabilite(a) / 10) * 10);
+
+                ps.setInt(1, baseAttraction + 1 + a);
+                ps.setString(2, nom);
+                ps.setString(3, nom + " : une attraction pour toute la famille, ouverte de "
+                        + GenerateurCharge.HEURE_OUVERTURE + " h à " + GenerateurCharge.HEURE_FERMETURE + " h.");
+                ps.setDouble(4, prix[a]);
+                ps.setInt(5, capacite[a]);
+                ps.setBoolean(6, a == illimitee || aleatoire.nextInt(20) != 0);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void preparerRepartitions() {
+        double[] poidsJours = new double[jours];
+        for (int j = 0; j < jours; j++) {
+            LocalDate jour = premierJour.plusDays(j);
+            double poids = 1;
+            if (jour.getDayOfWeek() == DayOfWeek.SATURDAY || jour.getDayOfWeek() == DayOfWeek.SUNDAY) {
+                poids *= 1.8;
+            }
+            if (jour.getMonth() == Month.JULY || jour.getMonth() == Month.AUGUST) {
+                poids *= 1.5;
+            }
+            poidsJours[j] = poids;
+        }
+        repartitionJours = repartition(poidsJours);
+        repartitionHeures = repartition(POIDS_HEURES);
+        repartitionBillets = repartition(POIDS_BILLETS);
+        billetsVendus = new AtomicIntegerArray(config.attractions() * jours * heures);
+        typeUtilisateur = new byte[config.utilisateurs()];
+        ageUtilisateur = new byte[config.utilisateurs()];
+    }
+
+    private static double[] repartition(double[] poids) {
+        double[] cumul = new double[poids.length];
+        double total = 0;
+        for (int i = 0; i < poids.length; i++) {
+            total += poids[i];
+            cumul[i] = total;
+        }
+        for (int i = 0; i < cumul.length; i++) {
+            cumul[i] /= total;
+        }
+        return cumul;
+    }
+
+    private static int tirer(double[] repartition, Random aleatoire) {
+        double u = aleatoire.nextDouble();
+        int bas = 0;
+        int haut = repartition.length - 1;
+        while (bas < haut) {
+            int milieu = (bas + haut) >>> 1;
+            if (repartition[milieu] < u) {
+                bas = milieu + 1;
+            } else {
+                haut = milieu;
+            }
+        }
+        return bas;
+    }
+
+    // ------------------ Chargement parallèle ------------------ //
+
+    /**
+     * Découpe [0, total) en lots écrits par {@code config.threads()} threads, chacun sur sa connexion
+     * Le contenu d'un lot ne dépend que de la graine et de son numéro
+     */
+    private void executer(String libelle, long total, Tranche tranche) throws InterruptedException, SQLException {
+        AtomicLong prochainLot = new AtomicLong();
+        long nbLots = (total + config.lot() - 1) / config.lot();
+        List<SQLException> erreurs = new CopyOnWriteArrayList<>();
+        lignes.reset();
+        long debut = System.nanoTime();
+
+        List<Thread> ouvriers = new ArrayList<>();
+        for (int t = 0; t < config.threads(); t++) {
+            ouvriers.add(Thread.ofPlatform().name("donnees-" + t).start(() -> {
+                try (Connection conn = ouvrir()) {
+                    conn.setAutoCommit(false);
+                    long lot;
+                    while ((lot = prochainLot.getAndIncrement()) < nbLots && erreurs.isEmpty()) {
+                        long debutLot = lot * config.lot();
+                        tranche.ecrire(conn, debutLot, Math.min(total, debutLot + config.lot()),
+                                new Random(config.graine() * 1_000_003 + libelle.hashCode() * 31L + lot));
+                        conn.commit();
+                    }
+                } catch (SQLException e) {
+                    erreurs.add(e); // les autres threads s'arrêtent après leur lot en cours
+                }
+            }));
+        }
+
+        for (Thread t : ouvriers) {
+            while (t.isAlive()) {
+                t.join(TimeUnit.SECONDS.toMillis(PROGRESSION_SECONDES));
+                double secondes = (System.nanoTime() - debut) / 1e9;
+                System.out.printf("  %s : %,d / %,d (%,.0f lignes/s)%n", libelle, lignes.sum(), total, lignes.sum() / Math.max(secondes, 1e-3));
+            }
+        }
+        if (!erreurs.isEmpty()) {
+            throw erreurs.get(0);
+        }
+    }
+
+    private void ecrireUtilisateurs(Connection conn, long debut, long fin, Random aleatoire) throws SQLException {
+        String sql = codesCompacts
+                ? "INSERT INTO Utilisateur (id, nom, email, mot_de_passe, type, type_code, age, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+                : "INSERT INTO Utilisateur (id, nom, email, mot_de_passe, type, age, date_inscription) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        LocalDate aujourdhui = LocalDate.now();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (long i = debut; i < fin; i++) {
+                int id = baseUtilisateur + 1 + (int) i;
+                TypeUtilisateur type = aleatoire.nextInt(4) == 0 ? TypeUtilisateur.MEMBRE : TypeUtilisateur.CLIENT;
+                int tirage = aleatoire.nextInt(100);
+                int age = tirage < 15 ? 4 + aleatoire.nextInt(9) // enfants
+                        : tirage < 85 ? 18 + aleatoire.nextInt(47)
+                        : 65 + aleatoire.nextInt(21); // seniors
+                typeUtilisateur[(int) i] = (byte) type.ordinal();
+                ageUtilisateur[(int) i] = (byte) age;
+
+                int c = 1;
+                ps.setInt(c++, id);
+                ps.setString(c++, "Visiteur " + id);
+                ps.setString(c++, "visiteur" + id + "@donnees.parc");
+                ps.setString(c++, "motdepasse" + id);
+                ps.setString(c++, type.name());
+                if (codesCompacts) {
+                    ps.setInt(c++, type.ordinal() + 1);
+                }
+                ps.setInt(c++, age);
+                ps.setDate(c, Date.valueOf(aujourdhui.minusDays(aleatoire.nextInt(3 * 365))));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        lignes.add(fin - debut);
+    }
+
+    private void ecrireReservations(Connection conn, long debut, long fin, Random aleatoire) throws SQLException {
+        String sqlReservation = codesCompacts
+                ? "INSERT INTO Reservation (id, id_utilisateur, id_attraction, date_reservation, heure_reservation, "
+                  + "nombre_billets, statut, statut_code) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+                : "INSERT INTO Reservation (id, id_utilisateur, id_attraction, date_reservation, heure_reservation, "
+                  + "nombre_billets, statut) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        LocalDate aujourdhui = LocalDate.now();
+
+        try (PreparedStatement r = conn.prepareStatement(sqlReservation);
+             PreparedStatement f = conn.prepareStatement("INSERT INTO Facture (id, id_reservation, montant_total, "
+                     + "date_facture, reduction_appliquee) VALUES (?, ?, ?, ?, ?)")) {
+            for (long i = debut; i < fin; i++) {
+                long idReservation = baseReservation + 1 + i;
+                int billets = 1 + tirer(repartitionBillets, aleatoire);
+
+                // créneau : attraction populaire, jour et heure d'affluence, dans la limite des places
+                int a = 0;
+                int j = 0;
+                int h = 0;
+                boolean place = false;
+                for (int essai = 0; essai < ESSAIS_CRENEAU && !place; essai++) {
+                    a = popularite.tirer(aleatoire);
+                    j = tirer(repartitionJours, aleatoire);
+                    h = tirer(repartitionHeures, aleatoire);
+                    place = prendrePlaces(a, j, h, billets);
+                }
+                if (!place) {
+                    a = illimitee;
+                }
+                LocalDate jour = premierJour.plusDays(j);
+
+                int utilisateur = aleatoire.nextInt(10) == 0 ? -1 // invité
+                        : (int) (config.utilisateurs() * Math.pow(aleatoire.nextDouble(), 1.5)); // quelques habitués
+                int criteres = utilisateur < 0 ? 0 : MoteurTarif.criteres(
+                        TypeUtilisateur.values()[typeUtilisateur[utilisateur]], ageUtilisateur[utilisateur]);
+                int tirageStatut = aleatoire.nextInt(100);
+                StatutReservation statut = tirageStatut < 90 ? StatutReservation.CONFIRMEE
+                        : tirageStatut < 97 ? StatutReservation.ANNULEE : StatutReservation.EN_ATTENTE;
+
+                int c = 1;
+                r.setLong(c++, idReservation);
+                if (utilisateur < 0) {
+                    r.setNull(c++, Types.INTEGER);
+                } else {
+                    r.setInt(c++, baseUtilisateur + 1 + utilisateur);
+                }
+                r.setInt(c++, baseAttraction + 1 + a);
+                r.setDate(c++, Date.valueOf(jour));
+                r.setTime(c++, Time.valueOf(String.format("%02d:00:00", GenerateurCharge.HEURE_OUVERTURE + h)));
+                r.setInt(c++, billets);
+                r.setString(c++, statut.name());
+                if (codesCompacts) {
+                    r.setInt(c, statut.ordinal() + 1);
+                }
+                r.addBatch();
+
+                // facture émise le jour de la réservation, au plus un mois avant la visite
+                LocalDate emission = (jour.isAfter(aujourdhui) ? aujourdhui : jour).minusDays(aleatoire.nextInt(31));
+                f.setLong(1, baseFacture + 1 + i);
+                f.setLong(2, idReservation);
+                f.setDouble(3, Math.round(moteur.montant(prix[a], billets, criteres) * 100) / 100.0);
+                f.setDate(4, Date.valueOf(emission));
+                f.setBoolean(5, moteur.reductionApplicable(criteres));
+                f.addBatch();
+            }
+            r.executeBatch(); // réservations avant leurs factures
+            f.executeBatch();
+        }
+        lignes.add(fin - debut);
+    }
+
+    private boolean prendrePlaces(int a, int j, int h, int billets) {
+        if (capacite[a] <= 0) {
+            return true;
+        }
+        int creneau = (a * jours + j) * heures + h;
+        while (true) {
+            int vendus = billetsVendus.get(creneau);
+            if (vendus + billets > capacite[a]) {
+                return false;
+            }
+            if (billetsVendus.compareAndSet(creneau, vendus, vendus + billets)) {
+                return true;
+            }
+        }
+    }
+
+    // ------------------ Statistiques ------------------ //
+
+    /**
+     * Recalcule entièrement les tables de synthèse, comme le remplissage initial de sql/003
+     */
+    private void recalculerStatistiques(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DELETE FROM Stat_Attraction_Jour");
+            st.execute("DELETE FROM Stat_Attraction");
+            st.execute("INSERT INTO Stat_Attraction (id_attraction, nb_reservations, billets, chiffre_affaires) "
+                    + "SELECT r.id_attraction, COUNT(*), SUM(r.nombre_billets), COALESCE(SUM(f.montant), 0) "
+                    + "FROM Reservation r "
+                    + "LEFT JOIN (SELECT id_reservation, SUM(montant_total) AS montant FROM Facture GROUP BY id_reservation) f "
+                    + "       ON f.id_reservation = r.id "
+                    + "GROUP BY r.id_attraction");
+            st.execute("INSERT INTO Stat_Attraction_Jour (jour, id_attraction, nb_reservations, billets, chiffre_affaires) "
+                    + "SELECT r.date_reservation, r.id_attraction, COUNT(*), SUM(r.nombre_billets), COALESCE(SUM(f.montant), 0) "
+                    + "FROM Reservation r "
+                    + "LEFT JOIN (SELECT id_reservation, SUM(montant_total) AS montant FROM Facture GROUP BY id_reservation) f "
+                    + "       ON f.id_reservation = r.id "
+                    + "GROUP BY r.date_reservation, r.id_attraction");
+            if (mysql) {
+                st.execute("ANALYZE TABLE Utilisateur, Reservation, Facture"); // statistiques de l'optimiseur
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package charge;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Tirage d'un rang selon une loi de Zipf : le rang k (à partir de 0) est choisi avec une probabilité
+ * proportionnelle à 1 / (k + 1)^s. Avec s = 1, la première attraction est demandée deux fois plus
+ * que la deuxième, trois fois plus que la troisième...
+ *
+ * La fonction de répartition est calculée une fois ; chaque tirage est une recherche dichotomique
+ */
+final class LoiZipf {
+
+    private final double[] repartition;
+
+    /**
+     * @param taille Nombre de rangs
+     * @param exposant Exposant s (0 : loi uniforme)
+     */
+    LoiZipf(int taille, double exposant) {
+        if (taille <= 0) {
+            throw new IllegalArgumentException("Aucun élément à tirer");
+        }
+        repartition = new double[taille];
+        double cumul = 0;
+        for (int k = 0; k < taille; k++) {
+            cumul += 1 / Math.pow(k + 1, exposant);
+            repartition[k] = cumul;
+        }
+        for (int k = 0; k < taille; k++) {
+            repartition[k] /= cumul;
+        }
+    }
+
+    int tirer(Random aleatoire) {
+        int i = Arrays.binarySearch(repartition, aleatoire.nextDouble());
+        int rang = i >= 0 ? i : -i - 1;
+        return Math.min(rang, repartition.length - 1);
+    }
+
+    /**
+     * @return Probabilité du rang k
+     */
+    double probabilite(int k) {
+        return k == 0 ? repartition[0] : repartition[k] - repartition[k - 1];
+    }
+}
@@ -0,0 +1,128 @@
+package charge;
+
+import model.Attraction;
+import model.Facture;
+import model.ResultatReservation;
+import model.Utilisateur;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Un visiteur simulé, exécuté dans son propre thread virtuel
+ *
+ * Il enchaîne des visites jusqu'à la fin de l'essai : connexion, quelques réservations sur les
+ * attractions les plus populaires (loi de Zipf), consultation de ses factures, puis une pause
+ * avant la visite suivante. Chaque action est précédée d'un temps de réflexion tiré d'une loi
+ * exponentielle, comme les arrivées indépendantes de vrais visiteurs
+ */
+final class Visiteur implements Runnable {
+
+    private final GenerateurCharge essai;
+    private final String email;
+    private final Random aleatoire;
+
+    Visiteur(GenerateurCharge essai, String email, long graine) {
+        this.essai = essai;
+        this.email = email;
+        this.aleatoire = new Random(graine);
+    }
+
+    @Override
+    public void run() {
+        try {
+            Thread.sleep((long) (aleatoire.nextDouble() * essai.config.monteeMs())); // arrivées étalées
+            while (!essai.termine()) {
+                Utilisateur utilisateur = connecter();
+                if (utilisateur == null) {
+                    reflechir(4);
+                    continue;
+                }
+
+                int reservations = 1 + aleatoire.nextInt(essai.config.reservationsParVisite());
+                for (int i = 0; i < reservations && !essai.termine(); i++) {
+                    reflechir(1);
+                    reserver(utilisateur);
+                }
+                if (essai.termine()) {
+                    return;
+                }
+                reflechir(1);
+                consulterFactures(utilisateur);
+                reflechir(4); // balade avant la visite suivante
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Utilisateur connecter() {
+        long debut = System.nanoTime();
+        Utilisateur utilisateur = null;
+        try {
+            utilisateur = essai.connexion.connecter(email, GenerateurCharge.MOT_DE_PASSE);
+        } catch (RuntimeException e) {
+            essai.exceptions.increment();
+        } finally {
+            essai.connexions.enregistrer(System.nanoTime() - debut, utilisateur == null);
+        }
+        return utilisateur;
+    }
+
+    private void reserver(Utilisateur utilisateur) {
+        int rang = essai.popularite.tirer(aleatoire);
+        Attraction attraction = essai.attractions.get(rang);
+        LocalDate date = LocalDate.now().plusDays(aleatoire.nextInt(essai.config.jours()));
+        LocalTime heure = LocalTime.of(GenerateurCharge.HEURE_OUVERTURE
+                + aleatoire.nextInt(GenerateurCharge.HEURE_FERMETURE - GenerateurCharge.HEURE_OUVERTURE + 1), 0);
+        int billets = 1 + aleatoire.nextInt(essai.config.billetsMax());
+        essai.demandesParRang.incrementAndGet(rang);
+
+        long debut = System.nanoTime();
+        ResultatReservation resultat = null;
+        try {
+            resultat = essai.reservation.reserver(utilisateur.getId(), attraction.getId(), date, heure, billets);
+        } catch (RuntimeException e) {
+            essai.exceptions.increment();
+        } finally {
+            // un créneau complet est une réponse normale, pas une erreur
+            essai.reservations.enregistrer(System.nanoTime() - debut, resultat == null || (!resultat.isSucces() && !resultat.isComplet()));
+        }
+
+        if (resultat == null || (!resultat.isSucces() && !resultat.isComplet())) {
+            essai.reservationsEchouees.increment();
+        } else if (resultat.isComplet()) {
+            essai.reservationsCompletes.increment();
+        } else {
+            essai.reservationsConfirmees.increment();
+            essai.vendre(attraction.getId(), date, heure, billets);
+        }
+    }
+
+    private void consulterFactures(Utilisateur utilisateur) {
+        long debut = System.nanoTime();
+        List<Facture> factures = null;
+        try {
+            factures = essai.client.getFacturesClient(utilisateur.getId());
+        } catch (RuntimeException e) {
+            essai.exceptions.increment();
+        } finally {
+            essai.factures.enregistrer(System.nanoTime() - debut, factures == null);
+        }
+    }
+
+    /**
+     * Temps de réflexion : loi exponentielle de moyenne {@code facteur} fois la réflexion configurée,
+     * plafonnée à dix fois cette moyenne
+     */
+    private void reflechir(int facteur) throws InterruptedException {
+        double moyenne = essai.config.reflexionMs() * (double) facteur;
+        if (moyenne <= 0) {
+            return;
+        }
+        double tirage = -moyenne * Math.log(1 - aleatoire.nextDouble());
+        Thread.sleep((long) Math.min(tirage, 10 * moyenne));
+    }
+}
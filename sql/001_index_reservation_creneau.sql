@@ -0,0 +1,5 @@
+-- Index composite servant la requête de disponibilité des créneaux
+-- (ReservationDAO#getBookedSlots : filtre sur l'attraction et la date, regroupement par heure)
+-- nombre_billets est ajouté en dernière colonne pour que la somme soit calculée sans lire la table
+CREATE INDEX idx_reservation_creneau
+    ON Reservation (id_attraction, date_reservation, heure_reservation, nombre_billets);
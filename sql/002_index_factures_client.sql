@@ -0,0 +1,5 @@
+-- Index servant la lecture des factures d'un client en une requête
+-- (FactureDAO#getFacturesByUtilisateur et #getFacturesDetailleesByUtilisateur)
+-- Inutile si les clés étrangères id_utilisateur et id_reservation sont déclarées : MySQL les indexe déjà
+CREATE INDEX idx_reservation_utilisateur ON Reservation (id_utilisateur);
+CREATE INDEX idx_facture_reservation ON Facture (id_reservation);
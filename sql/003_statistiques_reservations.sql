@@ -0,0 +1,98 @@
+-- Tables de synthèse des statistiques de réservation (ReportingDAO)
+-- Elles sont tenues à jour par des triggers à chaque création ou suppression de réservation
+-- ou de facture : l'écran des statistiques lit une ligne par attraction, quel que soit l'historique
+--
+-- Le remplissage initial (en fin de script) doit être exécuté sans écriture concurrente
+
+CREATE TABLE Stat_Attraction (
+    id_attraction    INT           NOT NULL PRIMARY KEY,
+    nb_reservations  INT           NOT NULL DEFAULT 0,
+    billets          INT           NOT NULL DEFAULT 0,
+    chiffre_affaires DECIMAL(14, 2) NOT NULL DEFAULT 0
+);
+
+CREATE TABLE Stat_Attraction_Jour (
+    jour             DATE          NOT NULL,
+    id_attraction    INT           NOT NULL,
+    nb_reservations  INT           NOT NULL DEFAULT 0,
+    billets          INT           NOT NULL DEFAULT 0,
+    chiffre_affaires DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (jour, id_attraction)
+);
+
+DELIMITER //
+
+CREATE TRIGGER trg_stat_reservation_insert AFTER INSERT ON Reservation
+FOR EACH ROW
+BEGIN
+    INSERT INTO Stat_Attraction (id_attraction, nb_reservations, billets)
+    VALUES (NEW.id_attraction, 1, NEW.nombre_billets)
+    ON DUPLICATE KEY UPDATE nb_reservations = nb_reservations + 1,
+                            billets = billets + NEW.nombre_billets;
+
+    INSERT INTO Stat_Attraction_Jour (jour, id_attraction, nb_reservations, billets)
+    VALUES (NEW.date_reservation, NEW.id_attraction, 1, NEW.nombre_billets)
+    ON DUPLICATE KEY UPDATE nb_reservations = nb_reservations + 1,
+                            billets = billets + NEW.nombre_billets;
+END//
+
+CREATE TRIGGER trg_stat_reservation_delete AFTER DELETE ON Reservation
+FOR EACH ROW
+BEGIN
+    UPDATE Stat_Attraction
+    SET nb_reservations = nb_reservations - 1,
+        billets = billets - OLD.nombre_billets
+    WHERE id_attraction = OLD.id_attraction;
+
+    UPDATE Stat_Attraction_Jour
+    SET nb_reservations = nb_reservations - 1,
+        billets = billets - OLD.nombre_billets
+    WHERE jour = OLD.date_reservation AND id_attraction = OLD.id_attraction;
+END//
+
+-- Le chiffre d'affaires vient des factures, rattachées à l'attraction et au jour par leur réservation
+CREATE TRIGGER trg_stat_facture_insert AFTER INSERT ON Facture
+FOR EACH ROW
+BEGIN
+    UPDATE Stat_Attraction s
+    JOIN Reservation r ON r.id = NEW.id_reservation
+    SET s.chiffre_affaires = s.chiffre_affaires + NEW.montant_total
+    WHERE s.id_attraction = r.id_attraction;
+
+    UPDATE Stat_Attraction_Jour s
+    JOIN Reservation r ON r.id = NEW.id_reservation
+    SET s.chiffre_affaires = s.chiffre_affaires + NEW.montant_total
+    WHERE s.jour = r.date_reservation AND s.id_attraction = r.id_attraction;
+END//
+
+-- ReservationDAO#deleteReservation supprime la facture avant la réservation : celle-ci existe encore ici
+CREATE TRIGGER trg_stat_facture_delete AFTER DELETE ON Facture
+FOR EACH ROW
+BEGIN
+    UPDATE Stat_Attraction s
+    JOIN Reservation r ON r.id = OLD.id_reservation
+    SET s.chiffre_affaires = s.chiffre_affaires - OLD.montant_total
+    WHERE s.id_attraction = r.id_attraction;
+
+    UPDATE Stat_Attraction_Jour s
+    JOIN Reservation r ON r.id = OLD.id_reservation
+    SET s.chiffre_affaires = s.chiffre_affaires - OLD.montant_total
+    WHERE s.jour = r.date_reservation AND s.id_attraction = r.id_attraction;
+END//
+
+DELIMITER ;
+
+-- Remplissage initial à partir de l'historique existant
+INSERT INTO Stat_Attraction (id_attraction, nb_reservations, billets, chiffre_affaires)
+SELECT r.id_attraction, COUNT(*), SUM(r.nombre_billets), COALESCE(SUM(f.montant), 0)
+FROM Reservation r
+LEFT JOIN (SELECT id_reservation, SUM(montant_total) AS montant FROM Facture GROUP BY id_reservation) f
+       ON f.id_reservation = r.id
+GROUP BY r.id_attraction;
+
+INSERT INTO Stat_Attraction_Jour (jour, id_attraction, nb_reservations, billets, chiffre_affaires)
+SELECT r.date_reservation, r.id_attraction, COUNT(*), SUM(r.nombre_billets), COALESCE(SUM(f.montant), 0)
+FROM Reservation r
+LEFT JOIN (SELECT id_reservation, SUM(montant_total) AS montant FROM Facture GROUP BY id_reservation) f
+       ON f.id_reservation = r.id
+GROUP BY r.date_reservation, r.id_attraction;
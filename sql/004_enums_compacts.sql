@@ -0,0 +1,52 @@
+-- Colonnes compactes (TINYINT) pour les valeurs énumérées, lues et écrites par dao.EnumCodec
+-- quand l'application est lancée avec -Dparc.db.enumsCompacts=true
+--
+-- Migration sans interruption :
+-- 1. ce script ajoute les colonnes *_code et les remplit depuis les colonnes texte, qui restent en place ;
+-- 2. une instance compacte écrit les deux colonnes (texte et code) et lit le code, une instance non
+--    compacte n'écrit et ne lit que le texte : toute ligne reste lisible par les deux, elles peuvent
+--    coexister le temps du déploiement. Relancer ce remplissage une fois toutes les instances passées
+--    en mode compact complète le code des lignes écrites entre-temps par les instances non compactes
+-- Les colonnes texte ne pourront être supprimées qu'avec une version qui cesse de les écrire
+--
+-- Les codes valent la position de la constante dans l'enum Java plus un (0/NULL : pas de valeur)
+
+ALTER TABLE Reservation
+    ADD COLUMN statut_code TINYINT UNSIGNED NULL,
+    MODIFY statut VARCHAR(20) NULL;
+
+ALTER TABLE Reduction
+    ADD COLUMN critere_code TINYINT UNSIGNED NULL,
+    MODIFY critere VARCHAR(20) NULL;
+
+ALTER TABLE Utilisateur
+    ADD COLUMN type_code TINYINT UNSIGNED NULL,
+    MODIFY type VARCHAR(20) NULL;
+
+-- StatutReservation : CONFIRMEE, ANNULEE, EN_ATTENTE
+UPDATE Reservation
+SET statut_code = CASE REPLACE(REPLACE(UPPER(statut), 'É', 'E'), ' ', '_')
+                      WHEN 'CONFIRMEE' THEN 1
+                      WHEN 'ANNULEE' THEN 2
+                      WHEN 'EN_ATTENTE' THEN 3
+                  END
+WHERE statut_code IS NULL AND statut IS NOT NULL;
+
+-- CritereReduction : ENFANT, SENIOR, FIDELITE
+UPDATE Reduction
+SET critere_code = CASE REPLACE(UPPER(critere), 'É', 'E')
+                       WHEN 'ENFANT' THEN 1
+                       WHEN 'SENIOR' THEN 2
+                       WHEN 'FIDELITE' THEN 3
+                   END
+WHERE critere_code IS NULL AND critere IS NOT NULL;
+
+-- TypeUtilisateur : INVITE, CLIENT, MEMBRE, ADMIN
+UPDATE Utilisateur
+SET type_code = CASE REPLACE(UPPER(type), 'É', 'E')
+                    WHEN 'INVITE' THEN 1
+                    WHEN 'CLIENT' THEN 2
+                    WHEN 'MEMBRE' THEN 3
+                    WHEN 'ADMIN' THEN 4
+                END
+WHERE type_code IS NULL AND type IS NOT NULL;
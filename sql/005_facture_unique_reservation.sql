@@ -0,0 +1,10 @@
+-- Une seule facture par réservation : rend idempotente l'écriture différée des factures
+-- (FacturesDifferees rejoue son journal après une panne, FactureDAO#insertFactures utilise INSERT IGNORE)
+
+-- Doublons éventuels : on garde la première facture de chaque réservation
+DELETE f FROM Facture f
+JOIN Facture premiere ON premiere.id_reservation = f.id_reservation AND premiere.id < f.id;
+
+-- L'index unique remplace l'index simple de 002_index_factures_client.sql
+CREATE UNIQUE INDEX uq_facture_reservation ON Facture (id_reservation);
+DROP INDEX idx_facture_reservation ON Facture;
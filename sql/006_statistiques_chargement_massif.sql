@@ -0,0 +1,81 @@
+-- Chargements massifs (charge.GenerateurDonnees) : les triggers de 003_statistiques_reservations.sql
+-- ne mettent plus à jour les tables de synthèse dans une session qui a exécuté
+--
+--     SET @parc_sans_stats = 1;
+--
+-- Ces sessions recalculent Stat_Attraction et Stat_Attraction_Jour en une fois à la fin du chargement,
+-- au lieu de deux mises à jour par ligne insérée. Les autres sessions (l'application) ne positionnent
+-- pas la variable : pour elles, rien ne change
+
+DROP TRIGGER IF EXISTS trg_stat_reservation_insert;
+DROP TRIGGER IF EXISTS trg_stat_reservation_delete;
+DROP TRIGGER IF EXISTS trg_stat_facture_insert;
+DROP TRIGGER IF EXISTS trg_stat_facture_delete;
+
+DELIMITER //
+
+CREATE TRIGGER trg_stat_reservation_insert AFTER INSERT ON Reservation
+FOR EACH ROW
+BEGIN
+    IF @parc_sans_stats IS NULL THEN
+        INSERT INTO Stat_Attraction (id_attraction, nb_reservations, billets)
+        VALUES (NEW.id_attraction, 1, NEW.nombre_billets)
+        ON DUPLICATE KEY UPDATE nb_reservations = nb_reservations + 1,
+                                billets = billets + NEW.nombre_billets;
+
+        INSERT INTO Stat_Attraction_Jour (jour, id_attraction, nb_reservations, billets)
+        VALUES (NEW.date_reservation, NEW.id_attraction, 1, NEW.nombre_billets)
+        ON DUPLICATE KEY UPDATE nb_reservations = nb_reservations + 1,
+                                billets = billets + NEW.nombre_billets;
+    END IF;
+END//
+
+CREATE TRIGGER trg_stat_reservation_delete AFTER DELETE ON Reservation
+FOR EACH ROW
+BEGIN
+    IF @parc_sans_stats IS NULL THEN
+        UPDATE Stat_Attraction
+        SET nb_reservations = nb_reservations - 1,
+            billets = billets - OLD.nombre_billets
+        WHERE id_attraction = OLD.id_attraction;
+
+        UPDATE Stat_Attraction_Jour
+        SET nb_reservations = nb_reservations - 1,
+            billets = billets - OLD.nombre_billets
+        WHERE jour = OLD.date_reservation AND id_attraction = OLD.id_attraction;
+    END IF;
+END//
+
+CREATE TRIGGER trg_stat_facture_insert AFTER INSERT ON Facture
+FOR EACH ROW
+BEGIN
+    IF @parc_sans_stats IS NULL THEN
+        UPDATE Stat_Attraction s
+        JOIN Reservation r ON r.id = NEW.id_reservation
+        SET s.chiffre_affaires = s.chiffre_affaires + NEW.montant_total
+        WHERE s.id_attraction = r.id_attraction;
+
+        UPDATE Stat_Attraction_Jour s
+        JOIN Reservation r ON r.id = NEW.id_reservation
+        SET s.chiffre_affaires = s.chiffre_affaires + NEW.montant_total
+        WHERE s.jour = r.date_reservation AND s.id_attraction = r.id_attraction;
+    END IF;
+END//
+
+CREATE TRIGGER trg_stat_facture_delete AFTER DELETE ON Facture
+FOR EACH ROW
+BEGIN
+    IF @parc_sans_stats IS NULL THEN
+        UPDATE Stat_Attraction s
+        JOIN Reservation r ON r.id = OLD.id_reservation
+        SET s.chiffre_affaires = s.chiffre_affaires - OLD.montant_total
+        WHERE s.id_attraction = r.id_attraction;
+
+        UPDATE Stat_Attraction_Jour s
+        JOIN Reservation r ON r.id = OLD.id_reservation
+        SET s.chiffre_affaires = s.chiffre_affaires - OLD.montant_total
+        WHERE s.jour = r.date_reservation AND s.id_attraction = r.id_attraction;
+    END IF;
+END//
+
+DELIMITER ;
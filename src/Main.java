@@ -1,7 +1,24 @@
+import api.ServeurHttp;
+import metriques.Metriques;
 import view.ConnexionView;
+import view.SurveillanceEdt;
+
+import java.io.IOException;
+import java.util.Arrays;
 
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        Metriques.demarrerRapport(); // si parc.metriques.rapportSecondes est configuré
+
+        // --http : API JSON seule, sans fenêtre (bornes, site web, tests de charge)
+        if (Arrays.asList(args).contains("--http")) {
+            System.setProperty("java.awt.headless", "true");
+            ServeurHttp serveur = ServeurHttp.demarrer();
+            Runtime.getRuntime().addShutdownHook(new Thread(serveur::close, "arret-http"));
+            return;
+        }
+
+        SurveillanceEdt.installer(); // gels de l'interface, voir parc.edt.*
         new ConnexionView();
     }
-}
\ No newline at end of file
+}
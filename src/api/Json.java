@@ -0,0 +1,293 @@
+package api;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture et écriture JSON minimales pour l'API HTTP, sans dépendance externe
+ *
+ * Écriture : {@link Map}, {@link Iterable}, chaînes, nombres, booléens, null, enums et dates/heures
+ * (au format ISO de leur {@code toString()})
+ * Lecture : objets en {@link LinkedHashMap}, tableaux en {@link ArrayList}, nombres entiers en
+ * {@link Long}, décimaux en {@link Double}
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    // ------------------ Écriture ------------------ //
+
+    public static String ecrire(Object valeur) {
+        StringBuilder sb = new StringBuilder(256);
+        ecrire(sb, valeur);
+        return sb.toString();
+    }
+
+    private static void ecrire(StringBuilder sb, Object valeur) {
+        if (valeur == null) {
+            sb.append("null");
+        } else if (valeur instanceof String || valeur instanceof Enum || valeur instanceof TemporalAccessor) {
+            ecrireChaine(sb, valeur.toString());
+        } else if (valeur instanceof Double || valeur instanceof Float) {
+            double d = ((Number) valeur).doubleValue();
+            sb.append(Double.isFinite(d) ? Double.toString(d) : "null");
+        } else if (valeur instanceof Number || valeur instanceof Boolean) {
+            sb.append(valeur);
+        } else if (valeur instanceof Map<?, ?> map) {
+            sb.append('{');
+            boolean premier = true;
+            for (Map.Entry<?, ?> e : map.entrySet()) {
+                if (!premier) {
+                    sb.append(',');
+                }
+                premier = false;
+                ecrireChaine(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                ecrire(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (valeur instanceof Iterable<?> liste) {
+            sb.append('[');
+            boolean premier = true;
+            for (Object element : liste) {
+                if (!premier) {
+                    sb.append(',');
+                }
+                premier = false;
+                ecrire(sb, element);
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException("Type non sérialisable en JSON : " + valeur.getClass().getName());
+        }
+    }
+
+    private static void ecrireChaine(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    // ------------------ Lecture ------------------ //
+
+    /**
+     * @throws IllegalArgumentException si le texte n'est pas du JSON valide
+     */
+    public static Object lire(String texte) {
+        Lecteur lecteur = new Lecteur(texte);
+        lecteur.espaces();
+        Object valeur = lecteur.valeur();
+        lecteur.espaces();
+        if (lecteur.pos != texte.length()) {
+            throw lecteur.erreur("fin de document attendue");
+        }
+        return valeur;
+    }
+
+    /**
+     * Lit un document dont la racine doit être un objet
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> lireObjet(String texte) {
+        Object valeur = lire(texte);
+        if (!(valeur instanceof Map)) {
+            throw new IllegalArgumentException("Objet JSON attendu");
+        }
+        return (Map<String, Object>) valeur;
+    }
+
+    private static final class Lecteur {
+        /** Imbrication maximale des objets et tableaux : la lecture est récursive */
+        private static final int PROFONDEUR_MAX = 64;
+
+        private final String texte;
+        private int pos;
+        private int profondeur;
+
+        private Lecteur(String texte) {
+            this.texte = texte;
+        }
+
+        private Object valeur() {
+            if (pos >= texte.length()) {
+                throw erreur("valeur attendue");
+            }
+            char c = texte.charAt(pos);
+            switch (c) {
+                case '{':
+                case '[':
+                    if (++profondeur > PROFONDEUR_MAX) {
+                        throw erreur("imbrication trop profonde");
+                    }
+                    Object conteneur = c == '{' ? objet() : tableau();
+                    profondeur--;
+                    return conteneur;
+                case '"':
+                    return chaine();
+                case 't':
+                    return motCle("true", Boolean.TRUE);
+                case 'f':
+                    return motCle("false", Boolean.FALSE);
+                case 'n':
+                    return motCle("null", null);
+                default:
+                    return nombre();
+            }
+        }
+
+        private Map<String, Object> objet() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++; // {
+            espaces();
+            if (suivantEst('}')) {
+                return map;
+            }
+            while (true) {
+                espaces();
+                if (pos >= texte.length() || texte.charAt(pos) != '"') {
+                    throw erreur("nom de propriété attendu");
+                }
+                String cle = chaine();
+                espaces();
+                attendre(':');
+                espaces();
+                map.put(cle, valeur());
+                espaces();
+                if (suivantEst('}')) {
+                    return map;
+                }
+                attendre(',');
+            }
+        }
+
+        private List<Object> tableau() {
+            List<Object> liste = new ArrayList<>();
+            pos++; // [
+            espaces();
+            if (suivantEst(']')) {
+                return liste;
+            }
+            while (true) {
+                espaces();
+                liste.add(valeur());
+                espaces();
+                if (suivantEst(']')) {
+                    return liste;
+                }
+                attendre(',');
+            }
+        }
+
+        private String chaine() {
+            pos++; // "
+            StringBuilder sb = new StringBuilder();
+            while (pos < texte.length()) {
+                char c = texte.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= texte.length()) {
+                    break;
+                }
+                char e = texte.charAt(pos++);
+                switch (e) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > texte.length()) {
+                            throw erreur("séquence \\u incomplète");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(texte.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw erreur("séquence \\u invalide");
+                        }
+                        pos += 4;
+                    }
+                    default -> sb.append(e); // \" \\ \/
+                }
+            }
+            throw erreur("chaîne non terminée");
+        }
+
+        private Object nombre() {
+            int debut = pos;
+            boolean decimal = false;
+            while (pos < texte.length()) {
+                char c = texte.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            String s = texte.substring(debut, pos);
+            try {
+                return decimal ? (Object) Double.parseDouble(s) : (Object) Long.parseLong(s);
+            } catch (NumberFormatException e) {
+                pos = debut;
+                throw erreur("valeur invalide");
+            }
+        }
+
+        private Object motCle(String mot, Object valeur) {
+            if (!texte.startsWith(mot, pos)) {
+                throw erreur("valeur invalide");
+            }
+            pos += mot.length();
+            return valeur;
+        }
+
+        private boolean suivantEst(char c) {
+            if (pos < texte.length() && texte.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void attendre(char c) {
+            if (!suivantEst(c)) {
+                throw erreur("'" + c + "' attendu");
+            }
+        }
+
+        private void espaces() {
+            while (pos < texte.length() && Character.isWhitespace(texte.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException erreur(String message) {
+            return new IllegalArgumentException("JSON invalide (position " + pos + ") : " + message);
+        }
+    }
+}
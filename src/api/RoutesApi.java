@@ -0,0 +1,427 @@
+package api;
+
+import api.ServeurHttp.Acces;
+import api.ServeurHttp.Reponse;
+import controller.AdminController;
+import controller.ClientController;
+import controller.ConnexionController;
+import controller.InventaireCreneaux;
+import controller.ReservationController;
+import dao.FacturesDifferees;
+import dao.ReferenceDataCache;
+import metriques.Mesure;
+import metriques.Metriques;
+import model.Attraction;
+import model.AttractionResume;
+import model.DemandeReservation;
+import model.FactureDetail;
+import model.Reduction;
+import model.Reduction.CritereReduction;
+import model.Reservation;
+import model.ReservationLigne;
+import model.ResultatGroupe;
+import model.ResultatReservation;
+import model.Utilisateur;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Routes JSON de l'API : chaque route délègue à un contrôleur, comme le font les vues Swing
+ *
+ * Public :
+ * - GET    /api/attractions                                liste des attractions (sans description)
+ * - GET    /api/attractions/{id}                           détail d'une attraction
+ * - GET    /api/attractions/{id}/creneaux?date=AAAA-MM-JJ  places restantes par créneau
+ * - GET    /api/reductions                                 réductions actives
+ * - POST   /api/sessions                                   connexion par email et mot de passe (201 avec le jeton, 401)
+ *
+ * Client connecté (en-tête Authorization: Bearer <jeton>, l'utilisateur est celui de la session) :
+ * - DELETE /api/sessions                                   déconnexion
+ * - POST   /api/reservations                               réserver (201, 409 si complet, 422 si refusée)
+ * - POST   /api/reservations/groupe                        réserver plusieurs créneaux, tout ou rien (201, 409, 422)
+ * - GET    /api/moi/reservations                           historique du client
+ * - GET    /api/moi/factures                               factures détaillées du client
+ *
+ * Administration (en-tête X-Jeton-Admin) :
+ * - GET    /api/utilisateurs/{id}/reservations             historique d'un client
+ * - GET    /api/utilisateurs/{id}/factures                 factures détaillées d'un client
+ * - POST/PUT/DELETE /api/attractions[/{id}], POST/DELETE /api/reductions[/{id}]
+ * - GET    /api/reservations?apresId=&limite=              toutes les réservations, par page
+ * - DELETE /api/reservations/{id}
+ * - GET    /api/metriques/factures                         file d'écriture différée des factures
+ * - GET    /api/metriques/operations                       latences des méthodes des DAO et contrôleurs
+ */
+final class RoutesApi {
+
+    private static final int LIMITE_PAGE_MAX = 1_000;
+    /** Horizon de réservation : chaque jour consulté occupe une entrée de l'inventaire des créneaux */
+    private static final int JOURS_RESERVABLES = Integer.getInteger("parc.http.joursReservables", 365);
+
+    private final ReservationController reservationController = new ReservationController();
+    private final ClientController clientController = new ClientController();
+    private final AdminController adminController = new AdminController();
+    private final ConnexionController connexionController = new ConnexionController();
+    private final Sessions sessions;
+
+    private RoutesApi(Sessions sessions) {
+        this.sessions = sessions;
+    }
+
+    static void enregistrer(ServeurHttp serveur) {
+        RoutesApi api = new RoutesApi(serveur.getSessions());
+
+        // ------------------ Sessions ------------------ //
+        serveur.route("POST", "/api/sessions", Acces.PUBLIC, api::connecter);
+        serveur.route("DELETE", "/api/sessions", Acces.CLIENT, requete -> {
+            api.sessions.fermer(requete.jetonSession());
+            return Reponse.vide();
+        });
+
+        // ------------------ Attractions ------------------ //
+        serveur.route("GET", "/api/attractions", Acces.PUBLIC,
+                requete -> Reponse.ok(api.map(ReferenceDataCache.getAttractionsResumees(), RoutesApi::attraction)));
+        serveur.route("GET", "/api/attractions/{id}", Acces.PUBLIC, api::attraction);
+        serveur.route("GET", "/api/attractions/{id}/creneaux", Acces.PUBLIC, api::creneaux);
+        serveur.route("POST", "/api/attractions", Acces.ADMIN, api::ajouterAttraction);
+        serveur.route("PUT", "/api/attractions/{id}", Acces.ADMIN, api::modifierAttraction);
+        serveur.route("DELETE", "/api/attractions/{id}", Acces.ADMIN,
+                requete -> resultat(api.adminController.supprimerAttraction(requete.entier("id"))));
+
+        // ------------------ Réductions ------------------ //
+        serveur.route("GET", "/api/reductions", Acces.PUBLIC,
+                requete -> Reponse.ok(api.map(api.adminController.listerReductions(), RoutesApi::reduction)));
+        serveur.route("POST", "/api/reductions", Acces.ADMIN, api::ajouterReduction);
+        serveur.route("DELETE", "/api/reductions/{id}", Acces.ADMIN,
+                requete -> resultat(api.adminController.supprimerReduction(requete.entier("id"))));
+
+        // ------------------ Réservations ------------------ //
+        serveur.route("POST", "/api/reservations", Acces.CLIENT, api::reserver);
+        serveur.route("POST", "/api/reservations/groupe", Acces.CLIENT, api::reserverGroupe);
+        serveur.route("GET", "/api/reservations", Acces.ADMIN, api::pageReservations);
+        serveur.route("DELETE", "/api/reservations/{id}", Acces.ADMIN,
+                requete -> resultat(api.reservationController.supprimerReservation(requete.entier("id"))));
+        serveur.route("GET", "/api/moi/reservations", Acces.CLIENT,
+                requete -> Reponse.ok(api.map(api.reservationController.getHistoriqueUtilisateur(requete.utilisateur()), RoutesApi::reservation)));
+        serveur.route("GET", "/api/utilisateurs/{id}/reservations", Acces.ADMIN,
+                requete -> Reponse.ok(api.map(api.reservationController.getHistoriqueUtilisateur(requete.entier("id")), RoutesApi::reservation)));
+
+        // ------------------ Factures ------------------ //
+        serveur.route("GET", "/api/moi/factures", Acces.CLIENT,
+                requete -> Reponse.ok(api.map(api.clientController.getFacturesDetailleesClient(requete.utilisateur()), RoutesApi::facture)));
+        serveur.route("GET", "/api/utilisateurs/{id}/factures", Acces.ADMIN,
+                requete -> Reponse.ok(api.map(api.clientController.getFacturesDetailleesClient(requete.entier("id")), RoutesApi::facture)));
+        serveur.route("GET", "/api/metriques/factures", Acces.ADMIN, api::metriquesFactures);
+        serveur.route("GET", "/api/metriques/operations", Acces.ADMIN, api::metriquesOperations);
+    }
+
+    // ------------------ Traitements ------------------ //
+
+    private Reponse attraction(ServeurHttp.Requete requete) {
+        Attraction a = adminController.getAttractionById(requete.entier("id"));
+        if (a == null) {
+            return Reponse.erreur(404, "Attraction inconnue");
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", a.getId());
+        m.put("nom", a.getNom());
+        m.put("description", a.getDescription());
+        m.put("prix", a.getPrix());
+        m.put("capacite", a.getCapacite());
+        m.put("disponible", a.isDisponible());
+        return Reponse.ok(m);
+    }
+
+    private Reponse creneaux(ServeurHttp.Requete requete) {
+        int id = requete.entier("id");
+        LocalDate date = dateReservable(LocalDate.parse(requete.query("date", LocalDate.now().toString())));
+
+        AttractionResume attraction = null;
+        for (AttractionResume a : ReferenceDataCache.getAttractionsResumees()) {
+            if (a.getId() == id) {
+                attraction = a;
+                break;
+            }
+        }
+        if (attraction == null) {
+            return Reponse.erreur(404, "Attraction inconnue");
+        }
+
+        List<Map<String, Object>> creneaux = new ArrayList<>();
+        for (int heure = InventaireCreneaux.HEURE_OUVERTURE; heure <= InventaireCreneaux.HEURE_FERMETURE; heure++) {
+            LocalTime t = LocalTime.of(heure, 0);
+            int places = reservationController.getPlacesRestantes(id, attraction.getCapacite(), date, t);
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("heure", t);
+            m.put("placesRestantes", places == InventaireCreneaux.ILLIMITE ? null : places); // null : sans limite
+            creneaux.add(m);
+        }
+        return Reponse.ok(creneaux);
+    }
+
+    /**
+     * @return La date, si elle est entre aujourd'hui et l'horizon de réservation
+     * @throws IllegalArgumentException sinon (réponse 400)
+     */
+    private static LocalDate dateReservable(LocalDate date) {
+        LocalDate aujourdHui = LocalDate.now();
+        if (date.isBefore(aujourdHui) || date.isAfter(aujourdHui.plusDays(JOURS_RESERVABLES))) {
+            throw new IllegalArgumentException("Date hors de la période réservable (aujourd'hui + " + JOURS_RESERVABLES + " jours) : " + date);
+        }
+        return date;
+    }
+
+    /**
+     * @return L'heure, si c'est un créneau réservable (heure pleine de 10 h à 18 h)
+     * @throws IllegalArgumentException si elle manque ou n'est pas un créneau (réponse 400)
+     */
+    private static LocalTime creneau(Object valeur) {
+        if (valeur == null) {
+            throw new IllegalArgumentException("Champ 'heure' obligatoire");
+        }
+        LocalTime heure = LocalTime.parse(valeur.toString());
+        if (!InventaireCreneaux.estCreneau(heure)) {
+            throw new IllegalArgumentException("Champ 'heure' : heure pleine de " + InventaireCreneaux.HEURE_OUVERTURE
+                    + ":00 à " + InventaireCreneaux.HEURE_FERMETURE + ":00 attendue : " + heure);
+        }
+        return heure;
+    }
+
+    /**
+     * @return Le nombre de billets, s'il ne dépasse pas {@code parc.reservation.maxBillets}
+     * @throws IllegalArgumentException sinon (réponse 400)
+     */
+    private static int billets(int nbBillets) {
+        if (nbBillets > ReservationController.MAX_BILLETS_RESERVATION) {
+            throw new IllegalArgumentException("Champ 'nbBillets' : au plus " + ReservationController.MAX_BILLETS_RESERVATION
+                    + " billets par réservation");
+        }
+        return nbBillets;
+    }
+
+    private Reponse ajouterAttraction(ServeurHttp.Requete requete) throws Exception {
+        return resultatCreation(adminController.ajouterAttraction(lireAttraction(requete)));
+    }
+
+    private Reponse modifierAttraction(ServeurHttp.Requete requete) throws Exception {
+        Attraction a = lireAttraction(requete);
+        a.setId(requete.entier("id"));
+        return resultat(adminController.modifierAttraction(a));
+    }
+
+    private Reponse ajouterReduction(ServeurHttp.Requete requete) throws Exception {
+        Reduction r = new Reduction(
+                requete.champTexte("nom"),
+                requete.champEntier("pourcentage"),
+                CritereReduction.valueOf(requete.champTexte("critere")));
+        return resultatCreation(adminController.ajouterReduction(r));
+    }
+
+    /**
+     * Corps : {@code {"email": "...", "motDePasse": "..."}}
+     * Réponse : {@code {"jeton": "...", "idUtilisateur": 12, "nom": "...", "type": "..."}}, jeton à présenter
+     * dans l'en-tête {@code Authorization: Bearer <jeton>}
+     */
+    private Reponse connecter(ServeurHttp.Requete requete) throws Exception {
+        Utilisateur u = connexionController.connecter(requete.champTexte("email"), requete.champTexte("motDePasse"));
+        if (u == null) {
+            return Reponse.erreur(401, "Email ou mot de passe incorrect");
+        }
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jeton", sessions.ouvrir(u.getId()));
+        m.put("idUtilisateur", u.getId());
+        m.put("nom", u.getNom());
+        m.put("type", u.getType().name());
+        return Reponse.cree(m);
+    }
+
+    /**
+     * Corps : {@code {"idAttraction": 3, "date": "AAAA-MM-JJ", "heure": "HH:00", "nbBillets": 2}}, heure obligatoire
+     * (créneau de 10:00 à 18:00), au plus {@code parc.reservation.maxBillets} billets
+     * La réservation est au nom du client de la session
+     */
+    private Reponse reserver(ServeurHttp.Requete requete) throws Exception {
+        ResultatReservation resultat = reservationController.reserver(
+                requete.utilisateur(),
+                requete.champEntier("idAttraction"),
+                dateReservable(requete.champDate("date")),
+                creneau(requete.champ("heure")),
+                billets(requete.champEntier("nbBillets")));
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        if (resultat.isSucces()) {
+            m.put("idReservation", resultat.getIdReservation());
+            m.put("montantTotal", resultat.getMontantTotal());
+            m.put("reductionAppliquee", resultat.isReductionAppliquee());
+            return Reponse.cree(m);
+        }
+        if (resultat.isComplet()) {
+            return Reponse.erreur(409, "Plus assez de places sur ce créneau");
+        }
+        return Reponse.erreur(422, "Réservation refusée");
+    }
+
+    /**
+     * Corps : {@code {"reservations": [{"idAttraction": 3, "date": "AAAA-MM-JJ", "heure": "HH:mm",
+     * "nbBillets": 30}, ...]}}, au nom du client de la session ; en cas de refus, {@code ligne} désigne
+     * la demande en cause (null si c'est le groupe entier, trop de demandes ou de billets)
+     */
+    private Reponse reserverGroupe(ServeurHttp.Requete requete) throws Exception {
+        if (!(requete.champ("reservations") instanceof List<?> lignes)) {
+            throw new IllegalArgumentException("Champ 'reservations' : tableau attendu");
+        }
+        List<DemandeReservation> demandes = new ArrayList<>(lignes.size());
+        for (Object ligne : lignes) {
+            demandes.add(demande(ligne));
+        }
+
+        ResultatGroupe resultat = reservationController.reserverGroupe(requete.utilisateur(), demandes);
+        if (resultat.isSucces()) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("idsReservations", resultat.getIdsReservations());
+            m.put("montantTotal", resultat.getMontantTotal());
+            return Reponse.cree(m);
+        }
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("erreur", resultat.isComplet() ? "Plus assez de places sur ce créneau" : "Réservation de groupe refusée");
+        m.put("ligne", resultat.getLigneRefusee() >= 0 ? resultat.getLigneRefusee() : null);
+        return Reponse.statut(resultat.isComplet() ? 409 : 422, m);
+    }
+
+    private static DemandeReservation demande(Object ligne) {
+        if (!(ligne instanceof Map<?, ?> m)) {
+            throw new IllegalArgumentException("Champ 'reservations' : objets attendus");
+        }
+        return new DemandeReservation(
+                entier(m, "idAttraction"),
+                dateReservable(LocalDate.parse(String.valueOf(m.get("date")))),
+                creneau(m.get("heure")),
+                entier(m, "nbBillets"));
+    }
+
+    private static int entier(Map<?, ?> m, String nom) {
+        if (!(m.get(nom) instanceof Long l) || l != l.intValue()) {
+            throw new IllegalArgumentException("Champ '" + nom + "' : entier attendu");
+        }
+        return l.intValue();
+    }
+
+    private Reponse pageReservations(ServeurHttp.Requete requete) {
+        int apresId = requete.queryEntier("apresId", 0);
+        int limite = Math.max(1, Math.min(LIMITE_PAGE_MAX, requete.queryEntier("limite", 100)));
+        return Reponse.ok(map(reservationController.getPageReservations(apresId, limite), RoutesApi::ligne));
+    }
+
+    private Reponse metriquesFactures(ServeurHttp.Requete requete) {
+        FacturesDifferees file = reservationController.getFacturesDifferees();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("differees", file != null);
+        if (file != null) {
+            m.put("profondeur", file.getProfondeur());
+            m.put("retardMs", file.getRetardMs());
+            m.put("soumises", file.getSoumises());
+            m.put("ecrites", file.getEcrites());
+            m.put("lots", file.getLots());
+            m.put("echecs", file.getEchecs());
+            m.put("dernierEchec", file.getDernierEchec() == 0 ? null : Instant.ofEpochMilli(file.getDernierEchec()));
+        }
+        return Reponse.ok(m);
+    }
+
+    private Reponse metriquesOperations(ServeurHttp.Requete requete) {
+        Map<String, Map<String, Object>> parCouche = new TreeMap<>();
+        for (Mesure.Instantane i : Metriques.instantanes()) {
+            parCouche.computeIfAbsent(i.couche(), c -> new TreeMap<>()).put(i.nom(), i.versMap());
+        }
+        return Reponse.ok(parCouche);
+    }
+
+    // ------------------ Conversions ------------------ //
+
+    private static Attraction lireAttraction(ServeurHttp.Requete requete) throws Exception {
+        return new Attraction(
+                requete.champTexte("nom"),
+                requete.corps().getOrDefault("description", "").toString(),
+                requete.champDecimal("prix"),
+                requete.champEntier("capacite"),
+                requete.champBooleen("disponible", true));
+    }
+
+    private static Reponse resultat(boolean reussi) {
+        return reussi ? Reponse.vide() : Reponse.erreur(404, "Opération impossible : élément inconnu ou refusé");
+    }
+
+    private static Reponse resultatCreation(boolean reussi) {
+        return reussi ? Reponse.statut(201, null) : Reponse.erreur(422, "Création refusée");
+    }
+
+    private <T> List<Map<String, Object>> map(List<T> elements, Function<T, Map<String, Object>> conversion) {
+        List<Map<String, Object>> liste = new ArrayList<>(elements.size());
+        for (T e : elements) {
+            liste.add(conversion.apply(e));
+        }
+        return liste;
+    }
+
+    private static Map<String, Object> attraction(AttractionResume a) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", a.getId());
+        m.put("nom", a.getNom());
+        m.put("prix", a.getPrix());
+        m.put("capacite", a.getCapacite());
+        m.put("disponible", a.isDisponible());
+        return m;
+    }
+
+    private static Map<String, Object> reduction(Reduction r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", r.getId());
+        m.put("nom", r.getNom());
+        m.put("pourcentage", r.getPourcentage());
+        m.put("critere", r.getCritere());
+        return m;
+    }
+
+    private static Map<String, Object> reservation(Reservation r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", r.getId());
+        m.put("idAttraction", r.getIdAttraction());
+        m.put("date", r.getDateReservation());
+        m.put("heure", r.getHeureReservation());
+        m.put("nbBillets", r.getNombreBillets());
+        m.put("statut", r.getStatut());
+        return m;
+    }
+
+    private static Map<String, Object> ligne(ReservationLigne r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", r.getId());
+        m.put("idUtilisateur", r.getIdUtilisateur() == 0 ? null : r.getIdUtilisateur());
+        m.put("attraction", r.getNomAttraction());
+        m.put("date", r.getDateReservation());
+        m.put("heure", r.getHeureReservation());
+        m.put("nbBillets", r.getNombreBillets());
+        m.put("statut", r.getStatut());
+        return m;
+    }
+
+    private static Map<String, Object> facture(FactureDetail f) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("id", f.getIdFacture());
+        m.put("idReservation", f.getIdReservation());
+        m.put("attraction", f.getNomAttraction());
+        m.put("date", f.getDateReservation());
+        m.put("heure", f.getHeureReservation());
+        m.put("montantTotal", f.getMontantTotal());
+        m.put("reductionAppliquee", f.isReductionAppliquee());
+        return m;
+    }
+}
@@ -0,0 +1,505 @@
+package api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import metriques.Mesure;
+import metriques.Metriques;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serveur HTTP embarqué exposant les contrôleurs en JSON, sans interface Swing
+ *
+ * Chaque requête est traitée dans un thread virtuel ; le nombre de requêtes traitées en même temps
+ * est borné (propriété {@code parc.http.workers}, 200 par défaut). Une requête qui n'obtient pas de
+ * place en {@code parc.http.attenteMs} millisecondes (2000 par défaut) reçoit une réponse 503
+ *
+ * Chaque route déclare son {@link Acces} :
+ * - les routes client exigent une session ({@code Authorization: Bearer <jeton>}, voir {@link Sessions}) ;
+ *   l'utilisateur de la requête est celui de la session ({@link Requete#utilisateur()})
+ * - les routes d'administration ne sont actives que si un jeton est configuré
+ *   ({@code parc.http.jetonAdmin}) et exigent l'en-tête {@code X-Jeton-Admin}
+ *
+ * Le corps d'une requête est limité à {@code parc.http.corpsMaxOctets} octets (256 Kio par défaut,
+ * 413 au-delà) ; toute erreur d'un traitement, {@link StackOverflowError} comprise, reçoit une réponse 500
+ *
+ * Les latences de chaque route sont mesurées ({@link Metriques}, couche {@code http}) et publiées
+ * sur {@code GET /api/metriques}
+ */
+public class ServeurHttp implements AutoCloseable {
+
+    static final int CORPS_MAX_OCTETS = Integer.getInteger("parc.http.corpsMaxOctets", 256 * 1024);
+
+    private final HttpServer serveur;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore places;
+    private final int maxRequetes;
+    private final long attenteMs;
+    private final String jetonAdmin;
+    private final Sessions sessions = new Sessions();
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, Mesure> mesures = new ConcurrentHashMap<>();
+
+    /**
+     * @param port Port d'écoute (0 : port libre choisi par le système)
+     * @param maxRequetes Nombre maximal de requêtes traitées simultanément
+     * @param attenteMs Attente maximale d'une place avant de répondre 503
+     * @param jetonAdmin Jeton des routes d'administration, null pour les désactiver
+     */
+    public ServeurHttp(int port, int maxRequetes, long attenteMs, String jetonAdmin) throws IOException {
+        if (maxRequetes <= 0) {
+            throw new IllegalArgumentException("Le nombre de requêtes simultanées doit être positif : " + maxRequetes);
+        }
+        this.maxRequetes = maxRequetes;
+        this.places = new Semaphore(maxRequetes);
+        this.attenteMs = attenteMs;
+        this.jetonAdmin = jetonAdmin == null || jetonAdmin.isBlank() ? null : jetonAdmin;
+
+        this.serveur = HttpServer.create(new InetSocketAddress(port), 0);
+        serveur.setExecutor(executor);
+        serveur.createContext("/api/", this::traiter);
+        route("GET", "/api/metriques", Acces.PUBLIC, requete -> Reponse.ok(getMetriques()));
+    }
+
+    /**
+     * Crée le serveur configuré par les propriétés système, avec toutes les routes de l'application, et le démarre
+     */
+    public static ServeurHttp demarrer() throws IOException {
+        ServeurHttp serveur = new ServeurHttp(
+                Integer.getInteger("parc.http.port", 8080),
+                Integer.getInteger("parc.http.workers", 200),
+                Long.getLong("parc.http.attenteMs", 2_000L),
+                System.getProperty("parc.http.jetonAdmin"));
+        RoutesApi.enregistrer(serveur);
+        serveur.start();
+        return serveur;
+    }
+
+    /**
+     * Déclare une route
+     *
+     * @param methode Méthode HTTP
+     * @param modele Chemin, dont les segments {@code {nom}} sont des paramètres ({@code /api/attractions/{id}})
+     * @param acces Qui peut appeler la route
+     * @param traitement Traitement de la requête
+     */
+    public void route(String methode, String modele, Acces acces, Traitement traitement) {
+        routes.add(new Route(methode, modele, acces, traitement));
+    }
+
+    /**
+     * @return Les sessions des clients, ouvertes par la route de connexion
+     */
+    Sessions getSessions() {
+        return sessions;
+    }
+
+    public void start() {
+        serveur.start();
+        System.out.println("API HTTP démarrée sur le port " + getPort()
+                + (jetonAdmin == null ? " (routes d'administration désactivées)" : ""));
+    }
+
+    public int getPort() {
+        return serveur.getAddress().getPort();
+    }
+
+    /**
+     * @return Latences par route et occupation du serveur
+     */
+    public Map<String, Object> getMetriques() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("requetesEnCours", maxRequetes - places.availablePermits());
+        m.put("requetesMax", maxRequetes);
+        Map<String, Object> parRoute = new TreeMap<>();
+        mesures.forEach((route, mesure) -> parRoute.put(route, mesure.instantane().versMap()));
+        m.put("routes", parRoute);
+        return m;
+    }
+
+    @Override
+    public void close() {
+        serveur.stop(1);
+        executor.shutdownNow();
+        sessions.close();
+    }
+
+    // ------------------ Traitement des requêtes ------------------ //
+
+    private void traiter(HttpExchange echange) throws IOException {
+        long debut = System.nanoTime();
+        String methode = echange.getRequestMethod();
+        String[] segments = decouper(echange.getRequestURI().getPath());
+
+        Route route = null;
+        Map<String, String> parametres = null;
+        boolean autreMethode = false;
+        for (Route r : routes) {
+            Map<String, String> p = r.correspondre(segments);
+            if (p != null) {
+                if (r.methode.equals(methode)) {
+                    route = r;
+                    parametres = p;
+                    break;
+                }
+                autreMethode = true;
+            }
+        }
+
+        Reponse reponse;
+        String cle;
+        if (route == null) {
+            cle = autreMethode ? "405" : "404";
+            reponse = autreMethode ? Reponse.erreur(405, "Méthode non autorisée") : Reponse.erreur(404, "Ressource inconnue");
+        } else {
+            cle = route.methode + " " + route.modele;
+            try {
+                reponse = executer(route, new Requete(echange, parametres));
+            } catch (Throwable t) { // jamais d'échange laissé sans réponse
+                t.printStackTrace();
+                reponse = Reponse.erreur(500, "Erreur interne");
+            }
+        }
+
+        try {
+            envoyer(echange, reponse);
+        } finally {
+            mesures.computeIfAbsent(cle, k -> Metriques.mesure("http", k))
+                    .enregistrer(System.nanoTime() - debut, reponse.statut >= 500);
+        }
+    }
+
+    /**
+     * Compare le jeton reçu au jeton d'administration en temps constant : la durée de la comparaison
+     * ne dit pas combien de caractères sont justes
+     */
+    private boolean jetonValide(String recu) {
+        return recu != null && MessageDigest.isEqual(
+                jetonAdmin.getBytes(StandardCharsets.UTF_8), recu.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Reponse executer(Route route, Requete requete) {
+        if (route.acces == Acces.ADMIN) {
+            if (jetonAdmin == null) {
+                return Reponse.erreur(403, "Administration désactivée sur ce serveur");
+            }
+            if (!jetonValide(requete.echange.getRequestHeaders().getFirst("X-Jeton-Admin"))) {
+                return Reponse.erreur(401, "Jeton d'administration manquant ou invalide");
+            }
+        } else if (route.acces == Acces.CLIENT) {
+            requete.idUtilisateur = sessions.utilisateur(requete.jetonSession());
+            if (requete.idUtilisateur == null) {
+                return Reponse.erreur(401, "Session manquante ou expirée (POST /api/sessions)");
+            }
+        }
+
+        try {
+            if (!places.tryAcquire(attenteMs, TimeUnit.MILLISECONDS)) {
+                return Reponse.erreur(503, "Serveur saturé, réessayez");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Reponse.erreur(503, "Serveur en cours d'arrêt");
+        }
+
+        try {
+            return route.traitement.traiter(requete);
+        } catch (ErreurHttp e) {
+            return Reponse.erreur(e.statut, e.getMessage());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return Reponse.erreur(400, e.getMessage());
+        } catch (Throwable t) { // StackOverflowError comprise : la requête reçoit quand même sa réponse
+            t.printStackTrace();
+            return Reponse.erreur(500, "Erreur interne");
+        } finally {
+            places.release();
+        }
+    }
+
+    private static void envoyer(HttpExchange echange, Reponse reponse) throws IOException {
+        try (echange) {
+            byte[] corps = reponse.corps == null ? new byte[0] : Json.ecrire(reponse.corps).getBytes(StandardCharsets.UTF_8);
+            echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            echange.sendResponseHeaders(reponse.statut, corps.length == 0 ? -1 : corps.length);
+            if (corps.length > 0) {
+                try (OutputStream out = echange.getResponseBody()) {
+                    out.write(corps);
+                }
+            }
+        }
+    }
+
+    private static String[] decouper(String chemin) {
+        return chemin.replaceAll("^/+|/+$", "").split("/+");
+    }
+
+    /**
+     * Appelants autorisés d'une route
+     */
+    public enum Acces {
+        /** Sans authentification */
+        PUBLIC,
+        /** Client connecté : session ouverte par {@code POST /api/sessions} */
+        CLIENT,
+        /** Administration : en-tête {@code X-Jeton-Admin} */
+        ADMIN
+    }
+
+    /**
+     * Erreur d'une requête à renvoyer avec son code HTTP (corps trop volumineux, accès refusé…)
+     */
+    public static final class ErreurHttp extends RuntimeException {
+        private final int statut;
+
+        public ErreurHttp(int statut, String message) {
+            super(message);
+            this.statut = statut;
+        }
+    }
+
+    /**
+     * Traitement d'une route
+     */
+    @FunctionalInterface
+    public interface Traitement {
+        Reponse traiter(Requete requete) throws Exception;
+    }
+
+    private static final class Route {
+        private final String methode;
+        private final String modele;
+        private final Acces acces;
+        private final Traitement traitement;
+        private final String[] segments;
+
+        private Route(String methode, String modele, Acces acces, Traitement traitement) {
+            this.methode = methode;
+            this.modele = modele;
+            this.acces = acces;
+            this.traitement = traitement;
+            this.segments = decouper(modele);
+        }
+
+        /**
+         * @return Les paramètres du chemin si le chemin correspond au modèle, null sinon
+         */
+        private Map<String, String> correspondre(String[] chemin) {
+            if (chemin.length != segments.length) {
+                return null;
+            }
+            Map<String, String> parametres = new HashMap<>();
+            for (int i = 0; i < segments.length; i++) {
+                String s = segments[i];
+                if (s.startsWith("{") && s.endsWith("}")) {
+                    parametres.put(s.substring(1, s.length() - 1), chemin[i]);
+                } else if (!s.equals(chemin[i])) {
+                    return null;
+                }
+            }
+            return parametres;
+        }
+    }
+
+    /**
+     * Requête reçue : paramètres du chemin, de l'URL et corps JSON
+     */
+    public static final class Requete {
+        private final HttpExchange echange;
+        private final Map<String, String> parametres;
+        private Map<String, String> query;
+        private Map<String, Object> corps;
+        private Integer idUtilisateur; // utilisateur de la session, routes client seulement
+
+        private Requete(HttpExchange echange, Map<String, String> parametres) {
+            this.echange = echange;
+            this.parametres = parametres;
+        }
+
+        /**
+         * @return L'identifiant de l'utilisateur de la session (routes {@link Acces#CLIENT})
+         * @throws ErreurHttp 401 si la requête n'est pas authentifiée
+         */
+        public int utilisateur() {
+            if (idUtilisateur == null) {
+                throw new ErreurHttp(401, "Session requise");
+            }
+            return idUtilisateur;
+        }
+
+        /**
+         * @return Le jeton de l'en-tête {@code Authorization: Bearer <jeton>}, ou null
+         */
+        public String jetonSession() {
+            String entete = echange.getRequestHeaders().getFirst("Authorization");
+            if (entete == null || !entete.regionMatches(true, 0, "Bearer ", 0, 7)) {
+                return null;
+            }
+            return entete.substring(7).trim();
+        }
+
+        /**
+         * @return Le paramètre entier du chemin ({@code {id}})
+         */
+        public int entier(String nom) {
+            try {
+                return Integer.parseInt(parametres.get(nom));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Paramètre '" + nom + "' invalide : " + parametres.get(nom));
+            }
+        }
+
+        /**
+         * @return Le paramètre de l'URL ({@code ?nom=valeur}), ou la valeur par défaut
+         */
+        public String query(String nom, String defaut) {
+            if (query == null) {
+                query = new HashMap<>();
+                String brute = echange.getRequestURI().getRawQuery();
+                if (brute != null) {
+                    for (String paire : brute.split("&")) {
+                        int egal = paire.indexOf('=');
+                        if (egal > 0) {
+                            query.put(URLDecoder.decode(paire.substring(0, egal), StandardCharsets.UTF_8),
+                                    URLDecoder.decode(paire.substring(egal + 1), StandardCharsets.UTF_8));
+                        }
+                    }
+                }
+            }
+            return query.getOrDefault(nom, defaut);
+        }
+
+        public int queryEntier(String nom, int defaut) {
+            String valeur = query(nom, null);
+            try {
+                return valeur == null ? defaut : Integer.parseInt(valeur);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Paramètre '" + nom + "' invalide : " + valeur);
+            }
+        }
+
+        /**
+         * @return Le corps de la requête, qui doit être un objet JSON
+         * @throws ErreurHttp 413 si le corps dépasse {@code parc.http.corpsMaxOctets} octets
+         */
+        public Map<String, Object> corps() throws IOException {
+            if (corps == null) {
+                try (InputStream in = echange.getRequestBody()) {
+                    byte[] octets = in.readNBytes(CORPS_MAX_OCTETS + 1); // jamais plus que la limite en mémoire
+                    if (octets.length > CORPS_MAX_OCTETS) {
+                        throw new ErreurHttp(413, "Corps de requête trop volumineux (maximum " + CORPS_MAX_OCTETS + " octets)");
+                    }
+                    corps = Json.lireObjet(new String(octets, StandardCharsets.UTF_8));
+                }
+            }
+            return corps;
+        }
+
+        public Object champ(String nom) throws IOException {
+            Object valeur = corps().get(nom);
+            if (valeur == null) {
+                throw new IllegalArgumentException("Champ '" + nom + "' obligatoire");
+            }
+            return valeur;
+        }
+
+        public int champEntier(String nom) throws IOException {
+            Object valeur = champ(nom);
+            if (!(valeur instanceof Long l) || l != l.intValue()) {
+                throw new IllegalArgumentException("Champ '" + nom + "' : entier attendu");
+            }
+            return l.intValue();
+        }
+
+        public int champEntier(String nom, int defaut) throws IOException {
+            return corps().get(nom) == null ? defaut : champEntier(nom);
+        }
+
+        public double champDecimal(String nom) throws IOException {
+            Object valeur = champ(nom);
+            if (!(valeur instanceof Number n)) {
+                throw new IllegalArgumentException("Champ '" + nom + "' : nombre attendu");
+            }
+            return n.doubleValue();
+        }
+
+        public String champTexte(String nom) throws IOException {
+            return champ(nom).toString();
+        }
+
+        public boolean champBooleen(String nom, boolean defaut) throws IOException {
+            Object valeur = corps().get(nom);
+            if (valeur == null) {
+                return defaut;
+            }
+            if (!(valeur instanceof Boolean b)) {
+                throw new IllegalArgumentException("Champ '" + nom + "' : booléen attendu");
+            }
+            return b;
+        }
+
+        public LocalDate champDate(String nom) throws IOException {
+            return LocalDate.parse(champTexte(nom));
+        }
+
+        /**
+         * @return L'heure (format HH:mm), ou null si le champ est absent
+         */
+        public LocalTime champHeure(String nom) throws IOException {
+            Object valeur = corps().get(nom);
+            return valeur == null ? null : LocalTime.parse(valeur.toString());
+        }
+    }
+
+    /**
+     * Réponse à renvoyer : code HTTP et corps sérialisé en JSON
+     */
+    public static final class Reponse {
+        private final int statut;
+        private final Object corps;
+
+        private Reponse(int statut, Object corps) {
+            this.statut = statut;
+            this.corps = corps;
+        }
+
+        public static Reponse ok(Object corps) {
+            return new Reponse(200, corps);
+        }
+
+        public static Reponse cree(Object corps) {
+            return new Reponse(201, corps);
+        }
+
+        public static Reponse vide() {
+            return new Reponse(204, null);
+        }
+
+        public static Reponse statut(int statut, Object corps) {
+            return new Reponse(statut, corps);
+        }
+
+        public static Reponse erreur(int statut, String message) {
+            return new Reponse(statut, Map.of("erreur", message == null ? "" : message));
+        }
+    }
+}
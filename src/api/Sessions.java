@@ -0,0 +1,152 @@
+package api;
+
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sessions des clients de l'API : un jeton opaque, remis par {@code POST /api/sessions} après
+ * vérification de l'email et du mot de passe, puis présenté dans l'en-tête
+ * {@code Authorization: Bearer <jeton>}
+ *
+ * L'identité d'une requête vient toujours de sa session, jamais de l'URL ni du corps
+ *
+ * Une session expire après {@code parc.http.sessionMinutes} minutes sans utilisation (60 par défaut) ;
+ * les sessions expirées sont purgées chaque minute
+ * Un utilisateur a au plus {@code parc.http.sessionsParUtilisateur} sessions (5 par défaut) : une connexion
+ * de plus ferme sa plus ancienne, un seul compte ne peut donc pas occuper les
+ * {@code parc.http.sessionsMax} sessions du serveur (100 000 par défaut)
+ */
+final class Sessions implements AutoCloseable {
+
+    private static final long DUREE_NANOS = TimeUnit.MINUTES.toNanos(Long.getLong("parc.http.sessionMinutes", 60));
+    private static final int SESSIONS_MAX = Integer.getInteger("parc.http.sessionsMax", 100_000);
+    private static final int SESSIONS_PAR_UTILISATEUR = Math.max(1, Integer.getInteger("parc.http.sessionsParUtilisateur", 5));
+    private static final long PURGE_SECONDES = 60;
+    private static final int OCTETS_JETON = 32;
+
+    private final SecureRandom aleatoire = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    // Jetons de chaque utilisateur, du plus ancien au plus récent (deque modifiée sous compute de la map)
+    private final Map<Integer, Deque<String>> parUtilisateur = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService purge;
+
+    private static final class Session {
+        private final int idUtilisateur;
+        private volatile long expiration;
+
+        private Session(int idUtilisateur, long expiration) {
+            this.idUtilisateur = idUtilisateur;
+            this.expiration = expiration;
+        }
+    }
+
+    Sessions() {
+        this.purge = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sessions-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        purge.scheduleWithFixedDelay(this::purgerExpirees, PURGE_SECONDES, PURGE_SECONDES, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Ouvre une session pour un utilisateur dont les identifiants viennent d'être vérifiés
+     * S'il a déjà le nombre maximal de sessions, la plus ancienne est fermée
+     *
+     * @return Le jeton de la session
+     * @throws ServeurHttp.ErreurHttp 503 si trop de sessions sont ouvertes
+     */
+    String ouvrir(int idUtilisateur) {
+        if (sessions.size() >= SESSIONS_MAX) {
+            purgerExpirees();
+            if (sessions.size() >= SESSIONS_MAX) {
+                throw new ServeurHttp.ErreurHttp(503, "Trop de sessions ouvertes, réessayez plus tard");
+            }
+        }
+
+        byte[] octets = new byte[OCTETS_JETON];
+        aleatoire.nextBytes(octets);
+        String jeton = Base64.getUrlEncoder().withoutPadding().encodeToString(octets);
+        Session session = new Session(idUtilisateur, System.nanoTime() + DUREE_NANOS);
+
+        parUtilisateur.compute(idUtilisateur, (id, jetons) -> {
+            Deque<String> liste = jetons != null ? jetons : new ArrayDeque<>();
+            liste.removeIf(j -> !sessions.containsKey(j)); // expirées ou fermées entre-temps
+            while (liste.size() >= SESSIONS_PAR_UTILISATEUR) {
+                sessions.remove(liste.removeFirst());
+            }
+            liste.addLast(jeton);
+            sessions.put(jeton, session);
+            return liste;
+        });
+        return jeton;
+    }
+
+    /**
+     * Retrouve l'utilisateur d'une session valide et prolonge celle-ci
+     *
+     * @return L'identifiant de l'utilisateur, ou null si le jeton est inconnu ou expiré
+     */
+    Integer utilisateur(String jeton) {
+        if (jeton == null) {
+            return null;
+        }
+        Session session = sessions.get(jeton);
+        if (session == null) {
+            return null;
+        }
+        long maintenant = System.nanoTime();
+        if (session.expiration - maintenant < 0) {
+            retirer(jeton, session);
+            return null;
+        }
+        session.expiration = maintenant + DUREE_NANOS;
+        return session.idUtilisateur;
+    }
+
+    /**
+     * @return true si la session existait
+     */
+    boolean fermer(String jeton) {
+        if (jeton == null) {
+            return false;
+        }
+        Session session = sessions.get(jeton);
+        return session != null && retirer(jeton, session);
+    }
+
+    /**
+     * Arrête la purge périodique
+     */
+    @Override
+    public void close() {
+        purge.shutdownNow();
+    }
+
+    private void purgerExpirees() {
+        long maintenant = System.nanoTime();
+        sessions.forEach((jeton, session) -> {
+            if (session.expiration - maintenant < 0) {
+                retirer(jeton, session);
+            }
+        });
+    }
+
+    private boolean retirer(String jeton, Session session) {
+        if (!sessions.remove(jeton, session)) {
+            return false;
+        }
+        parUtilisateur.computeIfPresent(session.idUtilisateur, (id, jetons) -> {
+            jetons.remove(jeton);
+            return jetons.isEmpty() ? null : jetons;
+        });
+        return true;
+    }
+}
@@ -1,7 +1,11 @@
 package controller;
 
-import dao.AttractionDAO;
-import dao.ReductionDAO;
+import dao.AttractionRepository;
+import dao.ReductionRepository;
+import dao.ReferenceDataCache;
+import dao.Stockage;
+import metriques.Mesure;
+import metriques.Metriques;
 import model.Attraction;
 import model.Reduction;
 
@@ -9,47 +13,91 @@ import java.util.List;
 
 public class AdminController {
 
-    private final AttractionDAO attractionDAO;
-    private final ReductionDAO reductionDAO;
+    private static final Mesure AJOUTER_ATTRACTION = Metriques.mesure("controleur", "AdminController.ajouterAttraction");
+    private static final Mesure MODIFIER_ATTRACTION = Metriques.mesure("controleur", "AdminController.modifierAttraction");
+    private static final Mesure SUPPRIMER_ATTRACTION = Metriques.mesure("controleur", "AdminController.supprimerAttraction");
+    private static final Mesure LISTER_ATTRACTIONS = Metriques.mesure("controleur", "AdminController.listerAttractions");
+    private static final Mesure ATTRACTION_PAR_ID = Metriques.mesure("controleur", "AdminController.getAttractionById");
+    private static final Mesure LISTER_REDUCTIONS = Metriques.mesure("controleur", "AdminController.listerReductions");
+    private static final Mesure SUPPRIMER_REDUCTION = Metriques.mesure("controleur", "AdminController.supprimerReduction");
+    private static final Mesure AJOUTER_REDUCTION = Metriques.mesure("controleur", "AdminController.ajouterReduction");
+
+    private final AttractionRepository attractionDAO;
+    private final ReductionRepository reductionDAO;
 
     public AdminController() {
-        this.attractionDAO = new AttractionDAO();
-        this.reductionDAO = new ReductionDAO();
+        this(Stockage.attractions(), Stockage.reductions());
+    }
+
+    public AdminController(AttractionRepository attractionDAO, ReductionRepository reductionDAO) {
+        this.attractionDAO = attractionDAO;
+        this.reductionDAO = reductionDAO;
     }
 
     // ------------------ Gestion Attractions ------------------ //
 
     public boolean ajouterAttraction(Attraction a) {
-        return attractionDAO.insertAttraction(a);
+        return AJOUTER_ATTRACTION.mesurer(() -> {
+            boolean ajoutee = attractionDAO.insertAttraction(a);
+            if (ajoutee) {
+                ReferenceDataCache.invaliderAttractions();
+            }
+            return ajoutee;
+        });
     }
 
     public boolean modifierAttraction(Attraction a) {
-        return attractionDAO.updateAttraction(a);
+        return MODIFIER_ATTRACTION.mesurer(() -> {
+            boolean modifiee = attractionDAO.updateAttraction(a);
+            if (modifiee) {
+                ReferenceDataCache.invaliderAttractions();
+            }
+            return modifiee;
+        });
     }
 
     public boolean supprimerAttraction(int id) {
-        return attractionDAO.deleteAttraction(id);
+        return SUPPRIMER_ATTRACTION.mesurer(() -> {
+            boolean supprimee = attractionDAO.deleteAttraction(id);
+            if (supprimee) {
+                ReferenceDataCache.invaliderAttractions();
+                InventaireCreneaux.getInstance().invalider(id);
+            }
+            return supprimee;
+        });
     }
 
     public List<Attraction> listerAttractions() {
-        return attractionDAO.getAllAttractions();
+        return LISTER_ATTRACTIONS.mesurer(() -> ReferenceDataCache.getAttractions());
     }
 
     public Attraction getAttractionById(int id) {
-        return attractionDAO.getAttractionById(id);
+        return ATTRACTION_PAR_ID.mesurer(() -> attractionDAO.getAttractionById(id));
     }
 
     // ------------------ Gestion Réductions ------------------ //
 
     public List<Reduction> listerReductions() {
-        return reductionDAO.getAllReductions();
+        return LISTER_REDUCTIONS.mesurer(() -> ReferenceDataCache.getReductions());
     }
 
     public boolean supprimerReduction(int idReduction) {
-        return reductionDAO.deleteReduction(idReduction);
+        return SUPPRIMER_REDUCTION.mesurer(() -> {
+            boolean supprimee = reductionDAO.deleteReduction(idReduction);
+            if (supprimee) {
+                ReferenceDataCache.reductions().invalider();
+            }
+            return supprimee;
+        });
     }
 
     public boolean ajouterReduction(Reduction r) {
-        return reductionDAO.insertReduction(r);
+        return AJOUTER_REDUCTION.mesurer(() -> {
+            boolean ajoutee = reductionDAO.insertReduction(r);
+            if (ajoutee) {
+                ReferenceDataCache.reductions().invalider();
+            }
+            return ajoutee;
+        });
     }
 }
\ No newline at end of file
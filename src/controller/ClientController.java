@@ -1,32 +1,36 @@
 package controller;
 
-import dao.FactureDAO;
-import dao.ReservationDAO;
-import dao.UtilisateurDAO;
+import dao.FactureRepository;
+import dao.Stockage;
+import metriques.Mesure;
+import metriques.Metriques;
 import model.Facture;
-import model.Reservation;
+import model.FactureDetail;
 
 import java.util.List;
 
 public class ClientController {
 
-    private final ReservationDAO reservationDAO;
-    private final FactureDAO factureDAO;
+    private static final Mesure FACTURES_CLIENT = Metriques.mesure("controleur", "ClientController.getFacturesClient");
+    private static final Mesure FACTURES_DETAILLEES = Metriques.mesure("controleur", "ClientController.getFacturesDetailleesClient");
+
+    private final FactureRepository factureDAO;
 
     public ClientController() {
-        this.reservationDAO = new ReservationDAO();
-        this.factureDAO = new FactureDAO();
+        this(Stockage.factures());
     }
 
-    //Retourne toutes les factures liées aux réservations du client.
-    public List<Facture> getFacturesClient(int idClient) {
-        List<Reservation> reservations = reservationDAO.getReservationsByUtilisateur(idClient);
-        List<Facture> facturesClient = new java.util.ArrayList<>();
+    public ClientController(FactureRepository factureDAO) {
+        this.factureDAO = factureDAO;
+    }
 
-        for (Reservation r : reservations) {
-            facturesClient.addAll(factureDAO.getFacturesByReservation(r.getId()));
-        }
+    //Retourne toutes les factures liées aux réservations du client (une seule requête).
+    public List<Facture> getFacturesClient(int idClient) {
+        return FACTURES_CLIENT.mesurer(() -> factureDAO.getFacturesByUtilisateur(idClient));
+    }
 
-        return facturesClient;
+    //Retourne les factures du client avec l'attraction, la date et l'heure de chaque réservation.
+    public List<FactureDetail> getFacturesDetailleesClient(int idClient) {
+        return FACTURES_DETAILLEES.mesurer(() -> factureDAO.getFacturesDetailleesByUtilisateur(idClient));
     }
 }
\ No newline at end of file
@@ -1,27 +1,39 @@
 package controller;
 
-import dao.UtilisateurDAO; //bdd
+import dao.Stockage; //bdd ou mémoire
+import dao.UtilisateurRepository;
+import metriques.Mesure;
+import metriques.Metriques;
 import model.Utilisateur; //objet métier
 import model.Utilisateur.TypeUtilisateur; //gérer les roles
 
 /**
  * Contrôleur chargé de gérer la connexion et l'inscription des utilisateurs
  * Fait le lien entre l'interface utilisateur (vue) et les opérations sur les données (DAO)
- * Elle utilise {@link UtilisateurDAO} pour accéder à la base de données.
+ * Elle utilise un {@link UtilisateurRepository} pour accéder aux données.
  */
 public class ConnexionController {
 
-    /** DAO utilisé pour accéder aux données des utilisateurs sur la bdd */
-    private final UtilisateurDAO utilisateurDAO;
+    private static final Mesure CONNECTER = Metriques.mesure("controleur", "ConnexionController.connecter");
+    private static final Mesure INSCRIRE = Metriques.mesure("controleur", "ConnexionController.inscrire");
+
+    /** Dépôt utilisé pour accéder aux données des utilisateurs (bdd ou mémoire, voir {@link Stockage}) */
+    private final UtilisateurRepository utilisateurDAO;
     // + final car l'objet ne va jamais changer
 
     /**
-     * Constructeur : initialise le contrôleur avec un DAO
+     * Constructeur : initialise le contrôleur avec le dépôt configuré
      */
     public ConnexionController() {
-        this.utilisateurDAO = new UtilisateurDAO();
+        this(Stockage.utilisateurs());
+    }
+
+    /**
+     * @param utilisateurDAO Dépôt des utilisateurs
+     */
+    public ConnexionController(UtilisateurRepository utilisateurDAO) {
+        this.utilisateurDAO = utilisateurDAO;
     }
-    //instancie un nouvel objet UtilisateurDAO
 
     /**
      * Tente de connecter un utilisateur en vérifiant son email et mot de passe
@@ -31,11 +43,13 @@ public class ConnexionController {
      * @return L'utilisateur connecté si les identifiants sont valides, sinon {@code null}
      */
     public Utilisateur connecter(String email, String motDePasse) {
-        Utilisateur utilisateur = utilisateurDAO.getUtilisateurByEmail(email);
-        if (utilisateur != null && utilisateur.getMotDePasse().equals(motDePasse)) {
-            return utilisateur; //vérifie que l'utilisateur existe et que le mdp correspond
-        }
-        return null; // Connexion échouée
+        return CONNECTER.mesurer(() -> {
+            Utilisateur utilisateur = utilisateurDAO.getUtilisateurByEmail(email);
+            if (utilisateur != null && utilisateur.getMotDePasse().equals(motDePasse)) {
+                return utilisateur; //vérifie que l'utilisateur existe et que le mdp correspond
+            }
+            return null; // Connexion échouée
+        });
     }
 
     /**
@@ -50,11 +64,13 @@ public class ConnexionController {
      * @return {@code true} si l'inscription a réussi, {@code false} sinon
      */
     public boolean inscrire(String nom, String email, String motDePasse, TypeUtilisateur type, int age) {
-        if (utilisateurDAO.getUtilisateurByEmail(email) != null) {
-            return false; // Email déjà pris
-        }
+        return INSCRIRE.mesurer(() -> {
+            if (utilisateurDAO.getUtilisateurByEmail(email) != null) {
+                return false; // Email déjà pris
+            }
 
-        Utilisateur nouveau = new Utilisateur(nom, email, motDePasse, type, age, java.time.LocalDate.now());
-        return utilisateurDAO.insertUtilisateur(nouveau);
+            Utilisateur nouveau = new Utilisateur(nom, email, motDePasse, type, age, java.time.LocalDate.now());
+            return utilisateurDAO.insertUtilisateur(nouveau);
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package controller;
+
+import dao.ReservationRepository;
+import dao.Stockage;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Inventaire en mémoire des places restantes par attraction, par jour et par créneau horaire
+ *
+ * La capacité d'une attraction ({@code Attraction.capacite}) est le nombre de billets vendables
+ * sur chaque créneau d'une heure. Pour chaque couple (attraction, jour), un tableau atomique de
+ * 24 compteurs de billets vendus est chargé depuis la base au premier accès, puis les réservations
+ * incrémentent le compteur de leur heure par compare-and-set : aucun verrou global, deux réservations
+ * simultanées sur le dernier billet ne peuvent pas réussir toutes les deux
+ *
+ * La capacité est fournie à chaque appel et comparée aux billets vendus : une capacité modifiée
+ * s'applique aux compteurs en place. Les recharger depuis la base perdrait les réservations en cours
+ * d'écriture (places retirées, ligne pas encore validée) et permettrait de revendre leurs places
+ *
+ * Un créneau est une heure pleine de {@link #HEURE_OUVERTURE} à {@link #HEURE_FERMETURE} ({@link #estCreneau}) :
+ * une réservation sans heure, ou hors de ces créneaux, ne peut pas être comptée et doit être refusée
+ *
+ * Un jour dont les billets vendus n'ont pas pu être lus n'est pas gardé : l'accès échoue
+ * ({@link IllegalStateException}) et la lecture est retentée au suivant
+ *
+ * L'inventaire est partagé par tous les contrôleurs du processus ({@link #getInstance()})
+ * Une capacité nulle ou négative signifie « pas de limite »
+ */
+public class InventaireCreneaux {
+
+    /** Valeur d'un créneau sans limite de capacité */
+    public static final int ILLIMITE = Integer.MAX_VALUE;
+
+    /** Premier créneau du jour (10 h) */
+    public static final int HEURE_OUVERTURE = 10;
+    /** Dernier créneau du jour (18 h) */
+    public static final int HEURE_FERMETURE = 18;
+
+    private static final InventaireCreneaux INSTANCE = new InventaireCreneaux(Stockage.reservations());
+
+    private final ReservationRepository reservationDAO;
+    private final ConcurrentHashMap<Long, AtomicIntegerArray> jours = new ConcurrentHashMap<>();
+
+    /**
+     * @param reservationDAO Dépôt relu au premier accès à chaque jour (l'application utilise {@link #getInstance()})
+     */
+    public InventaireCreneaux(ReservationRepository reservationDAO) {
+        this.reservationDAO = reservationDAO;
+    }
+
+    public static InventaireCreneaux getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true si l'heure est un créneau réservable : heure pleine, de 10 h à 18 h
+     */
+    public static boolean estCreneau(LocalTime heure) {
+        return heure != null
+                && heure.getHour() >= HEURE_OUVERTURE && heure.getHour() <= HEURE_FERMETURE
+                && heure.getMinute() == 0 && heure.getSecond() == 0 && heure.getNano() == 0;
+    }
+
+    /**
+     * Retire des places d'un créneau si elles sont encore disponibles
+     *
+     * @param idAttraction ID de l'attraction
+     * @param capacite Capacité par créneau de l'attraction (nulle ou négative : pas de limite)
+     * @param date Jour réservé
+     * @param heure Créneau réservé (voir {@link #estCreneau})
+     * @param nbBillets Nombre de places demandées
+     * @return true si les places ont été retirées, false si le créneau n'en a plus assez
+     * @throws IllegalArgumentException si l'heure n'est pas un créneau
+     * @throws IllegalStateException si les billets vendus du jour n'ont pas pu être lus
+     */
+    public boolean reserverPlaces(int idAttraction, int capacite, LocalDate date, LocalTime heure, int nbBillets) {
+        verifierCreneau(heure);
+        AtomicIntegerArray vendus = jour(idAttraction, date);
+        int h = heure.getHour();
+
+        if (capacite <= 0) { // sans limite : les billets sont comptés pour une future capacité
+            vendus.addAndGet(h, nbBillets);
+            return true;
+        }
+        while (true) {
+            int deja = vendus.get(h);
+            if (deja + nbBillets > capacite) {
+                return false;
+            }
+            if (vendus.compareAndSet(h, deja, deja + nbBillets)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Rend des places à un créneau (réservation annulée, supprimée ou dont l'écriture a échoué)
+     * Sans effet si le jour n'est pas chargé : il sera relu depuis la base au prochain accès,
+     * ni pour une ancienne réservation sans créneau, qui n'a jamais été comptée
+     */
+    public void libererPlaces(int idAttraction, LocalDate date, LocalTime heure, int nbBillets) {
+        if (!estCreneau(heure)) {
+            return;
+        }
+        AtomicIntegerArray vendus = jours.get(cle(idAttraction, date));
+        if (vendus != null) {
+            vendus.updateAndGet(heure.getHour(), v -> Math.max(0, v - nbBillets));
+        }
+    }
+
+    /**
+     * @return Le nombre de places restantes sur le créneau, ou {@link #ILLIMITE}
+     * @throws IllegalArgumentException si l'heure n'est pas un créneau
+     * @throws IllegalStateException si les billets vendus du jour n'ont pas pu être lus
+     */
+    public int getPlacesRestantes(int idAttraction, int capacite, LocalDate date, LocalTime heure) {
+        verifierCreneau(heure);
+        if (capacite <= 0) {
+            return ILLIMITE;
+        }
+        return Math.max(0, capacite - jour(idAttraction, date).get(heure.getHour()));
+    }
+
+    /**
+     * Oublie tous les jours chargés d'une attraction supprimée
+     * Une capacité modifiée ne demande rien : elle est comparée aux billets vendus à chaque réservation
+     */
+    public void invalider(int idAttraction) {
+        jours.keySet().removeIf(cle -> (int) (cle >>> 32) == idAttraction);
+    }
+
+    private static void verifierCreneau(LocalTime heure) {
+        if (!estCreneau(heure)) {
+            throw new IllegalArgumentException("Créneau invalide (heure pleine de " + HEURE_OUVERTURE
+                    + " h à " + HEURE_FERMETURE + " h) : " + heure);
+        }
+    }
+
+    /**
+     * Charge les billets vendus d'un jour au premier accès
+     * Le chargement ne bloque que les accès au même couple (attraction, jour) ; s'il échoue,
+     * rien n'est gardé : des compteurs à zéro laisseraient revendre les places déjà vendues
+     */
+    private AtomicIntegerArray jour(int idAttraction, LocalDate date) {
+        long cle = cle(idAttraction, date);
+        AtomicIntegerArray vendus = jours.get(cle);
+        if (vendus != null) {
+            return vendus;
+        }
+        purgerJoursPasses();
+        return jours.computeIfAbsent(cle, k -> charger(idAttraction, date));
+    }
+
+    private AtomicIntegerArray charger(int idAttraction, LocalDate date) {
+        Map<LocalTime, Integer> slots = reservationDAO.getBookedSlots(idAttraction, date);
+        if (slots == null) {
+            throw new IllegalStateException("Billets vendus illisibles : attraction " + idAttraction + ", " + date);
+        }
+        AtomicIntegerArray vendus = new AtomicIntegerArray(24);
+        for (Map.Entry<LocalTime, Integer> slot : slots.entrySet()) {
+            vendus.addAndGet(slot.getKey().getHour(), slot.getValue());
+        }
+        return vendus;
+    }
+
+    private void purgerJoursPasses() {
+        long aujourdHui = LocalDate.now().toEpochDay();
+        jours.keySet().removeIf(cle -> cle.intValue() < aujourdHui);
+    }
+
+    private static long cle(int idAttraction, LocalDate date) {
+        return ((long) idAttraction << 32) | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,165 @@
+package controller;
+
+import model.Reduction;
+import model.Reduction.CritereReduction;
+import model.Utilisateur.TypeUtilisateur;
+
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Moteur de tarification : les réductions actives sont compilées une fois en table,
+ * puis le prix d'un billet se calcule en temps constant, sans allocation
+ *
+ * Compilation :
+ * - pour chaque critère ({@link CritereReduction}), seul le meilleur pourcentage est retenu ;
+ * - pour chacune des 8 combinaisons de critères remplis par un client (enfant, senior, fidélité),
+ *   le coefficient multiplicateur est précalculé selon la {@link Politique} choisie
+ *
+ * Un calcul se résume ensuite à construire le masque des critères remplis et à lire la table
+ *
+ * Règles d'éligibilité (inchangées) : enfant si âge < 12, senior si âge > 60,
+ * fidélité pour un membre ; un invité n'a droit à aucune réduction
+ */
+public final class MoteurTarif {
+
+    /**
+     * Manière de combiner plusieurs réductions auxquelles un client a droit
+     */
+    public enum Politique {
+        /** Seule la réduction la plus forte s'applique */
+        MEILLEURE_REDUCTION,
+        /** Les réductions se cumulent (multiplicativement), dans la limite d'un plafond */
+        CUMUL_PLAFONNE
+    }
+
+    private static final int ENFANT = 1;
+    private static final int SENIOR = 1 << 1;
+    private static final int FIDELITE = 1 << 2;
+
+    private static final Politique POLITIQUE =
+            Politique.valueOf(System.getProperty("parc.tarif.politique", Politique.MEILLEURE_REDUCTION.name()));
+    private static final int PLAFOND = Integer.getInteger("parc.tarif.plafond", 50);
+
+    private static volatile MoteurTarif dernier; // moteur compilé pour la dernière liste de réductions
+
+    private final List<Reduction> source;
+    private final Politique politique;
+    private final EnumMap<CritereReduction, Integer> meilleurPourcentage = new EnumMap<>(CritereReduction.class);
+    private final double[] coefficients = new double[8];
+
+    private MoteurTarif(List<Reduction> reductions, Politique politique, int plafond) {
+        this.source = reductions;
+        this.politique = politique;
+
+        for (Reduction r : reductions) {
+            int pourcentage = Math.max(0, Math.min(100, r.getPourcentage()));
+            meilleurPourcentage.merge(r.getCritere(), pourcentage, Math::max);
+        }
+
+        for (int masque = 0; masque < coefficients.length; masque++) {
+            coefficients[masque] = compilerCoefficient(masque, politique, plafond);
+        }
+    }
+
+    /**
+     * Compile une liste de réductions avec une politique donnée
+     *
+     * @param reductions Réductions actives
+     * @param politique Combinaison des réductions
+     * @param plafond Réduction totale maximale en pourcentage (politique {@link Politique#CUMUL_PLAFONNE})
+     */
+    public static MoteurTarif compiler(List<Reduction> reductions, Politique politique, int plafond) {
+        return new MoteurTarif(reductions, politique, plafond);
+    }
+
+    /**
+     * Retourne le moteur compilé pour cette liste de réductions, avec la politique configurée
+     * ({@code parc.tarif.politique}, {@code parc.tarif.plafond})
+     * Tant que la même liste est fournie (cache de référence non rechargé), le moteur n'est pas recompilé
+     */
+    public static MoteurTarif pour(List<Reduction> reductions) {
+        MoteurTarif moteur = dernier;
+        if (moteur == null || moteur.source != reductions) {
+            moteur = new MoteurTarif(reductions, POLITIQUE, PLAFOND);
+            dernier = moteur;
+        }
+        return moteur;
+    }
+
+    /**
+     * @return Le masque des critères de réduction remplis par le client (0 si aucun)
+     */
+    public static int criteres(TypeUtilisateur type, int age) {
+        if (type == null || type == TypeUtilisateur.INVITE) {
+            return 0;
+        }
+        int masque = 0;
+        if (age < 12) {
+            masque |= ENFANT;
+        }
+        if (age > 60) {
+            masque |= SENIOR;
+        }
+        if (type == TypeUtilisateur.MEMBRE) {
+            masque |= FIDELITE;
+        }
+        return masque;
+    }
+
+    /**
+     * @return Le coefficient à appliquer au prix plein (1.0 : aucune réduction)
+     */
+    public double coefficient(int criteres) {
+        return coefficients[criteres];
+    }
+
+    /**
+     * @return true si une réduction s'applique pour ces critères
+     */
+    public boolean reductionApplicable(int criteres) {
+        return coefficients[criteres] < 1.0;
+    }
+
+    /**
+     * Calcule le montant d'une réservation
+     *
+     * @param prixUnitaire Prix d'un billet
+     * @param nbBillets Nombre de billets
+     * @param criteres Masque obtenu par {@link #criteres(TypeUtilisateur, int)}
+     */
+    public double montant(double prixUnitaire, int nbBillets, int criteres) {
+        return prixUnitaire * nbBillets * coefficients[criteres];
+    }
+
+    public Politique getPolitique() {
+        return politique;
+    }
+
+    /**
+     * @return Le meilleur pourcentage actif pour ce critère, 0 si aucune réduction ne le cible
+     */
+    public int getMeilleurPourcentage(CritereReduction critere) {
+        return meilleurPourcentage.getOrDefault(critere, 0);
+    }
+
+    private double compilerCoefficient(int masque, Politique politique, int plafond) {
+        int[] pourcentages = {
+                (masque & ENFANT) != 0 ? getMeilleurPourcentage(CritereReduction.ENFANT) : 0,
+                (masque & SENIOR) != 0 ? getMeilleurPourcentage(CritereReduction.SENIOR) : 0,
+                (masque & FIDELITE) != 0 ? getMeilleurPourcentage(CritereReduction.FIDELITE) : 0
+        };
+
+        if (politique == Politique.MEILLEURE_REDUCTION) {
+            int meilleur = Math.max(pourcentages[0], Math.max(pourcentages[1], pourcentages[2]));
+            return 1 - meilleur / 100.0;
+        }
+
+        double coefficient = 1.0;
+        for (int p : pourcentages) {
+            coefficient *= 1 - p / 100.0;
+        }
+        double minimum = 1 - Math.max(0, Math.min(100, plafond)) / 100.0;
+        return Math.max(coefficient, minimum);
+    }
+}
@@ -1,66 +1,179 @@
 package controller;
 
-import dao.FactureDAO;
-import dao.ReservationDAO;
-import dao.AttractionDAO;
-import dao.UtilisateurDAO;
-import model.Attraction;
+import dao.ReferenceDataCache;
+import dao.FactureRepository;
+import dao.FacturesDifferees;
+import dao.ReservationRepository;
+import dao.Stockage;
+import metriques.EvenementReservation;
+import metriques.Mesure;
+import metriques.Metriques;
+import model.ContexteReservation;
+import model.DemandeReservation;
 import model.Facture;
 import model.Reservation;
-import model.Utilisateur;
-import model.Reduction;
-import dao.ReductionDAO;
+import model.ReservationLigne;
+import model.ResultatGroupe;
+import model.ResultatReservation;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Contrôleur chargé de la gestion métier des réservations
- * Permet de créer des réservations avec ou sans réduction, d'afficher l'historique d'un utilisateur,
+ * Permet de créer des réservations avec ou sans réduction, seules ou par groupe, d'afficher l'historique d'un utilisateur,
  * de lister toutes les réservations et de supprimer une réservation
  *
  * Fait le lien entre les vues (interfaces utilisateur) et les DAO de données
  *
- * @see dao.ReservationDAO
+ * @see dao.ReservationRepository
  * @see model.Reservation
  */
 public class ReservationController {
 
-    private final ReservationDAO reservationDAO;
-    private final FactureDAO factureDAO;
-    private final AttractionDAO attractionDAO;
-    private final UtilisateurDAO utilisateurDAO;
-    private final ReductionDAO reductionDAO;
+    private static final Mesure RESERVER = Metriques.mesure("controleur", "ReservationController.reserver");
+    private static final Mesure PLACES_RESTANTES = Metriques.mesure("controleur", "ReservationController.getPlacesRestantes");
+    private static final Mesure HISTORIQUE = Metriques.mesure("controleur", "ReservationController.getHistoriqueUtilisateur");
+    private static final Mesure TOUTES_RESERVATIONS = Metriques.mesure("controleur", "ReservationController.getToutesReservations");
+    private static final Mesure PAGE_RESERVATIONS = Metriques.mesure("controleur", "ReservationController.getPageReservations");
+    private static final Mesure SUPPRIMER_RESERVATION = Metriques.mesure("controleur", "ReservationController.supprimerReservation");
+    private static final Mesure RESERVER_GROUPE = Metriques.mesure("controleur", "ReservationController.reserverGroupe");
+
+    /** Nombre maximal de billets d'une réservation simple ({@code parc.reservation.maxBillets}) */
+    public static final int MAX_BILLETS_RESERVATION = Integer.getInteger("parc.reservation.maxBillets", 50);
+
+    /** Nombre maximal de demandes d'une réservation de groupe ({@code parc.groupe.maxDemandes}) */
+    private static final int MAX_DEMANDES_GROUPE = Integer.getInteger("parc.groupe.maxDemandes", 500);
+    /** Nombre maximal de billets, toutes demandes confondues, d'une réservation de groupe ({@code parc.groupe.maxBillets}) */
+    private static final int MAX_BILLETS_GROUPE = Integer.getInteger("parc.groupe.maxBillets", 1_000);
+
+    /** Créneau d'une heure d'une attraction : l'unité de capacité de l'{@link InventaireCreneaux} */
+    private record Creneau(int idAttraction, LocalDate date, LocalTime heure) {
+    }
+
+    /** La réconciliation des factures n'est lancée qu'une fois, avec le premier contrôleur à file différée */
+    private static final AtomicBoolean FACTURES_RECONCILIEES = new AtomicBoolean();
+
+    private final ReservationRepository reservationDAO;
+    private final FactureRepository factureDAO;
+    private final InventaireCreneaux inventaire;
+    private final FacturesDifferees facturesDifferees; // null : facture écrite avec la réservation
 
     /**
-     * Initialise les DAO utilisés par le contrôleur
+     * Initialise les DAO utilisés par le contrôleur, selon le {@link Stockage} configuré
+     * Chaque facture est écrite dans la transaction de sa réservation ; avec la base de données,
+     * {@code parc.factures.differees=true} la confie à la file {@link FacturesDifferees} (voir {@code FacturesBench} :
+     * le fsync du journal coûte plus que l'INSERT qu'il remplace quand la base répond vite) ;
+     * le premier contrôleur créé lance alors {@link #reconcilierFactures()} en arrière-plan
      */
     public ReservationController() {
-        this.reservationDAO = new ReservationDAO();
-        this.factureDAO = new FactureDAO();
-        this.attractionDAO = new AttractionDAO();
-        this.utilisateurDAO = new UtilisateurDAO();
-        this.reductionDAO = new ReductionDAO();
+        this(Stockage.reservations(), Stockage.factures(), InventaireCreneaux.getInstance(),
+                Stockage.getMode() == Stockage.Mode.JDBC
+                        && Boolean.parseBoolean(System.getProperty("parc.factures.differees", "false"))
+                        ? FacturesDifferees.getInstance() : null);
+        if (facturesDifferees != null && FACTURES_RECONCILIEES.compareAndSet(false, true)) {
+            Thread.ofPlatform().name("reconciliation-factures").daemon(true).start(this::reconcilierFactures);
+        }
+    }
+
+    /**
+     * Contrôleur qui écrit chaque facture dans la même transaction que sa réservation
+     *
+     * @param reservationDAO Dépôt des réservations
+     * @param inventaire Places restantes par créneau, alimenté par le même dépôt
+     */
+    public ReservationController(ReservationRepository reservationDAO, InventaireCreneaux inventaire) {
+        this(reservationDAO, null, inventaire, null);
+    }
+
+    /**
+     * @param reservationDAO Dépôt des réservations
+     * @param factureDAO Dépôt des factures, utilisé si la file différée refuse une facture
+     * @param inventaire Places restantes par créneau, alimenté par le même dépôt
+     * @param facturesDifferees File d'écriture différée des factures, ou null
+     */
+    public ReservationController(ReservationRepository reservationDAO, FactureRepository factureDAO,
+                                 InventaireCreneaux inventaire, FacturesDifferees facturesDifferees) {
+        this.reservationDAO = reservationDAO;
+        this.factureDAO = factureDAO;
+        this.inventaire = inventaire;
+        this.facturesDifferees = facturesDifferees;
     }
 
     /**
      * Crée une réservation et une facture associée
-     * Si l'utilisateur est éligible, applique une réduction (enfant, senior, fidélité)
+     * Si l'utilisateur est éligible, applique une réduction (enfant, senior, fidélité) via le {@link MoteurTarif}
      *
      * @param idUtilisateur ID de l'utilisateur (0 pour un invité)
      * @param idAttraction ID de l'attraction à réserver
      * @param date Date de la réservation (doit être aujourd'hui ou plus tard)
-     * @param heure Heure prévue (peut être {@code null})
+     * @param heure Créneau réservé : heure pleine de 10 h à 18 h ({@link InventaireCreneaux#estCreneau})
      * @param nbBillets Nombre de billets réservés (> 0)
      * @return {@code true} si la réservation et la facture ont été créées avec succès, sinon {@code false}
      */
     //Crée une nouvelle réservation avec date et heure.
     public boolean reserverAttraction(int idUtilisateur, int idAttraction, LocalDate date, LocalTime heure, int nbBillets) {
-        if (nbBillets <= 0 || date.isBefore(LocalDate.now())) {
-            return false;
+        return reserver(idUtilisateur, idAttraction, date, heure, nbBillets).isSucces();
+    }
+
+    /**
+     * Réserve une attraction en deux allers-retours avec la base :
+     * une lecture du contexte (prix, client) puis l'écriture de la réservation.
+     * La facture est confiée à la file {@link FacturesDifferees} (journalisée, écrite en base peu après) ;
+     * sans file, elle est créée dans la même transaction que la réservation
+     * Les places sont retirées de l'{@link InventaireCreneaux} avant l'écriture et rendues si elle échoue,
+     * ce qui empêche de vendre plus de billets que la capacité du créneau
+     * Chaque réservation émet un événement Flight Recorder {@link EvenementReservation}
+     *
+     * @param idUtilisateur ID de l'utilisateur (0 pour un invité)
+     * @param idAttraction ID de l'attraction à réserver
+     * @param date Date de la réservation (doit être aujourd'hui ou plus tard)
+     * @param heure Créneau réservé : heure pleine de 10 h à 18 h ({@link InventaireCreneaux#estCreneau})
+     * @param nbBillets Nombre de billets réservés (> 0, au plus {@code parc.reservation.maxBillets})
+     * @return Le résultat de la réservation, avec la durée de chaque étape
+     */
+    public ResultatReservation reserver(int idUtilisateur, int idAttraction, LocalDate date, LocalTime heure, int nbBillets) {
+        EvenementReservation evenement = new EvenementReservation();
+        evenement.begin();
+        ResultatReservation resultat = RESERVER.mesurer(() -> effectuerReservation(idUtilisateur, idAttraction, date, heure, nbBillets));
+        evenement.terminer(idUtilisateur, idAttraction, nbBillets, resultat);
+        return resultat;
+    }
+
+    private ResultatReservation effectuerReservation(int idUtilisateur, int idAttraction, LocalDate date, LocalTime heure, int nbBillets) {
+        if (nbBillets <= 0 || nbBillets > MAX_BILLETS_RESERVATION || date == null || date.isBefore(LocalDate.now()) || !InventaireCreneaux.estCreneau(heure)) {
+            return ResultatReservation.refusee(); // sans créneau valide, les places ne pourraient pas être comptées
+        }
+
+        long debut = System.nanoTime();
+        ContexteReservation contexte = reservationDAO.getContexteReservation(idUtilisateur, idAttraction);
+        long finLecture = System.nanoTime();
+
+        if (contexte == null) {
+            return new ResultatReservation(-1, 0, false, finLecture - debut, 0, 0);
+        }
+
+        try {
+            if (!inventaire.reserverPlaces(idAttraction, contexte.getCapacite(), date, heure, nbBillets)) {
+                return ResultatReservation.complet(finLecture - debut);
+            }
+        } catch (IllegalStateException e) { // billets vendus illisibles : rien n'est vendu à l'aveugle
+            return ResultatReservation.refusee();
         }
 
+        // Réductions compilées en table : calcul en temps constant
+        MoteurTarif moteur = MoteurTarif.pour(ReferenceDataCache.getReductions());
+        int criteres = MoteurTarif.criteres(contexte.getTypeUtilisateur(), contexte.getAge());
+        double montantTotal = moteur.montant(contexte.getPrixUnitaire(), nbBillets, criteres);
+        boolean reductionAppliquee = moteur.reductionApplicable(criteres);
+        long finTarif = System.nanoTime();
+
         Reservation reservation = new Reservation(
                 idUtilisateur,
                 idAttraction,
@@ -70,50 +183,204 @@ public class ReservationController {
                 Reservation.StatutReservation.CONFIRMEE
         );
 
-        int reservationId = reservationDAO.insertReservation(reservation);
+        int reservationId = facturesDifferees != null
+                ? insertReservationFactureDifferee(reservation, montantTotal, reductionAppliquee)
+                : reservationDAO.insertReservationAvecFacture(reservation, montantTotal, LocalDate.now(), reductionAppliquee);
+        long finEcriture = System.nanoTime();
+
+        if (reservationId <= 0) {
+            inventaire.libererPlaces(idAttraction, date, heure, nbBillets);
+        }
 
-        if (reservationId > 0) {
-            reservation.setId(reservationId);
-
-            Attraction attraction = attractionDAO.getAttractionById(idAttraction);
-            Utilisateur utilisateur = utilisateurDAO.getUtilisateurById(idUtilisateur);
-
-            double prixUnitaire = attraction.getPrix();
-            double montantTotal = prixUnitaire * nbBillets;
-            boolean reductionAppliquee = false;
-
-            // Nouvelle vérification ici
-            if (utilisateur != null && utilisateur.getType() != Utilisateur.TypeUtilisateur.INVITE) {
-                int age = utilisateur.getAge();
-                List<Reduction> reductions = reductionDAO.getAllReductions();
-
-                for (Reduction r : reductions) {
-                    boolean applicable =
-                            (r.getCritere() == Reduction.CritereReduction.ENFANT && age < 12) ||
-                                    (r.getCritere() == Reduction.CritereReduction.SENIOR && age > 60) ||
-                                    (r.getCritere() == Reduction.CritereReduction.FIDELITE && utilisateur.getType() == Utilisateur.TypeUtilisateur.MEMBRE);
-
-                    if (applicable) {
-                        montantTotal *= (1 - (r.getPourcentage() / 100.0));
-                        reductionAppliquee = true;
-                        break;
-                    }
-                }
+        return new ResultatReservation(
+                reservationId,
+                montantTotal,
+                reductionAppliquee,
+                finLecture - debut,
+                finTarif - finLecture,
+                finEcriture - finTarif
+        );
+    }
+
+    /**
+     * Réserve plusieurs créneaux pour un groupe (école, entreprise), tout ou rien :
+     * - toutes les demandes sont vérifiées avant la moindre écriture (billets, date, attraction) ;
+     * - chaque créneau perd dans l'{@link InventaireCreneaux} le total des billets que le groupe y demande ;
+     *   s'il n'en a pas assez, les places déjà retirées aux autres créneaux sont rendues ;
+     * - les réservations et leurs factures sont écrites en une seule transaction, par lots
+     * Les factures ne passent pas par la file {@link FacturesDifferees} : elles sont validées avec le groupe
+     *
+     * @param idUtilisateur ID du client qui réserve pour le groupe (0 pour un invité), dont le profil fixe les réductions
+     * @param demandes Créneaux et billets demandés (au plus {@code parc.groupe.maxDemandes} demandes
+     *                 et {@code parc.groupe.maxBillets} billets au total)
+     * @return Les identifiants créés dans l'ordre des demandes, ou la première demande refusée
+     *         (ligne -1 si le groupe entier dépasse l'une des limites)
+     */
+    public ResultatGroupe reserverGroupe(int idUtilisateur, List<DemandeReservation> demandes) {
+        return RESERVER_GROUPE.mesurer(() -> effectuerReservationGroupe(idUtilisateur, demandes));
+    }
+
+    private ResultatGroupe effectuerReservationGroupe(int idUtilisateur, List<DemandeReservation> demandes) {
+        if (demandes == null || demandes.isEmpty() || demandes.size() > MAX_DEMANDES_GROUPE) {
+            return ResultatGroupe.refuse(-1);
+        }
+
+        // Contexte (prix, capacité, profil du client) lu une fois par attraction
+        Map<Integer, ContexteReservation> contextes = new HashMap<>();
+        Map<Creneau, Integer> billetsParCreneau = new LinkedHashMap<>();
+        Map<Creneau, Integer> premiereDemande = new HashMap<>();
+        long totalBillets = 0;
+        for (int i = 0; i < demandes.size(); i++) {
+            DemandeReservation d = demandes.get(i);
+            if (d.getNbBillets() <= 0 || d.getDate() == null || d.getDate().isBefore(LocalDate.now())
+                    || !InventaireCreneaux.estCreneau(d.getHeure())) {
+                return ResultatGroupe.refuse(i);
+            }
+            totalBillets += d.getNbBillets();
+            if (totalBillets > MAX_BILLETS_GROUPE) {
+                return ResultatGroupe.refuse(-1); // avant toute lecture : un groupe démesuré ne coûte rien
+            }
+            if (contextes.computeIfAbsent(d.getIdAttraction(), id -> reservationDAO.getContexteReservation(idUtilisateur, id)) == null) {
+                return ResultatGroupe.refuse(i);
             }
 
-            Facture facture = new Facture(
-                    reservationId,
-                    montantTotal,
-                    LocalDate.now(),
-                    reductionAppliquee
-            );
+            Creneau creneau = new Creneau(d.getIdAttraction(), d.getDate(), d.getHeure());
+            billetsParCreneau.merge(creneau, d.getNbBillets(), Integer::sum);
+            premiereDemande.putIfAbsent(creneau, i);
+        }
+
+        // Places retirées créneau par créneau, rendues si l'un d'eux est complet
+        List<Creneau> retires = new ArrayList<>(billetsParCreneau.size());
+        for (Map.Entry<Creneau, Integer> e : billetsParCreneau.entrySet()) {
+            Creneau c = e.getKey();
+            boolean retire;
+            try {
+                retire = inventaire.reserverPlaces(c.idAttraction(), contextes.get(c.idAttraction()).getCapacite(), c.date(), c.heure(), e.getValue());
+            } catch (IllegalStateException ex) { // billets vendus illisibles
+                libererPlaces(retires, billetsParCreneau);
+                return ResultatGroupe.echec();
+            }
+            if (!retire) {
+                libererPlaces(retires, billetsParCreneau);
+                return ResultatGroupe.complet(premiereDemande.get(c));
+            }
+            retires.add(c);
+        }
+
+        MoteurTarif moteur = MoteurTarif.pour(ReferenceDataCache.getReductions());
+        ContexteReservation client = contextes.values().iterator().next(); // même client pour toutes les attractions
+        int criteres = MoteurTarif.criteres(client.getTypeUtilisateur(), client.getAge());
+        boolean reductionAppliquee = moteur.reductionApplicable(criteres);
+        LocalDate aujourdHui = LocalDate.now();
+
+        List<Reservation> reservations = new ArrayList<>(demandes.size());
+        List<Facture> factures = new ArrayList<>(demandes.size());
+        double montantTotal = 0;
+        for (DemandeReservation d : demandes) {
+            double montant = moteur.montant(contextes.get(d.getIdAttraction()).getPrixUnitaire(), d.getNbBillets(), criteres);
+            montantTotal += montant;
+            reservations.add(new Reservation(idUtilisateur, d.getIdAttraction(), d.getDate(), d.getHeure(),
+                    d.getNbBillets(), Reservation.StatutReservation.CONFIRMEE));
+            factures.add(new Facture(0, montant, aujourdHui, reductionAppliquee));
+        }
+
+        List<Integer> ids = reservationDAO.insertReservationsAvecFactures(reservations, factures);
+        if (ids.size() != demandes.size()) {
+            libererPlaces(retires, billetsParCreneau);
+            return ResultatGroupe.echec();
+        }
+        return ResultatGroupe.confirme(ids, montantTotal);
+    }
+
+    private void libererPlaces(List<Creneau> creneaux, Map<Creneau, Integer> billetsParCreneau) {
+        for (Creneau c : creneaux) {
+            inventaire.libererPlaces(c.idAttraction(), c.date(), c.heure(), billetsParCreneau.get(c));
+        }
+    }
+
+    /**
+     * @return La file d'écriture différée des factures, ou null si elles sont écrites avec la réservation
+     */
+    public FacturesDifferees getFacturesDifferees() {
+        return facturesDifferees;
+    }
 
-            factureDAO.insertFacture(facture);
+    /**
+     * Enregistre la réservation seule, puis confie sa facture à la file différée
+     * Si le journal refuse la facture, elle est écrite immédiatement ; si cela échoue aussi,
+     * la réservation est annulée
+     * Un arrêt entre l'écriture de la réservation et la journalisation de sa facture laisse une
+     * réservation sans facture : {@link #reconcilierFactures()} la facture au démarrage suivant
+     *
+     * @return L'identifiant de la réservation, -1 en cas d'échec
+     */
+    private int insertReservationFactureDifferee(Reservation reservation, double montantTotal, boolean reductionAppliquee) {
+        int reservationId = reservationDAO.insertReservation(reservation);
+        if (reservationId <= 0) {
+            return -1;
+        }
 
-            return true;
+        Facture facture = new Facture(reservationId, montantTotal, LocalDate.now(), reductionAppliquee);
+        if (facturesDifferees.soumettre(facture) || (factureDAO != null && factureDAO.insertFacture(facture))) {
+            return reservationId;
         }
 
-        return false;
+        reservationDAO.deleteReservation(reservationId);
+        return -1;
+    }
+
+    /**
+     * Facture les réservations restées sans facture (arrêt entre l'écriture d'une réservation et la
+     * journalisation de sa facture différée) : chacune est retarifée avec le contexte et les réductions
+     * actuels, puis confiée à la file différée, ou écrite directement sans file
+     *
+     * Le journal relu au démarrage est déjà en file, devant ces factures : une facture journalisée mais pas
+     * encore en base est écrite la première et la facture retarifée est ignorée (insertion idempotente)
+     *
+     * @return Le nombre de factures créées ou mises en file
+     */
+    public int reconcilierFactures() {
+        List<Reservation> sansFacture = reservationDAO.getReservationsSansFacture();
+        if (sansFacture.isEmpty()) {
+            return 0;
+        }
+
+        MoteurTarif moteur = MoteurTarif.pour(ReferenceDataCache.getReductions());
+        int facturees = 0;
+        for (Reservation r : sansFacture) {
+            ContexteReservation contexte = reservationDAO.getContexteReservation(r.getIdUtilisateur(), r.getIdAttraction());
+            if (contexte == null) {
+                continue; // attraction supprimée entre-temps
+            }
+            int criteres = MoteurTarif.criteres(contexte.getTypeUtilisateur(), contexte.getAge());
+            Facture facture = new Facture(r.getId(), moteur.montant(contexte.getPrixUnitaire(), r.getNombreBillets(), criteres),
+                    LocalDate.now(), moteur.reductionApplicable(criteres));
+            if ((facturesDifferees != null && facturesDifferees.soumettre(facture))
+                    || (factureDAO != null && factureDAO.insertFacture(facture))) {
+                facturees++;
+            }
+        }
+        return facturees;
+    }
+
+    /**
+     * Retourne le nombre de places encore disponibles sur un créneau
+     *
+     * @param idAttraction ID de l'attraction
+     * @param capacite Capacité par créneau de l'attraction
+     * @param date Jour consulté
+     * @param heure Créneau consulté
+     * @return Le nombre de places restantes, ou {@link InventaireCreneaux#ILLIMITE} si l'attraction n'a pas de limite ;
+     *         0 si les billets vendus du jour n'ont pas pu être lus (le créneau ne peut pas non plus être réservé)
+     */
+    public int getPlacesRestantes(int idAttraction, int capacite, LocalDate date, LocalTime heure) {
+        return PLACES_RESTANTES.mesurer(() -> {
+            try {
+                return inventaire.getPlacesRestantes(idAttraction, capacite, date, heure);
+            } catch (IllegalStateException e) {
+                return 0;
+            }
+        });
     }
 
     /**
@@ -123,7 +390,7 @@ public class ReservationController {
      * @return Liste des réservations effectuées par cet utilisateur
      */
     public List<Reservation> getHistoriqueUtilisateur(int idUtilisateur) {//Historique des réservations du client
-        return reservationDAO.getReservationsByUtilisateur(idUtilisateur);
+        return HISTORIQUE.mesurer(() -> reservationDAO.getReservationsByUtilisateur(idUtilisateur));
     }
 
     /**
@@ -132,7 +399,18 @@ public class ReservationController {
      * @return Liste de toutes les réservations enregistrées
      */
     public List<Reservation> getToutesReservations() { //Liste de toutes les réservations (admin)
-        return reservationDAO.getAllReservations();
+        return TOUTES_RESERVATIONS.mesurer(() -> reservationDAO.getAllReservations());
+    }
+
+    /**
+     * Retourne une page de la liste de toutes les réservations (accès administrateur),
+     * par pagination sur clé : la page suivante commence après le dernier ID reçu
+     *
+     * @param apresId ID de la dernière réservation déjà reçue (0 pour la première page)
+     * @param limite Nombre maximal de réservations
+     */
+    public List<ReservationLigne> getPageReservations(int apresId, int limite) {
+        return PAGE_RESERVATIONS.mesurer(() -> reservationDAO.getReservationsPage(apresId, limite));
     }
 
     /**
@@ -142,6 +420,19 @@ public class ReservationController {
      * @return {@code true} si la suppression a réussi, {@code false} sinon
      */
     public boolean supprimerReservation(int idReservation) {
-        return reservationDAO.deleteReservation(idReservation);
+        return SUPPRIMER_RESERVATION.mesurer(() -> {
+            Reservation reservation = reservationDAO.getReservationById(idReservation);
+            boolean supprimee = reservationDAO.deleteReservation(idReservation);
+
+            if (supprimee && reservation != null) { // les places redeviennent disponibles
+                inventaire.libererPlaces(
+                        reservation.getIdAttraction(),
+                        reservation.getDateReservation(),
+                        reservation.getHeureReservation(),
+                        reservation.getNombreBillets()
+                );
+            }
+            return supprimee;
+        });
     }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package dao;
+
+import model.Attraction;
+import model.AttractionResume;
+import model.Facture;
+import model.FactureDetail;
+import model.Reduction;
+import model.Reservation;
+import model.ReservationLigne;
+import model.StatistiqueReservations;
+import model.Utilisateur;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Façade asynchrone sur les DAO
+ *
+ * Chaque appel s'exécute dans un thread virtuel et rend immédiatement un {@link CompletableFuture} :
+ * une vue Swing peut lancer une requête sans bloquer l'EDT, et un appelant sans interface peut
+ * lancer des milliers de requêtes simultanées sans créer autant de threads système
+ *
+ * Le nombre de requêtes exécutées en même temps est borné (propriété {@code parc.async.concurrence},
+ * par défaut la taille du pool de connexions) : au-delà, les appels attendent leur tour sans occuper
+ * de connexion. Annuler le future ({@code cancel(true)}) retire la requête si elle n'a pas commencé ;
+ * sinon la requête SQL en cours est annulée côté serveur et le thread est interrompu
+ *
+ * Les écritures d'attractions, de réductions et de réservations n'y figurent pas : elles passent par
+ * les contrôleurs, qui invalident les caches de référence et tiennent l'inventaire des créneaux à jour
+ */
+public class AsyncDAO implements AutoCloseable {
+
+    private static final AsyncDAO INSTANCE = new AsyncDAO(
+            Integer.getInteger("parc.async.concurrence", DatabaseConnection.getPool().getMaxSize()));
+
+    private final ExecutorService executor;
+    private final Semaphore limite;
+    private final int concurrenceMax;
+
+    private final AttractionRepository attractionDAO = Stockage.attractions();
+    private final ReductionRepository reductionDAO = Stockage.reductions();
+    private final ReservationRepository reservationDAO = Stockage.reservations();
+    private final FactureRepository factureDAO = Stockage.factures();
+    private final UtilisateurRepository utilisateurDAO = Stockage.utilisateurs();
+    private final ReportingRepository reportingDAO = Stockage.reporting();
+
+    /**
+     * @param concurrenceMax Nombre maximal de requêtes exécutées simultanément
+     */
+    public AsyncDAO(int concurrenceMax) {
+        if (concurrenceMax <= 0) {
+            throw new IllegalArgumentException("La concurrence doit être positive : " + concurrenceMax);
+        }
+        this.concurrenceMax = concurrenceMax;
+        this.limite = new Semaphore(concurrenceMax);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-async-", 0).factory());
+    }
+
+    /**
+     * @return La façade partagée par l'application
+     */
+    public static AsyncDAO getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Exécute une opération quelconque sur un thread virtuel, dans la limite de concurrence
+     *
+     * @param operation Opération bloquante (en général un ou plusieurs appels DAO)
+     * @return Un future complété par le résultat ou l'exception de l'opération
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> operation) {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        AtomicReference<Thread> executant = new AtomicReference<>();
+
+        Future<?> tache = executor.submit(() -> {
+            if (resultat.isDone()) {
+                return; // annulé avant de démarrer
+            }
+            executant.set(Thread.currentThread());
+            try {
+                limite.acquire();
+            } catch (InterruptedException e) {
+                resultat.completeExceptionally(e);
+                return;
+            }
+            try {
+                if (!resultat.isDone()) {
+                    resultat.complete(operation.call());
+                }
+            } catch (Throwable t) {
+                resultat.completeExceptionally(t);
+            } finally {
+                executant.set(null);
+                limite.release();
+            }
+        });
+
+        resultat.whenComplete((valeur, erreur) -> {
+            if (resultat.isCancelled()) {
+                Thread thread = executant.get();
+                if (thread != null) {
+                    DatabaseConnection.annulerRequete(thread); // le pilote JDBC ignore les interruptions
+                }
+                tache.cancel(true);
+            }
+        });
+        return resultat;
+    }
+
+    public int getConcurrenceMax() {
+        return concurrenceMax;
+    }
+
+    /** @return Nombre de requêtes en cours d'exécution */
+    public int getRequetesEnCours() {
+        return concurrenceMax - limite.availablePermits();
+    }
+
+    /** @return Nombre approximatif de requêtes en attente d'un créneau d'exécution */
+    public int getRequetesEnAttente() {
+        return limite.getQueueLength();
+    }
+
+    /**
+     * Interrompt les requêtes en cours et refuse les nouvelles
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // ------------------ Attractions ------------------ //
+
+    public CompletableFuture<List<Attraction>> getAllAttractions() {
+        return submit(attractionDAO::getAllAttractions);
+    }
+
+    public CompletableFuture<List<AttractionResume>> getAttractionsResumees() {
+        return submit(attractionDAO::getAttractionsResumees);
+    }
+
+    public CompletableFuture<Attraction> getAttractionById(int id) {
+        return submit(() -> attractionDAO.getAttractionById(id));
+    }
+
+    // ------------------ Réductions ------------------ //
+
+    public CompletableFuture<List<Reduction>> getAllReductions() {
+        return submit(reductionDAO::getAllReductions);
+    }
+
+    // ------------------ Réservations ------------------ //
+
+    public CompletableFuture<Reservation> getReservationById(int id) {
+        return submit(() -> reservationDAO.getReservationById(id));
+    }
+
+    public CompletableFuture<List<Reservation>> getReservationsByUtilisateur(int idUtilisateur) {
+        return submit(() -> reservationDAO.getReservationsByUtilisateur(idUtilisateur));
+    }
+
+    public CompletableFuture<List<Reservation>> getAllReservations() {
+        return submit(reservationDAO::getAllReservations);
+    }
+
+    public CompletableFuture<List<ReservationLigne>> getReservationsPage(int apresId, int limite) {
+        return submit(() -> reservationDAO.getReservationsPage(apresId, limite));
+    }
+
+    public CompletableFuture<Map<LocalTime, Integer>> getBookedSlots(int idAttraction, LocalDate date) {
+        return submit(() -> reservationDAO.getBookedSlots(idAttraction, date));
+    }
+
+    // ------------------ Factures ------------------ //
+
+    public CompletableFuture<List<Facture>> getFacturesByUtilisateur(int idUtilisateur) {
+        return submit(() -> factureDAO.getFacturesByUtilisateur(idUtilisateur));
+    }
+
+    public CompletableFuture<List<FactureDetail>> getFacturesDetailleesByUtilisateur(int idUtilisateur) {
+        return submit(() -> factureDAO.getFacturesDetailleesByUtilisateur(idUtilisateur));
+    }
+
+    // ------------------ Utilisateurs ------------------ //
+
+    public CompletableFuture<Utilisateur> getUtilisateurById(int id) {
+        return submit(() -> utilisateurDAO.getUtilisateurById(id));
+    }
+
+    public CompletableFuture<Utilisateur> getUtilisateurByEmail(String email) {
+        return submit(() -> utilisateurDAO.getUtilisateurByEmail(email));
+    }
+
+    public CompletableFuture<Boolean> insertUtilisateur(Utilisateur u) {
+        return submit(() -> utilisateurDAO.insertUtilisateur(u));
+    }
+
+    // ------------------ Statistiques ------------------ //
+
+    public CompletableFuture<List<StatistiqueReservations>> getStatistiquesParAttraction() {
+        return submit(reportingDAO::getStatistiquesParAttraction);
+    }
+
+    public CompletableFuture<List<StatistiqueReservations>> getStatistiquesParJour(LocalDate debut, LocalDate fin) {
+        return submit(() -> reportingDAO.getStatistiquesParJour(debut, fin));
+    }
+}
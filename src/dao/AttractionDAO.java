@@ -1,20 +1,25 @@
 package dao;
 
 import model.Attraction;
+import model.AttractionResume;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class AttractionDAO {
+public class AttractionDAO implements AttractionRepository {
+
+    // Colonnes lues explicitement : la requête ne dépend pas de l'ordre ni des ajouts de colonnes
+    private static final String COLONNES = "id, nom, description, prix, capacite, disponible";
+    private static final String COLONNES_RESUME = "id, nom, prix, capacite, disponible";
 
     public List<Attraction> getAllAttractions() {
         List<Attraction> attractions = new ArrayList<>();
-        String sql = "SELECT * FROM Attraction";
+        String sql = "SELECT " + COLONNES + " FROM Attraction";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
                 attractions.add(mapAttraction(rs));
@@ -22,13 +27,45 @@ public class AttractionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return attractions;
+    }
+
+    /**
+     * Liste les attractions sans leur description (listes déroulantes, réservation, historique)
+     *
+     * @return Les attractions, triées par ID
+     */
+    public List<AttractionResume> getAttractionsResumees() {
+        List<AttractionResume> attractions = new ArrayList<>();
+        String sql = "SELECT " + COLONNES_RESUME + " FROM Attraction ORDER BY id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                attractions.add(new AttractionResume(
+                        rs.getInt("id"),
+                        rs.getString("nom"),
+                        rs.getDouble("prix"),
+                        rs.getInt("capacite"),
+                        rs.getBoolean("disponible")
+                ));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return attractions;
     }
 
     public Attraction getAttractionById(int id) {
-        String sql = "SELECT * FROM Attraction WHERE id = ?";
+        String sql = "SELECT " + COLONNES + " FROM Attraction WHERE id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -41,6 +78,7 @@ public class AttractionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
         return null;
     }
@@ -61,6 +99,7 @@ public class AttractionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
@@ -83,6 +122,7 @@ public class AttractionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
@@ -99,6 +139,7 @@ public class AttractionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
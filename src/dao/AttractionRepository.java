@@ -0,0 +1,33 @@
+package dao;
+
+import model.Attraction;
+import model.AttractionResume;
+
+import java.util.List;
+
+/**
+ * Accès aux attractions, indépendamment du stockage
+ *
+ * @see AttractionDAO
+ * @see Stockage#attractions()
+ */
+public interface AttractionRepository {
+
+    List<Attraction> getAllAttractions();
+
+    /**
+     * @return Les attractions sans leur description, triées par ID
+     */
+    List<AttractionResume> getAttractionsResumees();
+
+    /**
+     * @return L'attraction, ou null si elle n'existe pas
+     */
+    Attraction getAttractionById(int id);
+
+    boolean insertAttraction(Attraction a);
+
+    boolean updateAttraction(Attraction a);
+
+    boolean deleteAttraction(int id);
+}
@@ -0,0 +1,401 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool borné de connexions JDBC
+ *
+ * Les connexions rendues par {@link #getConnection()} sont des enveloppes : leur méthode
+ * {@code close()} restitue la connexion physique au pool au lieu de la fermer, ce qui permet
+ * aux DAO de garder leurs blocs try-with-resources habituels
+ *
+ * Le pool garantit :
+ * - un nombre maximal de connexions ouvertes (emprunts bloquants au-delà, avec délai d'attente)
+ * - la validation d'une connexion restée inactive avant de la prêter à nouveau
+ * - la fermeture des connexions inactives depuis trop longtemps (tâche de fond)
+ * - des compteurs d'emprunts, d'attentes et de créations consultables à tout moment
+ * - un cache de requêtes préparées par connexion physique (voir {@link StatementCache})
+ *
+ * @see DatabaseConnection
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** En dessous de ce temps d'inactivité, une connexion est prêtée sans ping de validation */
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long acquireTimeoutMs;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>(); // LIFO : la plus récente en tête
+    private final ScheduledExecutorService evictor;
+
+    private final AtomicInteger borrowed = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong closed = new AtomicLong();
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final StatementCache.Stats statementStats = new StatementCache.Stats();
+
+    private volatile boolean shutdown;
+
+    /**
+     * Crée un pool vide ; les connexions sont ouvertes à la demande
+     *
+     * @param url URL JDBC
+     * @param user Utilisateur de la base
+     * @param password Mot de passe
+     * @param maxSize Nombre maximal de connexions ouvertes simultanément
+     * @param idleTimeoutMs Durée d'inactivité au-delà de laquelle une connexion libre est fermée
+     * @param acquireTimeoutMs Délai maximal d'attente d'une connexion libre
+     * @param statementCacheSize Nombre de requêtes préparées gardées par connexion (0 pour désactiver le cache)
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, long idleTimeoutMs, long acquireTimeoutMs,
+                          int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La taille du pool doit être positive : " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-connexions-eviction");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1_000, Math.min(idleTimeoutMs / 2, 30_000));
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emprunte une connexion au pool
+     * Bloque tant qu'aucune connexion n'est disponible, dans la limite du délai d'acquisition
+     *
+     * @return Une connexion dont {@code close()} la restitue au pool
+     * @throws SQLTimeoutException si aucune connexion ne s'est libérée à temps
+     * @throws SQLException si le pool est fermé ou si l'ouverture d'une connexion échoue
+     */
+    public Connection getConnection() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Le pool de connexions est fermé.");
+        }
+
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue.", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLTimeoutException("Aucune connexion disponible après " + acquireTimeoutMs + " ms (" + this + ")");
+        }
+
+        try {
+            PooledConnection pooled = takeValidConnection();
+            borrowed.incrementAndGet();
+            borrowCount.incrementAndGet();
+            return pooled.lend();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Prend la connexion libre la plus récente, en écartant celles qui ne répondent plus
+     * Ouvre une nouvelle connexion physique si aucune n'est disponible
+     */
+    private PooledConnection takeValidConnection() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.isUsable()) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+
+        Connection physical = DriverManager.getConnection(url, user, password);
+        created.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    /**
+     * Restitue une connexion empruntée : elle est remise dans l'état attendu par le prochain
+     * emprunteur (auto-commit, pas de transaction ouverte) ou fermée si ce n'est pas possible
+     */
+    private void giveBack(PooledConnection pooled) {
+        borrowed.decrementAndGet();
+        try {
+            if (!shutdown && pooled.reset()) {
+                pooled.lastUsed = System.nanoTime();
+                idle.offerFirst(pooled);
+            } else {
+                destroy(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Ferme les connexions libres inactives depuis plus longtemps que le délai configuré
+     * Les plus anciennes sont en queue de file
+     */
+    private void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsed > idleTimeoutNanos && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        closed.incrementAndGet();
+        if (pooled.statements != null) {
+            pooled.statements.close();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Ferme le pool : les connexions libres sont fermées immédiatement,
+     * les connexions empruntées le seront à leur restitution
+     */
+    @Override
+    public void close() {
+        shutdown = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    // ------------------ Statistiques ------------------ //
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** @return Nombre de connexions actuellement prêtées */
+    public int getBorrowedCount() {
+        return borrowed.get();
+    }
+
+    /** @return Nombre de threads en attente d'une connexion */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /** @return Nombre de connexions physiques ouvertes depuis le démarrage */
+    public long getCreatedCount() {
+        return created.get();
+    }
+
+    /** @return Nombre de connexions physiques fermées (éviction, validation échouée, arrêt) */
+    public long getClosedCount() {
+        return closed.get();
+    }
+
+    /** @return Nombre de connexions libres prêtes à être empruntées */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /** @return Nombre total d'emprunts servis depuis le démarrage */
+    public long getBorrowTotal() {
+        return borrowCount.get();
+    }
+
+    /** @return Nombre d'emprunts abandonnés faute de connexion libre à temps */
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    /** @return Nombre de requêtes préparées servies depuis un cache */
+    public long getStatementCacheHits() {
+        return statementStats.getHits();
+    }
+
+    /** @return Nombre de requêtes préparées qui ont dû être préparées */
+    public long getStatementCacheMisses() {
+        return statementStats.getMisses();
+    }
+
+    /** @return Nombre de requêtes préparées sorties d'un cache plein */
+    public long getStatementCacheEvictions() {
+        return statementStats.getEvictions();
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPool[max=" + maxSize +
+                ", empruntées=" + getBorrowedCount() +
+                ", libres=" + getIdleCount() +
+                ", en attente=" + getWaitingCount() +
+                ", créées=" + getCreatedCount() +
+                ", fermées=" + getClosedCount() +
+                ", emprunts=" + getBorrowTotal() +
+                ", expirations=" + getTimeoutCount() +
+                ", requêtes en cache=" + getStatementCacheHits() + "/" + (getStatementCacheHits() + getStatementCacheMisses()) + "]";
+    }
+
+    /**
+     * Connexion physique gérée par le pool
+     */
+    private final class PooledConnection {
+
+        private final Connection physical;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.nanoTime();
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.statements = statementCacheSize > 0
+                    ? new StatementCache(physical, statementCacheSize, statementStats)
+                    : null;
+        }
+
+        /**
+         * Une connexion utilisée très récemment est considérée valide sans aller-retour réseau
+         */
+        private boolean isUsable() {
+            if (System.nanoTime() - lastUsed < VALIDATION_BYPASS_NANOS) {
+                return true;
+            }
+            try {
+                return physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Annule une éventuelle transaction laissée ouverte et rétablit l'auto-commit
+         *
+         * @return false si la connexion n'est plus réutilisable
+         */
+        private boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Connection lend() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Lease(this)
+            );
+        }
+    }
+
+    /**
+     * Enveloppe remise à l'emprunteur : intercepte {@code close()}, sert les requêtes préparées
+     * depuis le cache de la connexion et interdit toute utilisation une fois restituée
+     */
+    private final class Lease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private boolean returned;
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Connexion empruntée " + pooled.physical;
+                default:
+                    break;
+            }
+
+            if (returned) {
+                throw new SQLException("Connexion déjà restituée au pool.");
+            }
+
+            if (pooled.statements != null && "prepareStatement".equals(method.getName())) {
+                Class<?>[] types = method.getParameterTypes();
+                if (types.length == 1) {
+                    return pooled.statements.prepare((Connection) proxy, (String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (types.length == 2 && types[1] == int.class) {
+                    return pooled.statements.prepare((Connection) proxy, (String) args[0], (Integer) args[1]);
+                }
+            }
+
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -1,21 +1,60 @@
 package dao;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
+/**
+ * Point d'accès unique aux connexions de la base de données
+ * Les connexions proviennent d'un {@link ConnectionPool} partagé : les fermer
+ * (par exemple via un try-with-resources) les restitue au pool
+ *
+ * La base se choisit par les propriétés système {@code parc.db.url}, {@code parc.db.user} et
+ * {@code parc.db.password} (MySQL local par défaut ; une base embarquée pour les benchmarks)
+ * La taille et les délais du pool se règlent par propriétés système :
+ * {@code parc.db.poolSize}, {@code parc.db.idleTimeoutMs}, {@code parc.db.acquireTimeoutMs}
+ * et {@code parc.db.statementCacheSize} (requêtes préparées gardées par connexion)
+ */
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/ParcAttractions"; // à adapter
-    private static final String USER = "root"; // à adapter
-    private static final String PASSWORD = "root"; // à adapter
+    // useServerPrepStmts : chaque requête préparée n'est analysée qu'une fois par connexion côté serveur
+    private static final String URL = System.getProperty("parc.db.url",
+            "jdbc:mysql://localhost:3306/ParcAttractions?useServerPrepStmts=true"); // à adapter
+    private static final String USER = System.getProperty("parc.db.user", "root"); // à adapter
+    private static final String PASSWORD = System.getProperty("parc.db.password", "root"); // à adapter
 
-    private static Connection connection;
+    private static final int POOL_SIZE = Integer.getInteger("parc.db.poolSize", 10);
+    private static final long IDLE_TIMEOUT_MS = Long.getLong("parc.db.idleTimeoutMs", 300_000L);
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("parc.db.acquireTimeoutMs", 5_000L);
+    private static final int STATEMENT_CACHE_SIZE = Integer.getInteger("parc.db.statementCacheSize", 64);
 
+    private static final ConnectionPool POOL =
+            new ConnectionPool(URL, USER, PASSWORD, POOL_SIZE, IDLE_TIMEOUT_MS, ACQUIRE_TIMEOUT_MS, STATEMENT_CACHE_SIZE);
+
+    /**
+     * Emprunte une connexion au pool
+     *
+     * @return Une connexion à fermer après usage pour la restituer
+     * @throws SQLException si aucune connexion n'a pu être obtenue dans le délai imparti
+     */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
-        }
-        return connection;
+        return POOL.getConnection();
+    }
+
+    /**
+     * Annule la requête SQL en cours d'exécution dans un autre thread (fenêtre fermée, future annulé)
+     * Le thread concerné reçoit une SQLException et son DAO rend son résultat d'échec habituel
+     *
+     * @param thread Thread qui exécute la requête
+     * @return true si une requête était en cours et a été annulée
+     */
+    public static boolean annulerRequete(Thread thread) {
+        return StatementCache.cancel(thread);
+    }
+
+    /**
+     * @return Le pool partagé (statistiques, arrêt)
+     */
+    public static ConnectionPool getPool() {
+        return POOL;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,181 @@
+package dao;
+
+import model.Reduction.CritereReduction;
+import model.Reservation.StatutReservation;
+import model.Utilisateur.TypeUtilisateur;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conversion entre les colonnes énumérées de la base et les enums du modèle
+ *
+ * Décodage d'un texte : une table précalculée contient, pour chaque constante, les graphies
+ * rencontrées en base (nom exact, minuscules, capitalisé, accentué : "Confirmée", "fidélité"…).
+ * Lire une ligne ne coûte qu'une recherche dans cette table, sans {@code toUpperCase()} ni
+ * {@code replace()} ; une graphie imprévue est normalisée une seule fois puis mémorisée
+ *
+ * Stockage compact (propriété {@code parc.db.enumsCompacts}, désactivé par défaut) : la valeur est
+ * écrite dans la colonne TINYINT {@code <colonne>_code} ajoutée par {@code sql/004_enums_compacts.sql},
+ * et toujours aussi dans la colonne texte, seule lue par les instances non compactes.
+ * Le code vaut la position de la constante dans l'enum plus un : les enums concernés ne doivent
+ * recevoir de nouvelles constantes qu'à la fin. À la lecture, une ligne sans code (écrite avant
+ * la migration ou par une instance non compacte) est décodée depuis sa colonne texte
+ */
+public final class EnumCodec<E extends Enum<E>> {
+
+    static final boolean COMPACT = Boolean.getBoolean("parc.db.enumsCompacts");
+
+    public static final EnumCodec<StatutReservation> STATUT_RESERVATION = new EnumCodec<>(StatutReservation.class,
+            Map.of(StatutReservation.CONFIRMEE, "Confirmée", StatutReservation.ANNULEE, "Annulée",
+                    StatutReservation.EN_ATTENTE, "En attente"));
+    public static final EnumCodec<CritereReduction> CRITERE_REDUCTION = new EnumCodec<>(CritereReduction.class,
+            Map.of(CritereReduction.FIDELITE, "Fidélité"));
+    public static final EnumCodec<TypeUtilisateur> TYPE_UTILISATEUR = new EnumCodec<>(TypeUtilisateur.class,
+            Map.of(TypeUtilisateur.INVITE, "Invité"));
+
+    private final Class<E> type;
+    private final E[] parCode;
+    private final Map<String, E> parTexte = new ConcurrentHashMap<>();
+
+    private EnumCodec(Class<E> type, Map<E, String> libellesAccentues) {
+        this.type = type;
+        this.parCode = type.getEnumConstants();
+
+        Map<String, E> graphies = new HashMap<>();
+        for (E valeur : parCode) {
+            ajouterGraphies(graphies, valeur.name(), valeur);
+        }
+        libellesAccentues.forEach((valeur, libelle) -> ajouterGraphies(graphies, libelle, valeur));
+        parTexte.putAll(graphies);
+    }
+
+    /**
+     * Décode la valeur d'une colonne texte
+     *
+     * @return La constante correspondante, null si la valeur est null
+     * @throws IllegalArgumentException si la valeur ne correspond à aucune constante
+     */
+    public E decode(String valeur) {
+        if (valeur == null) {
+            return null;
+        }
+        E e = parTexte.get(valeur);
+        if (e != null) {
+            return e;
+        }
+
+        // graphie imprévue : normalisation lente, une seule fois par graphie
+        e = Enum.valueOf(type, normaliser(valeur));
+        parTexte.putIfAbsent(valeur, e);
+        return e;
+    }
+
+    /**
+     * Décode un code compact
+     *
+     * @return La constante correspondante, null pour le code 0
+     * @throws IllegalArgumentException si le code ne correspond à aucune constante
+     */
+    public E decode(int code) {
+        if (code == 0) {
+            return null;
+        }
+        if (code < 0 || code > parCode.length) {
+            throw new IllegalArgumentException("Code " + code + " inconnu pour " + type.getSimpleName());
+        }
+        return parCode[code - 1];
+    }
+
+    /**
+     * @return Le code compact de la constante (0 pour null)
+     */
+    public int code(E valeur) {
+        return valeur == null ? 0 : valeur.ordinal() + 1;
+    }
+
+    /**
+     * Fragment SELECT à utiliser pour lire la colonne : {@code colonne} ou, en mode compact,
+     * {@code colonne, colonne_code}
+     *
+     * @param colonne Nom de la colonne, éventuellement préfixé par un alias ("u.type")
+     */
+    public static String selection(String colonne) {
+        return COMPACT ? colonne + ", " + colonne + "_code" : colonne;
+    }
+
+    /**
+     * Colonnes à écrire : {@code colonne} ou, en mode compact, {@code colonne, colonne_code}
+     * (le texte reste écrit tant que des instances non compactes peuvent le lire)
+     */
+    public static String ecriture(String colonne) {
+        return COMPACT ? colonne + ", " + colonne + "_code" : colonne;
+    }
+
+    /**
+     * Paramètres correspondant à {@link #ecriture(String)} dans un VALUES : {@code ?} ou {@code ?, ?}
+     */
+    public static String parametres() {
+        return COMPACT ? "?, ?" : "?";
+    }
+
+    /**
+     * Lit la colonne sélectionnée par {@link #selection(String)}
+     *
+     * @param colonne Libellé de la colonne dans le résultat (sans alias de table)
+     */
+    public E lire(ResultSet rs, String colonne) throws SQLException {
+        if (COMPACT) {
+            int code = rs.getInt(colonne + "_code");
+            if (!rs.wasNull()) {
+                return decode(code);
+            }
+        }
+        return decode(rs.getString(colonne));
+    }
+
+    /**
+     * Écrit la valeur dans les colonnes désignées par {@link #ecriture(String)}, à partir du paramètre {@code index}
+     *
+     * @return L'indice du paramètre suivant
+     */
+    public int ecrire(PreparedStatement ps, int index, E valeur) throws SQLException {
+        if (valeur == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, valeur.name());
+        }
+        if (!COMPACT) {
+            return index + 1;
+        }
+        if (valeur == null) {
+            ps.setNull(index + 1, Types.TINYINT);
+        } else {
+            ps.setInt(index + 1, code(valeur));
+        }
+        return index + 2;
+    }
+
+    private static <E> void ajouterGraphies(Map<String, E> graphies, String libelle, E valeur) {
+        String minuscules = libelle.toLowerCase(Locale.ROOT);
+        graphies.put(libelle, valeur);
+        graphies.put(libelle.toUpperCase(Locale.ROOT), valeur);
+        graphies.put(minuscules, valeur);
+        graphies.put(Character.toUpperCase(minuscules.charAt(0)) + minuscules.substring(1), valeur);
+    }
+
+    private static String normaliser(String valeur) {
+        return valeur.trim()
+                .toUpperCase(Locale.ROOT)
+                .replace(' ', '_')
+                .replace("É", "E")
+                .replace("È", "E")
+                .replace("À", "A");
+    }
+}
@@ -0,0 +1,60 @@
+package dao;
+
+import metriques.Metriques;
+
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+
+/**
+ * Erreurs SQL absorbées par les DAO
+ *
+ * Les DAO attrapent leurs {@link SQLException} et rendent une valeur par défaut (liste vide, -1, null, false) :
+ * l'appelant ne distingue pas une lecture vide d'une lecture échouée. Chaque bloc catch appelle
+ * {@link #signaler}, qui garde l'erreur pour le thread courant ; une lecture qui doit échouer franchement
+ * (chargement d'une vue, rechargement d'un cache) s'exécute dans {@link #verifier}, qui lève la première
+ * erreur notée pendant son exécution
+ */
+public final class ErreursDAO {
+
+    private static final ThreadLocal<SQLException> PREMIERE = new ThreadLocal<>();
+
+    private ErreursDAO() {
+    }
+
+    /**
+     * Note une erreur SQL absorbée par un DAO (seule la première d'une lecture est gardée)
+     * et la compte dans les métriques de l'appel en cours
+     */
+    public static void signaler(SQLException e) {
+        Metriques.erreurAbsorbee();
+        if (PREMIERE.get() == null) {
+            PREMIERE.set(e);
+        }
+    }
+
+    /**
+     * Exécute une lecture et la fait échouer si un DAO y a absorbé une erreur SQL
+     *
+     * @param lecture Lecture bloquante (un ou plusieurs appels DAO)
+     * @return Le résultat de la lecture, si aucun DAO n'a échoué
+     * @throws SQLException La première erreur absorbée pendant la lecture
+     */
+    public static <T> T verifier(Callable<T> lecture) throws Exception {
+        SQLException englobante = PREMIERE.get(); // erreur déjà notée par une lecture englobante
+        PREMIERE.remove();
+        try {
+            T resultat = lecture.call();
+            SQLException erreur = PREMIERE.get();
+            if (erreur != null) {
+                throw erreur;
+            }
+            return resultat;
+        } finally { // une erreur levée ici est remontée : seule celle de la lecture englobante reste notée
+            if (englobante != null) {
+                PREMIERE.set(englobante);
+            } else {
+                PREMIERE.remove();
+            }
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package dao;
 
 import model.Facture;
+import model.FactureDetail;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
-public class FactureDAO {
+public class FactureDAO implements FactureRepository {
+
+    private static final String COLONNES = "f.id, f.id_reservation, f.montant_total, f.date_facture, f.reduction_appliquee";
 
     public boolean insertFacture(Facture f) {
         String sql = "INSERT INTO Facture (id_reservation, montant_total, date_facture, reduction_appliquee) VALUES (?, ?, ?, ?)";
@@ -24,6 +27,48 @@ public class FactureDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return false;
+    }
+
+    /**
+     * Enregistre un lot de factures en une seule transaction, par exécution JDBC groupée
+     * INSERT IGNORE et l'index unique sur id_reservation (sql/005) rendent l'insertion idempotente ;
+     * le SELECT ignore les réservations supprimées entre-temps
+     *
+     * @param factures Factures à enregistrer
+     * @return true si le lot est validé, false s'il a été annulé
+     */
+    public boolean insertFactures(List<Facture> factures) {
+        String sql = "INSERT IGNORE INTO Facture (id_reservation, montant_total, date_facture, reduction_appliquee) " +
+                "SELECT id, ?, ?, ? FROM Reservation WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // début transaction
+
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (Facture f : factures) {
+                    ps.setDouble(1, f.getMontantTotal());
+                    ps.setDate(2, Date.valueOf(f.getDateFacture()));
+                    ps.setBoolean(3, f.isReductionAppliquee());
+                    ps.setInt(4, f.getIdReservation());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                conn.commit(); // tout le lot ou rien
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback(); // le lot sera retenté en entier
+                e.printStackTrace();
+                ErreursDAO.signaler(e);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
@@ -31,7 +76,7 @@ public class FactureDAO {
 
     public List<Facture> getFacturesByReservation(int reservationId) {
         List<Facture> list = new ArrayList<>();
-        String sql = "SELECT * FROM Facture WHERE id_reservation = ?";
+        String sql = "SELECT " + COLONNES + " FROM Facture f WHERE f.id_reservation = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -45,12 +90,86 @@ public class FactureDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return list;
     }
 
 
+    /**
+     * Récupère toutes les factures des réservations d'un utilisateur en une seule requête
+     *
+     * @param idUtilisateur ID de l'utilisateur
+     * @return Liste des factures du client
+     */
+    public List<Facture> getFacturesByUtilisateur(int idUtilisateur) {
+        List<Facture> list = new ArrayList<>();
+        String sql = "SELECT " + COLONNES + " FROM Facture f " +
+                "JOIN Reservation r ON r.id = f.id_reservation " +
+                "WHERE r.id_utilisateur = ? ORDER BY f.id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, idUtilisateur);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                list.add(mapFacture(rs));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return list;
+    }
+
+    /**
+     * Récupère les factures d'un utilisateur avec la date, l'heure de la réservation
+     * et le nom de l'attraction, en une seule requête
+     *
+     * @param idUtilisateur ID de l'utilisateur
+     * @return Lignes prêtes à afficher, triées par facture
+     */
+    public List<FactureDetail> getFacturesDetailleesByUtilisateur(int idUtilisateur) {
+        List<FactureDetail> list = new ArrayList<>();
+        String sql = "SELECT f.id, f.id_reservation, f.montant_total, f.reduction_appliquee, " +
+                "r.date_reservation, r.heure_reservation, a.nom AS nom_attraction " +
+                "FROM Facture f " +
+                "JOIN Reservation r ON r.id = f.id_reservation " +
+                "LEFT JOIN Attraction a ON a.id = r.id_attraction " +
+                "WHERE r.id_utilisateur = ? ORDER BY f.id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, idUtilisateur);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                Time heure = rs.getTime("heure_reservation");
+                list.add(new FactureDetail(
+                        rs.getInt("id"),
+                        rs.getInt("id_reservation"),
+                        rs.getString("nom_attraction"),
+                        rs.getDate("date_reservation").toLocalDate(),
+                        heure != null ? heure.toLocalTime() : null,
+                        rs.getDouble("montant_total"),
+                        rs.getBoolean("reduction_appliquee")
+                ));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return list;
+    }
+
     private Facture mapFacture(ResultSet rs) throws SQLException {
         return new Facture(
                 rs.getInt("id"),
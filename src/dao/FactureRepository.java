@@ -0,0 +1,41 @@
+package dao;
+
+import model.Facture;
+import model.FactureDetail;
+
+import java.util.List;
+
+/**
+ * Accès aux factures, indépendamment du stockage
+ *
+ * @see FactureDAO
+ * @see Stockage#factures()
+ */
+public interface FactureRepository {
+
+    /**
+     * @return false si la facture n'a pas été enregistrée (réservation inconnue, erreur)
+     */
+    boolean insertFacture(Facture f);
+
+    /**
+     * Enregistre un lot de factures en une transaction : toutes ou aucune
+     * Idempotent : une facture dont la réservation a déjà une facture, ou n'existe plus, est ignorée
+     * (un lot rejoué après une panne ne crée pas de doublon)
+     *
+     * @return false si le lot n'a pas été enregistré (à retenter)
+     */
+    boolean insertFactures(List<Facture> factures);
+
+    List<Facture> getFacturesByReservation(int reservationId);
+
+    /**
+     * @return Les factures des réservations de l'utilisateur, triées par ID
+     */
+    List<Facture> getFacturesByUtilisateur(int idUtilisateur);
+
+    /**
+     * @return Les factures de l'utilisateur avec l'attraction, la date et l'heure de la réservation, triées par ID
+     */
+    List<FactureDetail> getFacturesDetailleesByUtilisateur(int idUtilisateur);
+}
@@ -0,0 +1,468 @@
+package dao;
+
+import model.Facture;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Écriture différée (write-behind) des factures
+ *
+ * La réservation n'attend plus l'INSERT de sa facture : {@link #soumettre(Facture)} ajoute la facture
+ * à un journal sur disque, le force (fsync) puis rend la main. Un thread d'écriture regroupe ensuite
+ * les factures en lots ({@link FactureRepository#insertFactures}, une transaction par lot) et retente
+ * indéfiniment, avec une attente croissante, tant que la base refuse le lot
+ *
+ * Aucune facture n'est perdue :
+ * - une facture soumise est déjà sur disque ; au démarrage, le journal est relu et rejoué ;
+ * - le rejeu peut réécrire une facture déjà enregistrée : l'insertion est idempotente
+ *   (index unique sur id_reservation, sql/005) ;
+ * - une réservation enregistrée juste avant un arrêt, sans que sa facture ait atteint le journal,
+ *   est facturée au démarrage suivant ({@code ReservationController#reconcilierFactures})
+ *
+ * Le journal est découpé en segments ; un segment est supprimé dès que toutes ses factures sont en base
+ * Les fsync de soumissions simultanées sont regroupés (un seul fsync couvre toutes les écritures
+ * qui l'ont précédé)
+ *
+ * Désactivée par défaut ({@code parc.factures.differees=true} pour l'activer) : la réservation attend le fsync
+ * du journal au lieu de l'INSERT de la facture, ce qui n'est un gain que si la base est lente à valider
+ * (réseau, base chargée) ; {@code FacturesBench} compare les deux écritures
+ *
+ * Propriétés système : {@code parc.factures.journal} (répertoire, {@code journal/factures} par défaut),
+ * {@code parc.factures.tailleLot} (100), {@code parc.factures.tailleSegment} (1 Mio)
+ */
+public class FacturesDifferees implements AutoCloseable {
+
+    private static final long ATTENTE_MIN_MS = 100;
+    private static final long ATTENTE_MAX_MS = 30_000;
+    private static final String PREFIXE = "factures-";
+    private static final String SUFFIXE = ".journal";
+
+    private static volatile FacturesDifferees instance;
+
+    private final FactureRepository factures;
+    private final Path repertoire;
+    private final int tailleLot;
+    private final long tailleSegment;
+
+    private final LinkedBlockingQueue<Entree> file = new LinkedBlockingQueue<>();
+    private final Thread ecrivain;
+    private volatile boolean arrete;
+
+    // Journal : segment courant et nombre de factures pas encore en base par segment (sous verrou « this »)
+    private FileChannel segment;
+    private long numeroSegment;
+    private final Map<Long, Integer> enAttenteParSegment = new HashMap<>();
+
+    // Regroupement des fsync
+    private long positionEcrite; // octets écrits dans le segment courant (sous verrou « this »)
+    private final Object verrouForce = new Object();
+    private long numeroForce = -1; // segment et position déjà forcés (sous verrouForce)
+    private long positionForcee;
+
+    // Métriques
+    private final LongAdder soumises = new LongAdder();
+    private final LongAdder ecrites = new LongAdder();
+    private final LongAdder lots = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+    private final AtomicLong dernierEchec = new AtomicLong(); // horodatage ms, 0 si aucun
+    private final AtomicInteger enAttente = new AtomicInteger(); // en file ou dans le lot en cours
+    private volatile long soumissionLotMs; // soumission de la plus ancienne facture du lot en cours, 0 si aucun
+
+    /**
+     * Une facture en attente, avec son segment de journal et sa date de soumission
+     */
+    private record Entree(Facture facture, long segment, long soumiseMs) {
+    }
+
+    /**
+     * Ouvre le journal, remet en file les factures qu'il contient encore et démarre le thread d'écriture
+     *
+     * @param factures Dépôt où écrire les lots
+     * @param repertoire Répertoire du journal (créé si besoin)
+     * @param tailleLot Nombre maximal de factures par transaction
+     * @param tailleSegment Taille au-delà de laquelle un nouveau segment de journal est commencé
+     * @throws IOException si le journal ne peut pas être lu ou créé
+     */
+    public FacturesDifferees(FactureRepository factures, Path repertoire, int tailleLot, long tailleSegment) throws IOException {
+        if (tailleLot <= 0) {
+            throw new IllegalArgumentException("La taille des lots doit être positive : " + tailleLot);
+        }
+        this.factures = factures;
+        this.repertoire = repertoire;
+        this.tailleLot = tailleLot;
+        this.tailleSegment = tailleSegment;
+
+        Files.createDirectories(repertoire);
+        relireJournal();
+        ouvrirSegment(numeroSegment + 1);
+
+        this.ecrivain = Thread.ofPlatform().name("factures-differees").daemon(true).unstarted(this::ecrire);
+        this.ecrivain.start();
+    }
+
+    /**
+     * @return La file partagée par l'application, créée au premier appel ; null si le journal est inutilisable
+     */
+    public static FacturesDifferees getInstance() {
+        FacturesDifferees f = instance;
+        if (f == null) {
+            synchronized (FacturesDifferees.class) {
+                f = instance;
+                if (f == null) {
+                    try {
+                        f = new FacturesDifferees(Stockage.factures(),
+                                Paths.get(System.getProperty("parc.factures.journal", "journal/factures")),
+                                Integer.getInteger("parc.factures.tailleLot", 100),
+                                Long.getLong("parc.factures.tailleSegment", 1L << 20));
+                        Runtime.getRuntime().addShutdownHook(new Thread(f::close, "arret-factures"));
+                        instance = f;
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        return null;
+                    }
+                }
+            }
+        }
+        return f;
+    }
+
+    /**
+     * Ajoute une facture à la file ; elle est sur disque au retour
+     *
+     * @param f Facture d'une réservation déjà enregistrée
+     * @return false si le journal n'a pas pu être écrit (la facture n'est pas prise en charge)
+     */
+    public boolean soumettre(Facture f) {
+        if (arrete) {
+            return false;
+        }
+        byte[] ligne = ligne(f);
+        long numero;
+        long position;
+        FileChannel canal;
+        Entree entree;
+        try {
+            synchronized (this) {
+                if (positionEcrite >= tailleSegment) {
+                    ouvrirSegment(numeroSegment + 1);
+                }
+                ByteBuffer tampon = ByteBuffer.wrap(ligne);
+                while (tampon.hasRemaining()) {
+                    segment.write(tampon);
+                }
+                positionEcrite += ligne.length;
+                numero = numeroSegment;
+                position = positionEcrite;
+                canal = segment;
+                enAttenteParSegment.merge(numero, 1, Integer::sum);
+                entree = new Entree(f, numero, System.currentTimeMillis());
+            }
+            forcer(canal, numero, position);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+        // Le lot peut être écrit avant le retour : la ligne du journal est déjà comptée
+        enAttente.incrementAndGet();
+        file.add(entree);
+        soumises.increment();
+        return true;
+    }
+
+    // ------------------ Métriques ------------------ //
+
+    /**
+     * @return Nombre de factures soumises pas encore enregistrées en base
+     */
+    public int getProfondeur() {
+        return enAttente.get();
+    }
+
+    /**
+     * @return Ancienneté, en millisecondes, de la plus ancienne facture pas encore en base (0 si aucune)
+     */
+    public long getRetardMs() {
+        long soumission = soumissionLotMs;
+        if (soumission == 0) {
+            Entree plusAncienne = file.peek();
+            if (plusAncienne == null) {
+                return 0;
+            }
+            soumission = plusAncienne.soumiseMs();
+        }
+        return Math.max(0, System.currentTimeMillis() - soumission);
+    }
+
+    public long getSoumises() {
+        return soumises.sum();
+    }
+
+    public long getEcrites() {
+        return ecrites.sum();
+    }
+
+    public long getLots() {
+        return lots.sum();
+    }
+
+    /**
+     * @return Nombre de lots refusés par la base (puis retentés)
+     */
+    public long getEchecs() {
+        return echecs.sum();
+    }
+
+    /**
+     * @return Horodatage (ms) du dernier lot refusé, 0 si aucun
+     */
+    public long getDernierEchec() {
+        return dernierEchec.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "FacturesDifferees[profondeur=%d, retard=%dms, soumises=%d, écrites=%d, lots=%d, échecs=%d]",
+                getProfondeur(), getRetardMs(), getSoumises(), getEcrites(), getLots(), getEchecs());
+    }
+
+    /**
+     * Arrête le thread d'écriture après avoir tenté de vider la file (quelques secondes au plus)
+     * Les factures restantes sont dans le journal et seront écrites au prochain démarrage
+     */
+    @Override
+    public void close() {
+        arrete = true;
+        try {
+            ecrivain.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        ecrivain.interrupt();
+        synchronized (this) {
+            try {
+                segment.close();
+                if (file.isEmpty() && enAttenteParSegment.values().stream().allMatch(n -> n <= 0)) {
+                    Files.deleteIfExists(chemin(numeroSegment)); // tout est en base : rien à rejouer
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    // ------------------ Thread d'écriture ------------------ //
+
+    private void ecrire() {
+        List<Entree> lot = new ArrayList<>(tailleLot);
+        List<Facture> contenu = new ArrayList<>(tailleLot);
+        long attente = ATTENTE_MIN_MS;
+
+        while (!(arrete && file.isEmpty() && lot.isEmpty())) {
+            try {
+                if (lot.isEmpty()) {
+                    Entree premiere = file.poll(200, TimeUnit.MILLISECONDS);
+                    if (premiere == null) {
+                        continue;
+                    }
+                    lot.add(premiere);
+                    file.drainTo(lot, tailleLot - 1);
+                    soumissionLotMs = premiere.soumiseMs();
+                }
+
+                contenu.clear();
+                for (Entree e : lot) {
+                    contenu.add(e.facture());
+                }
+
+                boolean enregistre;
+                try {
+                    enregistre = factures.insertFactures(contenu);
+                } catch (RuntimeException e) {
+                    e.printStackTrace(); // le thread ne doit pas mourir : le lot sera retenté
+                    enregistre = false;
+                }
+
+                if (enregistre) {
+                    lots.increment();
+                    ecrites.add(lot.size());
+                    liberer(lot);
+                    enAttente.addAndGet(-lot.size());
+                    lot.clear();
+                    soumissionLotMs = 0;
+                    attente = ATTENTE_MIN_MS;
+                } else {
+                    // Le lot reste en main et sera retenté : l'ordre des factures est conservé
+                    echecs.increment();
+                    dernierEchec.set(System.currentTimeMillis());
+                    if (arrete) {
+                        return; // le journal garde le lot pour le prochain démarrage
+                    }
+                    Thread.sleep(attente);
+                    attente = Math.min(ATTENTE_MAX_MS, attente * 2);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Décompte les factures enregistrées de leur segment, et supprime les segments terminés
+     */
+    private synchronized void liberer(List<Entree> lot) {
+        for (Entree e : lot) {
+            enAttenteParSegment.merge(e.segment(), -1, Integer::sum);
+        }
+        enAttenteParSegment.entrySet().removeIf(s -> {
+            if (s.getValue() > 0 || s.getKey() == numeroSegment) {
+                return false;
+            }
+            try {
+                Files.deleteIfExists(chemin(s.getKey()));
+            } catch (IOException ex) {
+                ex.printStackTrace();
+                return false;
+            }
+            return true;
+        });
+        // Segment courant sans attente et assez gros : on en commence un autre pour pouvoir le supprimer
+        if (positionEcrite >= tailleSegment && enAttenteParSegment.getOrDefault(numeroSegment, 0) == 0) {
+            try {
+                long ancien = numeroSegment;
+                ouvrirSegment(numeroSegment + 1);
+                enAttenteParSegment.remove(ancien);
+                Files.deleteIfExists(chemin(ancien));
+            } catch (IOException ex) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    // ------------------ Journal ------------------ //
+
+    /**
+     * Force le segment sur disque jusqu'à {@code position} au moins
+     * Si un autre thread l'a déjà fait entre-temps, aucun fsync n'est refait
+     */
+    private void forcer(FileChannel canal, long numero, long position) throws IOException {
+        synchronized (verrouForce) {
+            if (numero < numeroForce || (numero == numeroForce && position <= positionForcee)) {
+                return; // déjà couvert par un fsync plus récent
+            }
+            long positionCible;
+            synchronized (this) {
+                if (numero != numeroSegment) {
+                    return; // segment fermé depuis : ouvrirSegment l'a forcé avant
+                }
+                positionCible = positionEcrite; // couvre aussi les écritures des autres threads
+            }
+            try {
+                canal.force(false);
+            } catch (ClosedChannelException e) {
+                return; // fermé entre-temps par ouvrirSegment, qui l'a forcé avant
+            }
+            numeroForce = numero;
+            positionForcee = positionCible;
+        }
+    }
+
+    /**
+     * Ferme le segment courant (déjà forcé) et en ouvre un nouveau ; appelé sous verrou « this »
+     */
+    private void ouvrirSegment(long numero) throws IOException {
+        if (segment != null) {
+            segment.force(false); // les soumissions en cours sur l'ancien segment restent couvertes
+            segment.close();
+        }
+        segment = FileChannel.open(chemin(numero), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        numeroSegment = numero;
+        positionEcrite = segment.size();
+    }
+
+    /**
+     * Relit les segments laissés par l'exécution précédente et remet leurs factures en file
+     * Une dernière ligne tronquée (arrêt pendant l'écriture, donc jamais confirmée) est ignorée
+     */
+    private void relireJournal() throws IOException {
+        Map<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(repertoire, PREFIXE + "*" + SUFFIXE)) {
+            for (Path p : fichiers) {
+                String nom = p.getFileName().toString();
+                try {
+                    segments.put(Long.parseLong(nom.substring(PREFIXE.length(), nom.length() - SUFFIXE.length())), p);
+                } catch (NumberFormatException e) {
+                    // fichier étranger au journal
+                }
+            }
+        }
+
+        long maintenant = System.currentTimeMillis();
+        for (Map.Entry<Long, Path> s : segments.entrySet()) {
+            int relues = 0;
+            try (BufferedReader lecteur = Files.newBufferedReader(s.getValue(), StandardCharsets.UTF_8)) {
+                String ligne;
+                while ((ligne = lecteur.readLine()) != null) {
+                    Facture f = lire(ligne);
+                    if (f != null) {
+                        file.add(new Entree(f, s.getKey(), maintenant));
+                        enAttente.incrementAndGet();
+                        relues++;
+                    }
+                }
+            }
+            if (relues > 0) {
+                enAttenteParSegment.put(s.getKey(), relues);
+            } else {
+                Files.deleteIfExists(s.getValue());
+            }
+            numeroSegment = s.getKey();
+        }
+    }
+
+    private Path chemin(long numero) {
+        return repertoire.resolve(String.format(Locale.ROOT, "%s%012d%s", PREFIXE, numero, SUFFIXE));
+    }
+
+    /**
+     * Format d'une ligne : {@code idReservation;montant;date;reduction}
+     */
+    private static byte[] ligne(Facture f) {
+        return (f.getIdReservation() + ";" + f.getMontantTotal() + ";" + f.getDateFacture() + ";"
+                + f.isReductionAppliquee() + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Facture lire(String ligne) {
+        String[] champs = ligne.split(";");
+        if (champs.length != 4) {
+            return null;
+        }
+        try {
+            return new Facture(Integer.parseInt(champs[0]), Double.parseDouble(champs[1]),
+                    LocalDate.parse(champs[2]), Boolean.parseBoolean(champs[3]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package dao;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage à clés {@code int} strictement positives, en adressage ouvert (sondage linéaire)
+ *
+ * Les clés sont rangées dans un tableau d'entiers, sans objet {@code Integer} ni nœud par entrée :
+ * une entrée coûte 4 octets de clé, une référence et un octet de marque, plus la chaîne elle-même
+ *
+ * Le nombre d'entrées est borné : une fois la borne atteinte, chaque insertion évince une entrée
+ * peu utilisée choisie par l'algorithme de l'horloge (une marque posée à chaque lecture donne
+ * une seconde chance à l'entrée)
+ *
+ * Non synchronisée : l'appelant protège les accès concurrents
+ */
+final class IntStringMap {
+
+    private static final int VIDE = 0;
+
+    private final int[] keys;
+    private final String[] values;
+    private final boolean[] referenced;
+    private final int mask;
+    private final int maxSize;
+    private int size;
+    private int hand; // aiguille de l'horloge
+
+    /**
+     * @param maxSize Nombre maximal d'entrées
+     */
+    IntStringMap(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("La capacité doit être positive : " + maxSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, (int) Math.min(1 << 29, maxSize * 4L / 3 + 1)) * 2 - 1);
+        this.keys = new int[capacity];
+        this.values = new String[capacity];
+        this.referenced = new boolean[capacity];
+        this.mask = capacity - 1;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return La valeur associée à la clé, ou null si elle est absente
+     */
+    String get(int key) {
+        for (int i = slot(key); keys[i] != VIDE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                referenced[i] = true;
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    boolean containsKey(int key) {
+        for (int i = slot(key); keys[i] != VIDE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Associe la valeur à la clé, en évinçant une entrée si la table est pleine
+     */
+    void put(int key, String value) {
+        if (key <= 0) {
+            throw new IllegalArgumentException("Clé invalide : " + key);
+        }
+        int i = slot(key);
+        for (; keys[i] != VIDE; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+        }
+
+        if (size == maxSize) {
+            evict();
+            // l'éviction a pu décaler des entrées : on recherche la case libre
+            i = slot(key);
+            while (keys[i] != VIDE) {
+                i = (i + 1) & mask;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        referenced[i] = false;
+        size++;
+    }
+
+    void clear() {
+        Arrays.fill(keys, VIDE);
+        Arrays.fill(values, null);
+        Arrays.fill(referenced, false);
+        size = 0;
+        hand = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+
+    private void evict() {
+        while (true) {
+            int i = hand;
+            hand = (hand + 1) & mask;
+            if (keys[i] == VIDE) {
+                continue;
+            }
+            if (referenced[i]) {
+                referenced[i] = false;
+                continue;
+            }
+            removeAt(i);
+            return;
+        }
+    }
+
+    /**
+     * Supprime l'entrée de la case {@code i} en recompactant la séquence de sondage qui suit
+     * (pas de marqueur de suppression, la table ne se dégrade pas avec les évictions)
+     */
+    private void removeAt(int i) {
+        int gap = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (keys[j] == VIDE) {
+                break;
+            }
+            int ideal = slot(keys[j]);
+            boolean resteEnPlace = gap < j ? (ideal > gap && ideal <= j) : (ideal > gap || ideal <= j);
+            if (!resteEnPlace) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                referenced[gap] = referenced[j];
+                gap = j;
+            }
+        }
+        keys[gap] = VIDE;
+        values[gap] = null;
+        referenced[gap] = false;
+        size--;
+    }
+
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
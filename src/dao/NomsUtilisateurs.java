@@ -0,0 +1,134 @@
+package dao;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache compact id → nom des utilisateurs, pour les écrans qui n'affichent que le nom du client
+ *
+ * Seule la projection (id, nom) est lue ({@link UtilisateurRepository#getNomsApres}), et les noms sont rangés
+ * dans une table à clés {@code int} ({@link IntStringMap}) : pas d'objet Utilisateur, de mot de passe
+ * ni d'Integer en mémoire
+ *
+ * - {@link #rafraichir()} ne lit que les utilisateurs créés depuis le dernier rafraîchissement ;
+ * - le nombre de noms gardés est borné (propriété {@code parc.cache.utilisateurs.max}, 100 000 par défaut) :
+ *   au-delà, les noms peu consultés sont évincés et relus à la demande par {@link #resoudre(int[])}
+ *
+ * Thread-safe ; {@link #getNom(int)} ne fait jamais d'accès à la base et peut être appelé sur l'EDT
+ */
+public class NomsUtilisateurs {
+
+    private static final NomsUtilisateurs INSTANCE =
+            new NomsUtilisateurs(Stockage.utilisateurs(), Integer.getInteger("parc.cache.utilisateurs.max", 100_000));
+
+    private final UtilisateurRepository utilisateurDAO;
+    private final IntStringMap noms;
+    private int dernierId; // plus grand identifiant lu par rafraîchissement
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    NomsUtilisateurs(UtilisateurRepository utilisateurDAO, int capacite) {
+        this.utilisateurDAO = utilisateurDAO;
+        this.noms = new IntStringMap(capacite);
+    }
+
+    /**
+     * @return Le cache partagé par l'application
+     */
+    public static NomsUtilisateurs getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return Le nom de l'utilisateur s'il est en cache, null sinon (jamais d'accès à la base)
+     */
+    public synchronized String getNom(int idUtilisateur) {
+        String nom = noms.get(idUtilisateur);
+        if (nom != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return nom;
+    }
+
+    /**
+     * Lit les utilisateurs créés depuis le dernier rafraîchissement, dans la limite de la place restante
+     */
+    public void rafraichir() {
+        int apresId;
+        int place;
+        synchronized (this) {
+            apresId = dernierId;
+            place = noms.maxSize() - noms.size();
+        }
+        if (place <= 0) {
+            return; // cache plein : les nouveaux noms seront lus à la demande
+        }
+
+        int lu = utilisateurDAO.getNomsApres(apresId, place, this::ajouter);
+        synchronized (this) {
+            dernierId = Math.max(dernierId, lu);
+        }
+    }
+
+    /**
+     * Garantit, autant que possible, la présence en cache des noms de ces utilisateurs :
+     * ceux qui manquent sont lus en une seule série de requêtes
+     * À appeler hors de l'EDT, avant d'afficher un lot de lignes
+     *
+     * @param ids Identifiants d'utilisateurs (0 pour un invité, ignoré)
+     */
+    public void resoudre(int[] ids) {
+        int[] manquants = new int[ids.length];
+        int n = 0;
+        synchronized (this) {
+            for (int id : ids) {
+                if (id > 0 && !noms.containsKey(id)) {
+                    manquants[n++] = id;
+                }
+            }
+        }
+        if (n == 0) {
+            return;
+        }
+
+        int[] distincts = Arrays.stream(manquants, 0, n).distinct().toArray();
+        utilisateurDAO.getNoms(distincts, this::ajouter);
+    }
+
+    /**
+     * Vide le cache (par exemple après une modification de noms hors de l'application)
+     */
+    public synchronized void invalider() {
+        noms.clear();
+        dernierId = 0;
+    }
+
+    public synchronized int getTaille() {
+        return noms.size();
+    }
+
+    public int getCapacite() {
+        return noms.maxSize();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    private synchronized void ajouter(int id, String nom) {
+        noms.put(id, nom != null ? nom : "");
+    }
+
+    @Override
+    public String toString() {
+        return "Noms utilisateurs [taille=" + getTaille() + "/" + getCapacite()
+                + ", hits=" + getHitCount() + ", misses=" + getMissCount() + "]";
+    }
+}
@@ -1,28 +1,28 @@
 package dao;
 
 import model.Reduction;
-import model.Reduction.CritereReduction;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ReductionDAO {
+public class ReductionDAO implements ReductionRepository {
 
     public boolean insertReduction(Reduction r) {
-        String sql = "INSERT INTO Reduction (nom, pourcentage, critere) VALUES (?, ?, ?)";
+        String sql = "INSERT INTO Reduction (nom, pourcentage, " + EnumCodec.ecriture("critere") + ") VALUES (?, ?, " + EnumCodec.parametres() + ")";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setString(1, r.getNom());
             ps.setInt(2, r.getPourcentage());
-            ps.setString(3, r.getCritere().name());
+            EnumCodec.CRITERE_REDUCTION.ecrire(ps, 3, r.getCritere());
 
             return ps.executeUpdate() > 0;
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
@@ -32,11 +32,11 @@ public class ReductionDAO {
 
     public List<Reduction> getAllReductions() {
         List<Reduction> list = new ArrayList<>();
-        String sql = "SELECT * FROM Reduction";
+        String sql = "SELECT id, nom, pourcentage, " + EnumCodec.selection("critere") + " FROM Reduction";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
                 list.add(mapReduction(rs));
@@ -44,6 +44,7 @@ public class ReductionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return list;
@@ -60,6 +61,7 @@ public class ReductionDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
@@ -70,13 +72,7 @@ public class ReductionDAO {
                 rs.getInt("id"),
                 rs.getString("nom"),
                 rs.getInt("pourcentage"),
-                CritereReduction.valueOf(
-                        rs.getString("critere")
-                                .toUpperCase()
-                                .replace("É", "E")
-                                .replace("È", "E")
-                                .replace("À", "A")
-                )
+                EnumCodec.CRITERE_REDUCTION.lire(rs, "critere")
         );
     }
 }
\ No newline at end of file
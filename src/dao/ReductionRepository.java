@@ -0,0 +1,20 @@
+package dao;
+
+import model.Reduction;
+
+import java.util.List;
+
+/**
+ * Accès aux réductions, indépendamment du stockage
+ *
+ * @see ReductionDAO
+ * @see Stockage#reductions()
+ */
+public interface ReductionRepository {
+
+    boolean insertReduction(Reduction r);
+
+    List<Reduction> getAllReductions();
+
+    boolean deleteReduction(int id);
+}
@@ -0,0 +1,144 @@
+package dao;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cache en lecture d'une table de référence (attractions, réductions) qui change rarement
+ *
+ * La liste est relue depuis la base au premier accès, à l'expiration du délai de validité
+ * ou après une invalidation explicite ; entre-temps, toutes les lectures partagent la même
+ * liste non modifiable. Un seul thread recharge à la fois, les autres attendent son résultat
+ *
+ * Une relecture pendant laquelle le DAO a absorbé une erreur SQL ({@link ErreursDAO}) n'est pas gardée :
+ * la dernière liste lue avec succès reste servie et la relecture est retentée au prochain accès.
+ * Sans liste précédente, l'erreur est signalée à nouveau pour faire échouer la lecture englobante
+ *
+ * @param <T> Type des lignes
+ * @see ReferenceDataCache
+ */
+public class ReferenceCache<T> {
+
+    private final String nom;
+    private final Supplier<List<T>> chargeur;
+    private final long ttlNanos;
+
+    private final ReentrantLock rechargement = new ReentrantLock(); // pas de synchronized : ne bloque pas les threads virtuels
+    private final AtomicLong generation = new AtomicLong(); // incrémentée à chaque invalidation
+    private volatile Snapshot<T> snapshot;
+    private volatile List<T> derniereLue; // gardée après invalidation, servie si la relecture échoue
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final AtomicLong reloads = new AtomicLong();
+
+    /**
+     * @param nom Nom du cache (statistiques)
+     * @param chargeur Lecture complète de la table
+     * @param ttlMs Durée de validité d'une liste chargée
+     */
+    public ReferenceCache(String nom, Supplier<List<T>> chargeur, long ttlMs) {
+        this.nom = nom;
+        this.chargeur = chargeur;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+    }
+
+    /**
+     * @return La liste en cache, rechargée si elle est absente ou expirée (non modifiable)
+     */
+    public List<T> get() {
+        Snapshot<T> s = snapshot;
+        if (s != null && s.isFresh(ttlNanos)) {
+            hits.increment();
+            return s.valeurs;
+        }
+
+        rechargement.lock();
+        try {
+            s = snapshot;
+            if (s != null && s.isFresh(ttlNanos)) { // rechargé par un autre thread pendant l'attente
+                hits.increment();
+                return s.valeurs;
+            }
+
+            misses.increment();
+            reloads.incrementAndGet();
+            long gen = generation.get();
+            List<T> valeurs;
+            try {
+                valeurs = List.copyOf(ErreursDAO.verifier(chargeur::get));
+            } catch (SQLException e) { // le DAO a rendu une liste vide ou partielle
+                List<T> precedente = derniereLue;
+                if (precedente != null) {
+                    return precedente;
+                }
+                ErreursDAO.signaler(e);
+                return List.of();
+            } catch (Exception e) {
+                throw e instanceof RuntimeException re ? re : new IllegalStateException(e);
+            }
+            derniereLue = valeurs;
+            if (generation.get() == gen) { // pas d'écriture pendant la lecture : la liste peut être gardée
+                snapshot = new Snapshot<>(valeurs);
+            }
+            return valeurs;
+        } finally {
+            rechargement.unlock();
+        }
+    }
+
+    /**
+     * Force la relecture au prochain accès (à appeler après toute écriture dans la table)
+     */
+    public void invalider() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** @return Part des lectures servies sans accès à la base, entre 0 et 1 */
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /** @return Nombre de relectures de la table depuis le démarrage */
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Cache " + nom + " [succès=" + String.format("%.1f", getHitRatio() * 100) + "%, rechargements=" + getReloadCount() + "]";
+    }
+
+    private static final class Snapshot<T> {
+        private final List<T> valeurs;
+        private final long chargeLe = System.nanoTime();
+
+        private Snapshot(List<T> valeurs) {
+            this.valeurs = valeurs;
+        }
+
+        private boolean isFresh(long ttlNanos) {
+            return System.nanoTime() - chargeLe < ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package dao;
+
+import model.Attraction;
+import model.AttractionResume;
+import model.Reduction;
+
+import java.util.List;
+
+/**
+ * Caches partagés des données de référence : attractions et réductions
+ * Ces tables ne changent que par l'écran d'administration ({@code AdminController}),
+ * qui invalide le cache concerné après chaque écriture
+ *
+ * Durée de validité réglable par la propriété système {@code parc.cache.ttlMs} (5 minutes par défaut)
+ */
+public class ReferenceDataCache {
+
+    private static final long TTL_MS = Long.getLong("parc.cache.ttlMs", 300_000L);
+
+    private static final ReferenceCache<Attraction> ATTRACTIONS =
+            new ReferenceCache<>("attractions", Stockage.attractions()::getAllAttractions, TTL_MS);
+    private static final ReferenceCache<AttractionResume> ATTRACTIONS_RESUMEES =
+            new ReferenceCache<>("attractions (résumé)", Stockage.attractions()::getAttractionsResumees, TTL_MS);
+    private static final ReferenceCache<Reduction> REDUCTIONS =
+            new ReferenceCache<>("réductions", Stockage.reductions()::getAllReductions, TTL_MS);
+
+    public static List<Attraction> getAttractions() {
+        return ATTRACTIONS.get();
+    }
+
+    /**
+     * @return Les attractions sans description, pour les écrans de réservation et les listes
+     */
+    public static List<AttractionResume> getAttractionsResumees() {
+        return ATTRACTIONS_RESUMEES.get();
+    }
+
+    public static List<Reduction> getReductions() {
+        return REDUCTIONS.get();
+    }
+
+    public static ReferenceCache<Attraction> attractions() {
+        return ATTRACTIONS;
+    }
+
+    public static ReferenceCache<AttractionResume> attractionsResumees() {
+        return ATTRACTIONS_RESUMEES;
+    }
+
+    /**
+     * Invalide les deux vues des attractions (complète et résumée) après une écriture
+     */
+    public static void invaliderAttractions() {
+        ATTRACTIONS.invalider();
+        ATTRACTIONS_RESUMEES.invalider();
+    }
+
+    public static ReferenceCache<Reduction> reductions() {
+        return REDUCTIONS;
+    }
+}
@@ -0,0 +1,89 @@
+package dao;
+
+import model.StatistiqueReservations;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO de lecture des statistiques de réservation
+ * Les agrégats sont lus dans les tables de synthèse Stat_Attraction et Stat_Attraction_Jour,
+ * mises à jour par triggers à chaque réservation ou facture (voir sql/003_statistiques_reservations.sql) :
+ * le coût d'une lecture ne dépend pas du nombre de réservations en base
+ */
+public class ReportingDAO implements ReportingRepository {
+
+    /**
+     * Retourne, pour chaque attraction, le nombre de réservations, de billets vendus et le chiffre d'affaires
+     *
+     * @return Une ligne par attraction (à zéro si elle n'a jamais été réservée), triée par ID
+     */
+    public List<StatistiqueReservations> getStatistiquesParAttraction() {
+        List<StatistiqueReservations> list = new ArrayList<>();
+        String sql = "SELECT a.id, a.nom, COALESCE(s.nb_reservations, 0) AS nb_reservations, " +
+                "COALESCE(s.billets, 0) AS billets, COALESCE(s.chiffre_affaires, 0) AS chiffre_affaires " +
+                "FROM Attraction a LEFT JOIN Stat_Attraction s ON s.id_attraction = a.id " +
+                "ORDER BY a.id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                list.add(mapStatistique(rs, null));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return list;
+    }
+
+    /**
+     * Retourne les statistiques jour par jour et attraction par attraction sur une période
+     *
+     * @param debut Premier jour inclus
+     * @param fin Dernier jour inclus
+     * @return Une ligne par jour et par attraction réservée ce jour-là, triées par jour puis attraction
+     */
+    public List<StatistiqueReservations> getStatistiquesParJour(LocalDate debut, LocalDate fin) {
+        List<StatistiqueReservations> list = new ArrayList<>();
+        String sql = "SELECT s.jour, a.id, a.nom, s.nb_reservations, s.billets, s.chiffre_affaires " +
+                "FROM Stat_Attraction_Jour s JOIN Attraction a ON a.id = s.id_attraction " +
+                "WHERE s.jour BETWEEN ? AND ? " +
+                "ORDER BY s.jour, a.id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setDate(1, Date.valueOf(debut));
+            ps.setDate(2, Date.valueOf(fin));
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                list.add(mapStatistique(rs, rs.getDate("jour").toLocalDate()));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return list;
+    }
+
+    private StatistiqueReservations mapStatistique(ResultSet rs, LocalDate jour) throws SQLException {
+        return new StatistiqueReservations(
+                rs.getInt("id"),
+                rs.getString("nom"),
+                jour,
+                rs.getInt("nb_reservations"),
+                rs.getInt("billets"),
+                rs.getDouble("chiffre_affaires")
+        );
+    }
+}
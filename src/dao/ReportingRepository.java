@@ -0,0 +1,25 @@
+package dao;
+
+import model.StatistiqueReservations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lecture des statistiques de réservation, indépendamment du stockage
+ *
+ * @see ReportingDAO
+ * @see Stockage#reporting()
+ */
+public interface ReportingRepository {
+
+    /**
+     * @return Une ligne par attraction (à zéro si elle n'a jamais été réservée), triée par ID
+     */
+    List<StatistiqueReservations> getStatistiquesParAttraction();
+
+    /**
+     * @return Une ligne par jour et par attraction réservée ce jour-là (bornes incluses), triées par jour puis attraction
+     */
+    List<StatistiqueReservations> getStatistiquesParJour(LocalDate debut, LocalDate fin);
+}
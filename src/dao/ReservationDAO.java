@@ -1,20 +1,30 @@
 package dao;
 
+import model.ContexteReservation;
+import model.Facture;
 import model.Reservation;
-import model.Reservation.StatutReservation;
+import model.ReservationLigne;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO permettant d'effectuer les opérations CRUD sur la table Reservation
  * Ce DAO utilise JDBC pour accéder à la base de données
  * Il permet d'insérer, de récupérer, de supprimer des réservations, et de les lier à un utilisateur
  */
-public class ReservationDAO {
+public class ReservationDAO implements ReservationRepository {
+
+    private static final String COLONNES = "id, id_utilisateur, id_attraction, date_reservation, heure_reservation, nombre_billets, "
+            + EnumCodec.selection("statut");
+    private static final String SQL_INSERT = "INSERT INTO Reservation (id_utilisateur, id_attraction, date_reservation, heure_reservation, nombre_billets, "
+            + EnumCodec.ecriture("statut") + ") VALUES (?, ?, ?, ?, ?, " + EnumCodec.parametres() + ")";
+    private static final String SQL_INSERT_FACTURE = "INSERT INTO Facture (id_reservation, montant_total, date_facture, reduction_appliquee) VALUES (?, ?, ?, ?)";
 
     /**
      * Insère une réservation en base de données et retourne son ID
@@ -24,29 +34,12 @@ public class ReservationDAO {
      * @return L'identifiant généré si succès, -1 sinon
      */
     public int insertReservation(Reservation r) {
-        String sql = "INSERT INTO Reservation (id_utilisateur, id_attraction, date_reservation, heure_reservation, nombre_billets, statut) VALUES (?, ?, ?, ?, ?, ?)";
+        String sql = SQL_INSERT;
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            //Si idUtilisateur = 0 (invité), on met NULL en base
-            if (r.getIdUtilisateur() == 0) { //Si l’utilisateur est un invité (id = 0), on insère NULL
-                ps.setNull(1, Types.INTEGER);
-            } else {
-                ps.setInt(1, r.getIdUtilisateur());
-            }
-
-            ps.setInt(2, r.getIdAttraction()); //Données obligatoires : attraction et date.
-            ps.setDate(3, Date.valueOf(r.getDateReservation()));
-
-            if (r.getHeureReservation() != null) {
-                ps.setTime(4, Time.valueOf(r.getHeureReservation()));
-            } else {
-                ps.setNull(4, Types.TIME);
-            }
-
-            ps.setInt(5, r.getNombreBillets()); //Nombre de billets et statut sous forme de texte
-            ps.setString(6, r.getStatut().name());
+            bindReservation(ps, r);
 
             int affectedRows = ps.executeUpdate();
 
@@ -62,11 +55,193 @@ public class ReservationDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Insère une réservation et sa facture dans une même transaction
+     * Soit les deux lignes sont créées, soit aucune
+     *
+     * @param r Réservation à insérer
+     * @param montantTotal Montant de la facture
+     * @param dateFacture Date de la facture
+     * @param reductionAppliquee Indique si une réduction a été appliquée au montant
+     * @return L'identifiant de la réservation créée, -1 en cas d'échec
+     */
+    public int insertReservationAvecFacture(Reservation r, double montantTotal, LocalDate dateFacture, boolean reductionAppliquee) {
+        String insertReservationSQL = SQL_INSERT;
+        String insertFactureSQL = SQL_INSERT_FACTURE;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // début transaction
+
+            try (PreparedStatement psReservation = conn.prepareStatement(insertReservationSQL, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement psFacture = conn.prepareStatement(insertFactureSQL)) {
+
+                bindReservation(psReservation, r);
+                psReservation.executeUpdate();
+
+                int reservationId;
+                try (ResultSet generatedKeys = psReservation.getGeneratedKeys()) {
+                    if (!generatedKeys.next()) {
+                        throw new SQLException("Échec de l'insertion de la réservation.");
+                    }
+                    reservationId = generatedKeys.getInt(1);
+                }
+
+                psFacture.setInt(1, reservationId);
+                psFacture.setDouble(2, montantTotal);
+                psFacture.setDate(3, Date.valueOf(dateFacture));
+                psFacture.setBoolean(4, reductionAppliquee);
+                psFacture.executeUpdate();
+
+                conn.commit(); // Valide la réservation et la facture ensemble
+                return reservationId;
+
+            } catch (SQLException e) {
+                conn.rollback(); // Aucune réservation sans facture
+                e.printStackTrace();
+                ErreursDAO.signaler(e);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return -1;
     }
 
+    /**
+     * Insère un groupe de réservations et leurs factures dans une même transaction, par lots JDBC :
+     * un envoi pour les réservations, un pour les factures, au lieu de deux requêtes par réservation
+     * Soit toutes les lignes sont créées, soit aucune
+     *
+     * @param reservations Réservations à insérer
+     * @param factures Facture de chaque réservation, dans le même ordre (identifiant de réservation ignoré)
+     * @return Les identifiants des réservations créées, dans l'ordre ; une liste vide en cas d'échec
+     */
+    public List<Integer> insertReservationsAvecFactures(List<Reservation> reservations, List<Facture> factures) {
+        if (reservations.isEmpty() || reservations.size() != factures.size()) {
+            return new ArrayList<>();
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // début transaction
+
+            try (PreparedStatement psReservation = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement psFacture = conn.prepareStatement(SQL_INSERT_FACTURE)) {
+
+                for (Reservation r : reservations) {
+                    bindReservation(psReservation, r);
+                    psReservation.addBatch();
+                }
+                psReservation.executeBatch();
+
+                List<Integer> ids = new ArrayList<>(reservations.size());
+                try (ResultSet generatedKeys = psReservation.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        ids.add(generatedKeys.getInt(1));
+                    }
+                }
+                if (ids.size() != reservations.size()) {
+                    throw new SQLException("Identifiants générés manquants : " + ids.size() + " sur " + reservations.size());
+                }
+
+                for (int i = 0; i < factures.size(); i++) {
+                    Facture f = factures.get(i);
+                    psFacture.setInt(1, ids.get(i));
+                    psFacture.setDouble(2, f.getMontantTotal());
+                    psFacture.setDate(3, Date.valueOf(f.getDateFacture()));
+                    psFacture.setBoolean(4, f.isReductionAppliquee());
+                    psFacture.addBatch();
+                }
+                psFacture.executeBatch();
+
+                conn.commit(); // Valide tout le groupe
+                return ids;
+
+            } catch (SQLException e) {
+                conn.rollback(); // Aucune réservation du groupe
+                e.printStackTrace();
+                ErreursDAO.signaler(e);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return new ArrayList<>();
+    }
+
+    /**
+     * Lit en un seul aller-retour ce qu'il faut pour tarifer une réservation :
+     * prix et capacité de l'attraction, type et âge du client
+     * (les réductions viennent du cache {@link ReferenceDataCache})
+     *
+     * @param idUtilisateur ID du client (0 pour un invité)
+     * @param idAttraction ID de l'attraction
+     * @return Le contexte de tarification, ou null si l'attraction n'existe pas
+     */
+    public ContexteReservation getContexteReservation(int idUtilisateur, int idAttraction) {
+        String sql = "SELECT a.prix, a.capacite, " + EnumCodec.selection("u.type") + ", u.age " +
+                "FROM Attraction a " +
+                "LEFT JOIN Utilisateur u ON u.id = ? " +
+                "WHERE a.id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, idUtilisateur);
+            ps.setInt(2, idAttraction);
+            ResultSet rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return new ContexteReservation(
+                        rs.getDouble("prix"),
+                        rs.getInt("capacite"),
+                        EnumCodec.TYPE_UTILISATEUR.lire(rs, "type"), // null si aucun utilisateur
+                        rs.getInt("age")
+                );
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return null; // attraction inconnue ou erreur
+    }
+
+    /**
+     * Récupère une réservation à partir de son identifiant
+     *
+     * @param id ID de la réservation
+     * @return La réservation, ou null si elle n'existe pas
+     */
+    public Reservation getReservationById(int id) {
+        String sql = "SELECT " + COLONNES + " FROM Reservation WHERE id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, id);
+            ResultSet rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return mapReservation(rs);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return null;
+    }
+
     /**
      * Récupère toutes les réservations associées à un utilisateur
      *
@@ -75,7 +250,7 @@ public class ReservationDAO {
      */
     public List<Reservation> getReservationsByUtilisateur(int idUtilisateur) {
         List<Reservation> list = new ArrayList<>();
-        String sql = "SELECT * FROM Reservation WHERE id_utilisateur = ?";
+        String sql = "SELECT " + COLONNES + " FROM Reservation WHERE id_utilisateur = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -89,6 +264,7 @@ public class ReservationDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return list;
@@ -101,11 +277,11 @@ public class ReservationDAO {
      */
     public List<Reservation> getAllReservations() {
         List<Reservation> list = new ArrayList<>();
-        String sql = "SELECT * FROM Reservation";
+        String sql = "SELECT " + COLONNES + " FROM Reservation";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
                 list.add(mapReservation(rs));
@@ -113,12 +289,180 @@ public class ReservationDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return list;
     }
 
 
+    /**
+     * Récupère les réservations sans facture (anti-jointure sur l'index unique de Facture.id_reservation)
+     *
+     * @return Les réservations sans facture, triées par ID
+     */
+    public List<Reservation> getReservationsSansFacture() {
+        List<Reservation> list = new ArrayList<>();
+        String sql = "SELECT " + COLONNES + " FROM Reservation " +
+                "WHERE NOT EXISTS (SELECT 1 FROM Facture f WHERE f.id_reservation = Reservation.id) " +
+                "ORDER BY id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            while (rs.next()) {
+                list.add(mapReservation(rs));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return list;
+    }
+
+    /**
+     * Compte les réservations enregistrées
+     *
+     * @return Le nombre total de réservations, 0 en cas d'erreur
+     */
+    public int countReservations() {
+        String sql = "SELECT COUNT(*) FROM Reservation";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return 0;
+    }
+
+    /**
+     * Retrouve le début d'une page pour y sauter sans lire les pages précédentes : l'ID de la
+     * dernière réservation de la page d'avant, lu dans l'index de la clé primaire (aucune ligne complète)
+     * Une page atteinte en faisant défiler n'en a pas besoin : elle commence après la dernière
+     * réservation de la page déjà lue
+     *
+     * @param page Numéro de la page (0 pour la première)
+     * @param taillePage Nombre de réservations par page
+     * @return L'ID après lequel commence la page (0 pour la première), -1 si la page n'existe pas
+     */
+    public int getDebutPage(int page, int taillePage) {
+        if (page <= 0) {
+            return 0;
+        }
+        String sql = "SELECT id FROM Reservation ORDER BY id LIMIT 1 OFFSET ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setLong(1, (long) page * taillePage - 1);
+            ResultSet rs = ps.executeQuery();
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return -1;
+    }
+
+    /**
+     * Lit une page de réservations par pagination sur clé (id > apresId), avec le nom de
+     * l'attraction : le coût ne dépend pas de la position de la page
+     * Le nom du client n'est pas joint : il se résout par {@link NomsUtilisateurs}, sans relire
+     * la table Utilisateur à chaque page
+     *
+     * @param apresId ID de la dernière réservation de la page précédente (0 pour la première page)
+     * @param limite Nombre maximal de lignes
+     * @return Les lignes de la page, triées par ID
+     */
+    public List<ReservationLigne> getReservationsPage(int apresId, int limite) {
+        List<ReservationLigne> list = new ArrayList<>();
+        String sql = "SELECT r.id, r.id_utilisateur, r.date_reservation, r.heure_reservation, r.nombre_billets, "
+                + EnumCodec.selection("r.statut") + ", " +
+                "a.nom AS nom_attraction " +
+                "FROM Reservation r " +
+                "LEFT JOIN Attraction a ON a.id = r.id_attraction " +
+                "WHERE r.id > ? ORDER BY r.id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, apresId);
+            ps.setInt(2, limite);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                Time heure = rs.getTime("heure_reservation");
+                list.add(new ReservationLigne(
+                        rs.getInt("id"),
+                        rs.getInt("id_utilisateur"), // NULL (invité) lu comme 0
+                        rs.getString("nom_attraction"),
+                        rs.getDate("date_reservation").toLocalDate(),
+                        heure != null ? heure.toLocalTime() : null,
+                        rs.getInt("nombre_billets"),
+                        EnumCodec.STATUT_RESERVATION.lire(rs, "statut")
+                ));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+
+        return list;
+    }
+
+    /**
+     * Retourne les créneaux déjà réservés d'une attraction pour une date donnée,
+     * avec le nombre total de billets vendus sur chaque créneau
+     * L'agrégation est faite par la base (index idx_reservation_creneau)
+     *
+     * @param idAttraction ID de l'attraction
+     * @param date Date du jour consulté
+     * @return Nombre de billets réservés par heure (seules les heures réservées sont présentes), null en cas d'erreur
+     */
+    public Map<LocalTime, Integer> getBookedSlots(int idAttraction, LocalDate date) {
+        Map<LocalTime, Integer> slots = new HashMap<>();
+        String sql = "SELECT heure_reservation, SUM(nombre_billets) AS billets FROM Reservation " +
+                "WHERE id_attraction = ? AND date_reservation = ? AND heure_reservation IS NOT NULL " +
+                "GROUP BY heure_reservation";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, idAttraction);
+            ps.setDate(2, Date.valueOf(date));
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                slots.put(rs.getTime("heure_reservation").toLocalTime(), rs.getInt("billets"));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+            return null; // un jour vide permettrait de revendre les places déjà vendues
+        }
+
+        return slots;
+    }
+
     /**
      * Supprime une réservation ainsi que la facture associée
      * Cette opération est exécutée en transaction
@@ -148,14 +492,41 @@ public class ReservationDAO {
             } catch (SQLException e) {
                 conn.rollback(); // Rollback si problème
                 e.printStackTrace();
+                ErreursDAO.signaler(e);
             }
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return false;
     }
 
+    /**
+     * Renseigne les paramètres de l'INSERT d'une réservation
+     * Si l'utilisateur est un invité (id = 0), NULL est inséré
+     */
+    private void bindReservation(PreparedStatement ps, Reservation r) throws SQLException {
+        //Si idUtilisateur = 0 (invité), on met NULL en base
+        if (r.getIdUtilisateur() == 0) { //Si l’utilisateur est un invité (id = 0), on insère NULL
+            ps.setNull(1, Types.INTEGER);
+        } else {
+            ps.setInt(1, r.getIdUtilisateur());
+        }
+
+        ps.setInt(2, r.getIdAttraction()); //Données obligatoires : attraction et date.
+        ps.setDate(3, Date.valueOf(r.getDateReservation()));
+
+        if (r.getHeureReservation() != null) {
+            ps.setTime(4, Time.valueOf(r.getHeureReservation()));
+        } else {
+            ps.setNull(4, Types.TIME);
+        }
+
+        ps.setInt(5, r.getNombreBillets()); //Nombre de billets et statut (texte ou code compact)
+        EnumCodec.STATUT_RESERVATION.ecrire(ps, 6, r.getStatut());
+    }
+
     /**
      * Transforme un résultat SQL en objet {@link Reservation}
      *
@@ -177,13 +548,7 @@ public class ReservationDAO {
                 rs.getDate("date_reservation").toLocalDate(),
                 heureReservation,
                 rs.getInt("nombre_billets"),
-                StatutReservation.valueOf(
-                        rs.getString("statut")
-                                .toUpperCase()
-                                .replace("É", "E")
-                                .replace("È", "E")
-                                .replace("À", "A")
-                )
+                EnumCodec.STATUT_RESERVATION.lire(rs, "statut")
         );
     }
 }
\ No newline at end of file
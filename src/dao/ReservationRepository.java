@@ -0,0 +1,87 @@
+package dao;
+
+import model.ContexteReservation;
+import model.Facture;
+import model.Reservation;
+import model.ReservationLigne;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accès aux réservations, indépendamment du stockage
+ * Un {@code idUtilisateur} à 0 désigne un invité
+ *
+ * @see ReservationDAO
+ * @see Stockage#reservations()
+ */
+public interface ReservationRepository {
+
+    /**
+     * @return L'identifiant attribué, -1 en cas d'échec
+     */
+    int insertReservation(Reservation r);
+
+    /**
+     * Enregistre une réservation et sa facture ensemble : soit les deux, soit aucune
+     *
+     * @return L'identifiant de la réservation, -1 en cas d'échec
+     */
+    int insertReservationAvecFacture(Reservation r, double montantTotal, LocalDate dateFacture, boolean reductionAppliquee);
+
+    /**
+     * Enregistre un groupe de réservations avec leurs factures ({@code factures.get(i)} est celle de
+     * {@code reservations.get(i)}, son identifiant de réservation est ignoré) : toutes ou aucune
+     *
+     * @return Les identifiants des réservations, dans l'ordre ; une liste vide en cas d'échec
+     */
+    List<Integer> insertReservationsAvecFactures(List<Reservation> reservations, List<Facture> factures);
+
+    /**
+     * @return Prix et capacité de l'attraction, type et âge du client (type null si inconnu),
+     * ou null si l'attraction n'existe pas
+     */
+    ContexteReservation getContexteReservation(int idUtilisateur, int idAttraction);
+
+    /**
+     * @return La réservation, ou null si elle n'existe pas
+     */
+    Reservation getReservationById(int id);
+
+    List<Reservation> getReservationsByUtilisateur(int idUtilisateur);
+
+    List<Reservation> getAllReservations();
+
+    int countReservations();
+
+    /**
+     * @return Les réservations qui n'ont aucune facture, triées par ID (normalement aucune : seul un arrêt
+     * entre l'écriture d'une réservation et la journalisation de sa facture différée en laisse)
+     */
+    List<Reservation> getReservationsSansFacture();
+
+    /**
+     * @return L'ID après lequel commence la page {@code page} (0 pour la première), -1 si elle n'existe pas
+     */
+    int getDebutPage(int page, int taillePage);
+
+    /**
+     * @return Au plus {@code limite} lignes d'ID supérieur à {@code apresId}, triées par ID
+     */
+    List<ReservationLigne> getReservationsPage(int apresId, int limite);
+
+    /**
+     * @return Nombre de billets vendus par heure (seules les heures réservées sont présentes),
+     * null si la lecture a échoué (à ne pas confondre avec un jour sans réservation)
+     */
+    Map<LocalTime, Integer> getBookedSlots(int idAttraction, LocalDate date);
+
+    /**
+     * Supprime la réservation et sa facture
+     *
+     * @return true si la réservation existait
+     */
+    boolean deleteReservation(int id);
+}
@@ -0,0 +1,272 @@
+package dao;
+
+import metriques.EvenementRequeteSql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU de requêtes préparées attaché à une connexion physique du pool
+ *
+ * Les DAO continuent d'appeler {@code conn.prepareStatement(sql)} puis de fermer la requête :
+ * la fermeture est interceptée et la requête préparée reste en cache, prête pour le prochain
+ * appel avec le même texte SQL sur la même connexion
+ *
+ * Une instance n'est utilisée que par le thread qui a emprunté la connexion, elle n'est donc pas synchronisée
+ * Les exécutions en cours sont toutefois recensées par thread, pour pouvoir les annuler ({@link #cancel(Thread)})
+ * Chaque exécution émet un événement Flight Recorder {@link EvenementRequeteSql}
+ */
+class StatementCache {
+
+    /** Requête en cours d'exécution pour chaque thread, pour pouvoir l'annuler depuis un autre thread */
+    private static final ConcurrentHashMap<Thread, Statement> EXECUTIONS = new ConcurrentHashMap<>();
+
+    private final Connection physical;
+    private final int maxSize;
+    private final Stats stats;
+    private final LinkedHashMap<String, Entry> entries;
+
+    StatementCache(Connection physical, int maxSize, Stats stats) {
+        this.physical = physical;
+        this.maxSize = maxSize;
+        this.stats = stats;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                evict(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retourne la requête préparée associée au texte SQL, en la préparant au premier appel
+     *
+     * @param lease Connexion empruntée, rendue par {@code getConnection()} de la requête
+     * @param sql Texte SQL
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} ou {@link Statement#NO_GENERATED_KEYS}
+     */
+    PreparedStatement prepare(Connection lease, String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "K:" + sql : sql;
+        Entry entry = entries.get(key);
+
+        if (entry != null && !entry.inUse) {
+            stats.hits.increment();
+        } else {
+            stats.misses.increment();
+            PreparedStatement ps = physical.prepareStatement(sql, autoGeneratedKeys);
+            if (entry != null) {
+                // même requête déjà ouverte sur cette connexion : exemplaire temporaire hors cache
+                entry = new Entry(key, sql, ps, false);
+            } else {
+                entry = new Entry(key, sql, ps, true);
+                entries.put(key, entry);
+            }
+        }
+
+        entry.inUse = true;
+        return entry.lend(lease);
+    }
+
+    /**
+     * Ferme toutes les requêtes du cache (appelé quand la connexion physique est détruite)
+     */
+    void close() {
+        List<Entry> all = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry entry : all) {
+            closeQuietly(entry.statement);
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Annule la requête que le thread donné est en train d'exécuter, s'il y en a une
+     *
+     * @return true si une requête a été annulée
+     */
+    static boolean cancel(Thread thread) {
+        Statement statement = EXECUTIONS.get(thread);
+        if (statement == null) {
+            return false;
+        }
+        try {
+            statement.cancel();
+            return true;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private void evict(Entry entry) {
+        stats.evictions.increment();
+        entry.cached = false;
+        if (!entry.inUse) {
+            closeQuietly(entry.statement);
+        }
+    }
+
+    /**
+     * Fermeture logique : la requête est remise à zéro et redevient disponible dans le cache
+     */
+    private void release(Entry entry) {
+        entry.inUse = false;
+        if (!entry.cached) {
+            closeQuietly(entry.statement);
+            return;
+        }
+        try {
+            entry.statement.clearParameters();
+            entry.statement.clearBatch();
+        } catch (SQLException e) {
+            entries.remove(entry.key);
+            closeQuietly(entry.statement);
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Compteurs partagés par tous les caches d'un même pool
+     */
+    static final class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        long getHits() {
+            return hits.sum();
+        }
+
+        long getMisses() {
+            return misses.sum();
+        }
+
+        long getEvictions() {
+            return evictions.sum();
+        }
+    }
+
+    /**
+     * Requête préparée physique et son état dans le cache
+     */
+    private final class Entry {
+        private final String key;
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean cached;
+        private boolean inUse;
+
+        private Entry(String key, String sql, PreparedStatement statement, boolean cached) {
+            this.key = key;
+            this.sql = sql;
+            this.statement = statement;
+            this.cached = cached;
+        }
+
+        private PreparedStatement lend(Connection lease) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    new Handle(this, lease)
+            );
+        }
+    }
+
+    /**
+     * Enveloppe remise au DAO pour un usage : la fermer ferme le dernier ResultSet
+     * ouvert et rend la requête au cache
+     */
+    private final class Handle implements InvocationHandler {
+        private final Entry entry;
+        private final Connection lease;
+        private ResultSet lastResult;
+        private boolean closed;
+
+        private Handle(Entry entry, Connection lease) {
+            this.entry = entry;
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        if (lastResult != null) {
+                            lastResult.close();
+                        }
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "getConnection":
+                    return lease;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Requête en cache " + entry.statement;
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Requête préparée déjà fermée.");
+            }
+
+            boolean execution = method.getName().startsWith("execute");
+            Thread thread = Thread.currentThread();
+            EvenementRequeteSql event = null;
+            if (execution) {
+                EXECUTIONS.put(thread, entry.statement);
+                event = new EvenementRequeteSql();
+                event.begin();
+            }
+            Object result = null;
+            try {
+                result = method.invoke(entry.statement, args);
+                if (result instanceof ResultSet && "executeQuery".equals(method.getName())) {
+                    lastResult = (ResultSet) result;
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execution) {
+                    EXECUTIONS.remove(thread);
+                    event.terminer(entry.sql, method.getName(), result);
+                }
+            }
+        }
+    }
+}
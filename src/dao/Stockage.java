@@ -0,0 +1,104 @@
+package dao;
+
+import dao.memoire.AttractionsMemoire;
+import dao.memoire.BaseMemoire;
+import dao.memoire.FacturesMemoire;
+import dao.memoire.ReductionsMemoire;
+import dao.memoire.ReportingMemoire;
+import dao.memoire.ReservationsMemoire;
+import dao.memoire.UtilisateursMemoire;
+import metriques.Metriques;
+
+/**
+ * Choix du stockage des données, fixé au démarrage par la propriété système {@code parc.stockage} :
+ * - {@code jdbc} (par défaut) : les DAO JDBC, sur la base configurée dans {@link DatabaseConnection}
+ * - {@code memoire} : des dépôts en mémoire ({@link dao.memoire}), sans base de données ni persistance,
+ *   pour les bornes, les démonstrations et les benchmarks de la logique métier.
+ *   {@code parc.stockage.demo=true} les remplit de quelques attractions et réductions
+ *
+ * Les contrôleurs et les caches obtiennent leurs dépôts ici : tous partagent les mêmes données.
+ * Chaque dépôt est mesuré par {@link Metriques#instrumenter} (durée, débit et erreurs de chaque méthode)
+ */
+public final class Stockage {
+
+    public enum Mode {
+        JDBC, MEMOIRE
+    }
+
+    private static final Mode MODE =
+            "memoire".equalsIgnoreCase(System.getProperty("parc.stockage", "jdbc")) ? Mode.MEMOIRE : Mode.JDBC;
+
+    private static final AttractionRepository ATTRACTIONS;
+    private static final ReductionRepository REDUCTIONS;
+    private static final ReservationRepository RESERVATIONS;
+    private static final FactureRepository FACTURES;
+    private static final UtilisateurRepository UTILISATEURS;
+    private static final ReportingRepository REPORTING;
+
+    static {
+        AttractionRepository attractions;
+        ReductionRepository reductions;
+        ReservationRepository reservations;
+        FactureRepository factures;
+        UtilisateurRepository utilisateurs;
+        ReportingRepository reporting;
+
+        if (MODE == Mode.MEMOIRE) {
+            BaseMemoire base = new BaseMemoire();
+            if (Boolean.getBoolean("parc.stockage.demo")) {
+                base.remplirDemo();
+            }
+            attractions = new AttractionsMemoire(base);
+            reductions = new ReductionsMemoire(base);
+            reservations = new ReservationsMemoire(base);
+            factures = new FacturesMemoire(base);
+            utilisateurs = new UtilisateursMemoire(base);
+            reporting = new ReportingMemoire(base);
+        } else {
+            attractions = new AttractionDAO();
+            reductions = new ReductionDAO();
+            reservations = new ReservationDAO();
+            factures = new FactureDAO();
+            utilisateurs = new UtilisateurDAO();
+            reporting = new ReportingDAO();
+        }
+
+        ATTRACTIONS = Metriques.instrumenter(AttractionRepository.class, attractions, "dao");
+        REDUCTIONS = Metriques.instrumenter(ReductionRepository.class, reductions, "dao");
+        RESERVATIONS = Metriques.instrumenter(ReservationRepository.class, reservations, "dao");
+        FACTURES = Metriques.instrumenter(FactureRepository.class, factures, "dao");
+        UTILISATEURS = Metriques.instrumenter(UtilisateurRepository.class, utilisateurs, "dao");
+        REPORTING = Metriques.instrumenter(ReportingRepository.class, reporting, "dao");
+    }
+
+    private Stockage() {
+    }
+
+    public static Mode getMode() {
+        return MODE;
+    }
+
+    public static AttractionRepository attractions() {
+        return ATTRACTIONS;
+    }
+
+    public static ReductionRepository reductions() {
+        return REDUCTIONS;
+    }
+
+    public static ReservationRepository reservations() {
+        return RESERVATIONS;
+    }
+
+    public static FactureRepository factures() {
+        return FACTURES;
+    }
+
+    public static UtilisateurRepository utilisateurs() {
+        return UTILISATEURS;
+    }
+
+    public static ReportingRepository reporting() {
+        return REPORTING;
+    }
+}
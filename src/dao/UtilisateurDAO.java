@@ -1,11 +1,11 @@
 package dao;
 
 import model.Utilisateur;
-import model.Utilisateur.TypeUtilisateur;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,7 +15,14 @@ import java.util.List;
  *
  * Elle utilise la classe {@link DatabaseConnection} pour établir les connexions SQL
  */
-public class UtilisateurDAO {
+public class UtilisateurDAO implements UtilisateurRepository {
+
+    static final int TAILLE_LOT_IDS = 32;
+
+    private static final String COLONNES = "id, nom, email, mot_de_passe, " + EnumCodec.selection("type") + ", age, date_inscription";
+
+    private static final String SQL_NOMS_PAR_IDS = "SELECT id, nom FROM Utilisateur WHERE id IN ("
+            + String.join(", ", Collections.nCopies(TAILLE_LOT_IDS, "?")) + ")";
 
     /**
      * Insère un nouvel utilisateur dans la base de données
@@ -24,7 +31,8 @@ public class UtilisateurDAO {
      * @return true si l'insertion a réussi, false sinon
      */
     public boolean insertUtilisateur(Utilisateur u) {
-        String sql = "INSERT INTO Utilisateur (nom, email, mot_de_passe, type, age, date_inscription) VALUES (?, ?, ?, ?, ?, ?)"; // ? pour proteger contre les injections sql
+        String sql = "INSERT INTO Utilisateur (nom, email, mot_de_passe, " + EnumCodec.ecriture("type") + ", age, date_inscription) "
+                + "VALUES (?, ?, ?, " + EnumCodec.parametres() + ", ?, ?)"; // ? pour proteger contre les injections sql
 
         try (Connection conn = DatabaseConnection.getConnection(); //On récupère la connection
              PreparedStatement ps = conn.prepareStatement(sql)) { //préparation requête SQL à exécuter
@@ -32,14 +40,15 @@ public class UtilisateurDAO {
             ps.setString(1, u.getNom()); //on remplace les ?
             ps.setString(2, u.getEmail());
             ps.setString(3, u.getMotDePasse());
-            ps.setString(4, u.getType().name());
-            ps.setInt(5, u.getAge());
-            ps.setDate(6, Date.valueOf(u.getDateInscription())); //Date.valueOf(LocalDate) convertit une date Java (LocalDate) en java.sql.Date
+            int suivant = EnumCodec.TYPE_UTILISATEUR.ecrire(ps, 4, u.getType()); // texte, et code en mode compact
+            ps.setInt(suivant, u.getAge());
+            ps.setDate(suivant + 1, Date.valueOf(u.getDateInscription())); //Date.valueOf(LocalDate) convertit une date Java (LocalDate) en java.sql.Date
 
             return ps.executeUpdate() > 0; //execute la requete
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
         return false;
     }
@@ -51,7 +60,7 @@ public class UtilisateurDAO {
      * @return L'utilisateur correspondant, ou null s'il n'existe pas
      */
     public Utilisateur getUtilisateurById(int id) { //recherche utilisateur
-        String sql = "SELECT * FROM Utilisateur WHERE id = ?";
+        String sql = "SELECT " + COLONNES + " FROM Utilisateur WHERE id = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -64,6 +73,7 @@ public class UtilisateurDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
         return null;
     }
@@ -75,7 +85,7 @@ public class UtilisateurDAO {
      * @return L'utilisateur correspondant, ou null s'il n'existe pas
      */
     public Utilisateur getUtilisateurByEmail(String email) { //authentification d'un utilisateur
-        String sql = "SELECT * FROM Utilisateur WHERE email = ?";
+        String sql = "SELECT " + COLONNES + " FROM Utilisateur WHERE email = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
@@ -88,6 +98,7 @@ public class UtilisateurDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
         return null;
     }
@@ -99,11 +110,11 @@ public class UtilisateurDAO {
      */
     public List<Utilisateur> getAllUtilisateurs() {
         List<Utilisateur> liste = new ArrayList<>(); //liste vide pour stocker les utilisateurs
-        String sql = "SELECT * FROM Utilisateur"; //requete pour récupérer tous les utilisateurs
+        String sql = "SELECT " + COLONNES + " FROM Utilisateur"; //requete pour récupérer tous les utilisateurs
 
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) { //On parcourt les résultats et on remplit la liste avec les utilisateurs
                 liste.add(mapUtilisateur(rs));
@@ -111,11 +122,78 @@ public class UtilisateurDAO {
 
         } catch (SQLException e) {
             e.printStackTrace();
+            ErreursDAO.signaler(e);
         }
 
         return liste;
     }
 
+    /**
+     * Lit les noms des utilisateurs d'identifiant supérieur à {@code apresId}, par ordre d'identifiant
+     * Projection (id, nom) : ni mot de passe ni email ne transitent, et aucun objet Utilisateur n'est créé
+     *
+     * @param apresId Identifiant après lequel commencer (0 pour tout lire)
+     * @param limite Nombre maximal de lignes
+     * @param lecteur Reçoit chaque couple (id, nom)
+     * @return Le dernier identifiant lu, ou {@code apresId} si aucune ligne
+     */
+    public int getNomsApres(int apresId, int limite, LecteurNom lecteur) {
+        String sql = "SELECT id, nom FROM Utilisateur WHERE id > ? ORDER BY id LIMIT ?";
+        int dernierId = apresId;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setInt(1, apresId);
+            ps.setInt(2, limite);
+            ResultSet rs = ps.executeQuery();
+
+            while (rs.next()) {
+                dernierId = rs.getInt(1);
+                lecteur.lire(dernierId, rs.getString(2));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+        return dernierId;
+    }
+
+    /**
+     * Lit les noms d'une liste d'utilisateurs, par lots de {@link #TAILLE_LOT_IDS} identifiants
+     * Le dernier lot est complété en répétant son dernier identifiant : le texte SQL reste
+     * le même d'un appel à l'autre et la requête préparée est réutilisée
+     *
+     * @param ids Identifiants recherchés (les inconnus sont ignorés)
+     * @param lecteur Reçoit chaque couple (id, nom) trouvé
+     */
+    public void getNoms(int[] ids, LecteurNom lecteur) {
+        if (ids.length == 0) {
+            return;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(SQL_NOMS_PAR_IDS)) {
+
+            for (int debut = 0; debut < ids.length; debut += TAILLE_LOT_IDS) {
+                int fin = Math.min(ids.length, debut + TAILLE_LOT_IDS);
+                for (int i = 0; i < TAILLE_LOT_IDS; i++) {
+                    ps.setInt(i + 1, ids[Math.min(debut + i, fin - 1)]);
+                }
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        lecteur.lire(rs.getInt(1), rs.getString(2));
+                    }
+                }
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            ErreursDAO.signaler(e);
+        }
+    }
+
     /**
      * Convertit une ligne de résultat SQL en un objet {@link Utilisateur}
      *
@@ -129,7 +207,7 @@ public class UtilisateurDAO {
                 rs.getString("nom"),
                 rs.getString("email"),
                 rs.getString("mot_de_passe"),
-                TypeUtilisateur.valueOf(rs.getString("type").toUpperCase()),
+                EnumCodec.TYPE_UTILISATEUR.lire(rs, "type"),
                 rs.getInt("age"),
                 rs.getDate("date_inscription") != null ? rs.getDate("date_inscription").toLocalDate() : null
         );
@@ -0,0 +1,49 @@
+package dao;
+
+import model.Utilisateur;
+
+import java.util.List;
+
+/**
+ * Accès aux utilisateurs, indépendamment du stockage
+ * L'email est unique : un second utilisateur avec le même email est refusé
+ *
+ * @see UtilisateurDAO
+ * @see Stockage#utilisateurs()
+ */
+public interface UtilisateurRepository {
+
+    boolean insertUtilisateur(Utilisateur u);
+
+    /**
+     * @return L'utilisateur, ou null s'il n'existe pas
+     */
+    Utilisateur getUtilisateurById(int id);
+
+    /**
+     * @return L'utilisateur, ou null s'il n'existe pas
+     */
+    Utilisateur getUtilisateurByEmail(String email);
+
+    List<Utilisateur> getAllUtilisateurs();
+
+    /**
+     * Lit les noms des utilisateurs d'identifiant supérieur à {@code apresId}, par ordre d'identifiant
+     *
+     * @return Le dernier identifiant lu, ou {@code apresId} si aucun
+     */
+    int getNomsApres(int apresId, int limite, LecteurNom lecteur);
+
+    /**
+     * Lit les noms d'une liste d'utilisateurs (les identifiants inconnus sont ignorés)
+     */
+    void getNoms(int[] ids, LecteurNom lecteur);
+
+    /**
+     * Reçoit une ligne (id, nom) d'une lecture par projection
+     */
+    @FunctionalInterface
+    interface LecteurNom {
+        void lire(int id, String nom);
+    }
+}
@@ -0,0 +1,62 @@
+package dao.memoire;
+
+import dao.AttractionRepository;
+import model.Attraction;
+import model.AttractionResume;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Attractions rangées en mémoire, triées par ID
+ */
+public class AttractionsMemoire implements AttractionRepository {
+
+    private final BaseMemoire base;
+
+    public AttractionsMemoire(BaseMemoire base) {
+        this.base = base;
+    }
+
+    @Override
+    public List<Attraction> getAllAttractions() {
+        return new ArrayList<>(base.attractions.values());
+    }
+
+    @Override
+    public List<AttractionResume> getAttractionsResumees() {
+        List<AttractionResume> attractions = new ArrayList<>(base.attractions.size());
+        for (Attraction a : base.attractions.values()) {
+            attractions.add(new AttractionResume(a.getId(), a.getNom(), a.getPrix(), a.getCapacite(), a.isDisponible()));
+        }
+        return attractions;
+    }
+
+    @Override
+    public Attraction getAttractionById(int id) {
+        return base.attractions.get(id);
+    }
+
+    @Override
+    public boolean insertAttraction(Attraction a) {
+        return base.ecrire(() -> {
+            int id = base.nouvelIdAttraction();
+            base.attractions.put(id, copie(id, a));
+            return true;
+        });
+    }
+
+    @Override
+    public boolean updateAttraction(Attraction a) {
+        return base.ecrire(() -> base.attractions.replace(a.getId(), copie(a.getId(), a)) != null);
+    }
+
+    @Override
+    public boolean deleteAttraction(int id) {
+        return base.ecrire(() -> base.attractions.remove(id) != null);
+    }
+
+    private static Attraction copie(int id, Attraction a) {
+        return new Attraction(id, a.getNom(), a.getDescription(), a.getPrix(), a.getCapacite(), a.isDisponible());
+    }
+}
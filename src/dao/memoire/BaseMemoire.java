@@ -0,0 +1,254 @@
+package dao.memoire;
+
+import model.Attraction;
+import model.Facture;
+import model.Reduction;
+import model.Reduction.CritereReduction;
+import model.Reservation;
+import model.Utilisateur;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Tables et index partagés par les dépôts en mémoire
+ *
+ * - Les lectures ne prennent aucun verrou : tables et index sont des maps concurrentes, et les lignes
+ *   rangées sont des objets créés par le dépôt, jamais ceux des appelants
+ * - Les écritures passent par {@link #ecrire(Supplier)}, un seul verrou : identifiants, contrôles
+ *   d'unicité et mises à jour touchant plusieurs tables restent cohérents entre eux
+ * - Une ligne est rangée avant d'être indexée, et désindexée avant d'être retirée : une lecture
+ *   par index ne trouve jamais d'identifiant sans ligne. Une facture est publiée avant sa réservation
+ *   et retirée après elle : une réservation visible a toujours sa facture
+ *
+ * Les statistiques (équivalent des tables Stat_Attraction et Stat_Attraction_Jour et de leurs triggers)
+ * sont tenues à jour à chaque écriture
+ */
+public final class BaseMemoire {
+
+    final ConcurrentSkipListMap<Integer, Attraction> attractions = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListMap<Integer, Reduction> reductions = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListMap<Integer, Utilisateur> utilisateurs = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListMap<Integer, Reservation> reservations = new ConcurrentSkipListMap<>();
+    final ConcurrentSkipListMap<Integer, Facture> factures = new ConcurrentSkipListMap<>();
+
+    // Index secondaires
+    final ConcurrentMap<String, Integer> utilisateurParEmail = new ConcurrentHashMap<>();
+    final ConcurrentMap<Integer, Set<Integer>> reservationsParUtilisateur = new ConcurrentHashMap<>();
+    final ConcurrentMap<Long, Set<Integer>> reservationsParCreneau = new ConcurrentHashMap<>(); // (attraction, jour)
+    final ConcurrentMap<Integer, Set<Integer>> facturesParReservation = new ConcurrentHashMap<>();
+
+    // Statistiques : par attraction, et par (jour, attraction) triées par jour puis attraction
+    final ConcurrentMap<Integer, Cumul> statsParAttraction = new ConcurrentHashMap<>();
+    final ConcurrentSkipListMap<Long, Cumul> statsParJour = new ConcurrentSkipListMap<>();
+
+    private final ReentrantLock verrou = new ReentrantLock();
+
+    // Derniers identifiants attribués (AUTO_INCREMENT), modifiés sous verrou
+    private int idAttraction;
+    private int idReduction;
+    private int idUtilisateur;
+    private int idReservation;
+    private int idFacture;
+
+    /**
+     * Totaux d'une attraction (ou d'une attraction un jour donné), remplacés à chaque écriture
+     * pour que les lectures voient toujours trois valeurs cohérentes
+     */
+    record Cumul(int nbReservations, int billets, double chiffreAffaires) {
+        static final Cumul ZERO = new Cumul(0, 0, 0);
+
+        Cumul plus(int reservations, int billets, double montant) {
+            return new Cumul(nbReservations + reservations, this.billets + billets, chiffreAffaires + montant);
+        }
+    }
+
+    /**
+     * Exécute une écriture en exclusion mutuelle avec les autres écritures
+     */
+    <T> T ecrire(Supplier<T> ecriture) {
+        verrou.lock();
+        try {
+            return ecriture.get();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // ------------------ Attractions, réductions, utilisateurs ------------------ //
+
+    int nouvelIdAttraction() {
+        return ++idAttraction;
+    }
+
+    int nouvelIdReduction() {
+        return ++idReduction;
+    }
+
+    int nouvelIdUtilisateur() {
+        return ++idUtilisateur;
+    }
+
+    // ------------------ Réservations et factures (sous verrou) ------------------ //
+
+    int nouvelIdReservation() {
+        return ++idReservation;
+    }
+
+    /**
+     * Range, indexe et comptabilise une réservation sous l'identifiant déjà attribué
+     */
+    void publierReservation(int id, Reservation r) {
+        Reservation ligne = new Reservation(id, r.getIdUtilisateur(), r.getIdAttraction(),
+                r.getDateReservation(), r.getHeureReservation(), r.getNombreBillets(), r.getStatut());
+
+        reservations.put(id, ligne);
+        if (ligne.getIdUtilisateur() != 0) {
+            reservationsParUtilisateur.computeIfAbsent(ligne.getIdUtilisateur(), k -> new ConcurrentSkipListSet<>()).add(id);
+        }
+        reservationsParCreneau.computeIfAbsent(cleCreneau(ligne.getIdAttraction(), ligne.getDateReservation()),
+                k -> new ConcurrentSkipListSet<>()).add(id);
+        cumuler(ligne, 1, ligne.getNombreBillets(), 0);
+    }
+
+    /**
+     * Prépare la facture d'une réservation sans la publier (identifiant attribué)
+     */
+    Facture nouvelleFacture(int idReservation, double montantTotal, LocalDate dateFacture, boolean reductionAppliquee) {
+        return new Facture(++idFacture, idReservation, montantTotal, dateFacture, reductionAppliquee);
+    }
+
+    void publierFacture(Facture f) {
+        factures.put(f.getId(), f);
+        facturesParReservation.computeIfAbsent(f.getIdReservation(), k -> new ConcurrentSkipListSet<>()).add(f.getId());
+    }
+
+    /**
+     * Ajoute le montant d'une facture publiée aux statistiques de sa réservation
+     */
+    void cumulerFacture(Facture f) {
+        Reservation r = reservations.get(f.getIdReservation());
+        if (r != null) {
+            cumuler(r, 0, 0, f.getMontantTotal());
+        }
+    }
+
+    /**
+     * Retire une réservation et ses factures
+     *
+     * @return false si la réservation n'existait pas
+     */
+    boolean retirerReservation(int id) {
+        Reservation r = reservations.get(id);
+        if (r == null) {
+            return false;
+        }
+
+        if (r.getIdUtilisateur() != 0) {
+            retirerDeIndex(reservationsParUtilisateur, r.getIdUtilisateur(), id);
+        }
+        retirerDeIndex(reservationsParCreneau, cleCreneau(r.getIdAttraction(), r.getDateReservation()), id);
+
+        double montant = 0;
+        Set<Integer> idsFactures = facturesParReservation.getOrDefault(id, Collections.emptySet());
+        for (Integer idFacture : idsFactures) {
+            Facture f = factures.get(idFacture);
+            if (f != null) {
+                montant += f.getMontantTotal();
+            }
+        }
+        cumuler(r, -1, -r.getNombreBillets(), -montant);
+
+        reservations.remove(id);
+        Set<Integer> retirees = facturesParReservation.remove(id);
+        if (retirees != null) {
+            for (Integer idFacture : retirees) {
+                factures.remove(idFacture);
+            }
+        }
+        return true;
+    }
+
+    private void cumuler(Reservation r, int nbReservations, int billets, double montant) {
+        statsParAttraction.merge(r.getIdAttraction(), Cumul.ZERO.plus(nbReservations, billets, montant),
+                (ancien, delta) -> ancien.plus(delta.nbReservations(), delta.billets(), delta.chiffreAffaires()));
+        statsParJour.merge(cleJour(r.getDateReservation(), r.getIdAttraction()), Cumul.ZERO.plus(nbReservations, billets, montant),
+                (ancien, delta) -> ancien.plus(delta.nbReservations(), delta.billets(), delta.chiffreAffaires()));
+    }
+
+    private static <K> void retirerDeIndex(ConcurrentMap<K, Set<Integer>> index, K cle, int id) {
+        Set<Integer> ids = index.get(cle);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    // ------------------ Clés ------------------ //
+
+    static long cleCreneau(int idAttraction, LocalDate date) {
+        return ((long) idAttraction << 32) | (date.toEpochDay() & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * Clé triée par jour puis par attraction, comme {@code ORDER BY s.jour, a.id}
+     */
+    static long cleJour(LocalDate jour, int idAttraction) {
+        return (jour.toEpochDay() << 32) | (idAttraction & 0xFFFF_FFFFL);
+    }
+
+    static LocalDate jourDeCle(long cle) {
+        return LocalDate.ofEpochDay(cle >> 32);
+    }
+
+    static int attractionDeCle(long cle) {
+        return (int) cle;
+    }
+
+    /**
+     * Sous-map des statistiques journalières entre deux jours inclus
+     */
+    NavigableMap<Long, Cumul> statsEntre(LocalDate debut, LocalDate fin) {
+        return statsParJour.subMap(debut.toEpochDay() << 32, true, (fin.toEpochDay() + 1) << 32, false);
+    }
+
+    // ------------------ Jeu de démonstration ------------------ //
+
+    /**
+     * Remplit une base vide avec quelques attractions et les réductions habituelles
+     * (bornes et démonstrations sans base de données)
+     */
+    public void remplirDemo() {
+        ecrire(() -> {
+            String[][] demo = {
+                    {"Grand Huit", "Montagnes russes à grande vitesse", "12", "24"},
+                    {"Grande Roue", "Vue panoramique sur le parc", "8", "40"},
+                    {"Train Fantôme", "Parcours dans le manoir hanté", "9", "16"},
+                    {"Chaises Volantes", "Manège familial", "6", "32"},
+                    {"Rivière Sauvage", "Descente en bouée", "10", "20"}
+            };
+            for (String[] a : demo) {
+                int id = nouvelIdAttraction();
+                attractions.put(id, new Attraction(id, a[0], a[1], Double.parseDouble(a[2]), Integer.parseInt(a[3]), true));
+            }
+
+            Object[][] remises = {
+                    {"Tarif enfant", 30, CritereReduction.ENFANT},
+                    {"Tarif senior", 20, CritereReduction.SENIOR},
+                    {"Carte fidélité", 10, CritereReduction.FIDELITE}
+            };
+            for (Object[] r : remises) {
+                int id = nouvelIdReduction();
+                reductions.put(id, new Reduction(id, (String) r[0], (Integer) r[1], (CritereReduction) r[2]));
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package dao.memoire;
+
+import dao.FactureRepository;
+import model.Attraction;
+import model.Facture;
+import model.FactureDetail;
+import model.Reservation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Factures rangées en mémoire, indexées par réservation
+ */
+public class FacturesMemoire implements FactureRepository {
+
+    private final BaseMemoire base;
+
+    public FacturesMemoire(BaseMemoire base) {
+        this.base = base;
+    }
+
+    @Override
+    public boolean insertFacture(Facture f) {
+        return base.ecrire(() -> {
+            if (!base.reservations.containsKey(f.getIdReservation())) {
+                return false; // comme la clé étrangère vers Reservation
+            }
+            Facture facture = base.nouvelleFacture(f.getIdReservation(), f.getMontantTotal(), f.getDateFacture(), f.isReductionAppliquee());
+            base.publierFacture(facture);
+            base.cumulerFacture(facture);
+            return true;
+        });
+    }
+
+    @Override
+    public boolean insertFactures(List<Facture> factures) {
+        return base.ecrire(() -> {
+            for (Facture f : factures) {
+                if (!base.reservations.containsKey(f.getIdReservation())
+                        || base.facturesParReservation.containsKey(f.getIdReservation())) {
+                    continue; // réservation supprimée, ou facture déjà enregistrée
+                }
+                Facture facture = base.nouvelleFacture(f.getIdReservation(), f.getMontantTotal(), f.getDateFacture(), f.isReductionAppliquee());
+                base.publierFacture(facture);
+                base.cumulerFacture(facture);
+            }
+            return true;
+        });
+    }
+
+    @Override
+    public List<Facture> getFacturesByReservation(int reservationId) {
+        List<Facture> list = new ArrayList<>(1);
+        for (Integer id : base.facturesParReservation.getOrDefault(reservationId, Collections.emptySet())) {
+            Facture f = base.factures.get(id);
+            if (f != null) {
+                list.add(f);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public List<Facture> getFacturesByUtilisateur(int idUtilisateur) {
+        List<Facture> list = new ArrayList<>();
+        for (Integer idReservation : reservationsDe(idUtilisateur)) {
+            list.addAll(getFacturesByReservation(idReservation));
+        }
+        list.sort(Comparator.comparingInt(Facture::getId));
+        return list;
+    }
+
+    @Override
+    public List<FactureDetail> getFacturesDetailleesByUtilisateur(int idUtilisateur) {
+        List<FactureDetail> list = new ArrayList<>();
+        for (Integer idReservation : reservationsDe(idUtilisateur)) {
+            Reservation r = base.reservations.get(idReservation);
+            if (r == null) {
+                continue;
+            }
+            Attraction a = base.attractions.get(r.getIdAttraction());
+            for (Facture f : getFacturesByReservation(idReservation)) {
+                list.add(new FactureDetail(
+                        f.getId(),
+                        f.getIdReservation(),
+                        a != null ? a.getNom() : null,
+                        r.getDateReservation(),
+                        r.getHeureReservation(),
+                        f.getMontantTotal(),
+                        f.isReductionAppliquee()
+                ));
+            }
+        }
+        list.sort(Comparator.comparingInt(FactureDetail::getIdFacture));
+        return list;
+    }
+
+    private Set<Integer> reservationsDe(int idUtilisateur) {
+        return base.reservationsParUtilisateur.getOrDefault(idUtilisateur, Collections.emptySet());
+    }
+}
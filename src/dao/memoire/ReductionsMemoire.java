@@ -0,0 +1,38 @@
+package dao.memoire;
+
+import dao.ReductionRepository;
+import model.Reduction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réductions rangées en mémoire, triées par ID
+ */
+public class ReductionsMemoire implements ReductionRepository {
+
+    private final BaseMemoire base;
+
+    public ReductionsMemoire(BaseMemoire base) {
+        this.base = base;
+    }
+
+    @Override
+    public boolean insertReduction(Reduction r) {
+        return base.ecrire(() -> {
+            int id = base.nouvelIdReduction();
+            base.reductions.put(id, new Reduction(id, r.getNom(), r.getPourcentage(), r.getCritere()));
+            return true;
+        });
+    }
+
+    @Override
+    public List<Reduction> getAllReductions() {
+        return new ArrayList<>(base.reductions.values());
+    }
+
+    @Override
+    public boolean deleteReduction(int id) {
+        return base.ecrire(() -> base.reductions.remove(id) != null);
+    }
+}
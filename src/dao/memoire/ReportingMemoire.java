@@ -0,0 +1,49 @@
+package dao.memoire;
+
+import dao.ReportingRepository;
+import model.Attraction;
+import model.StatistiqueReservations;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistiques lues dans les cumuls tenus à jour par {@link BaseMemoire} à chaque écriture
+ */
+public class ReportingMemoire implements ReportingRepository {
+
+    private final BaseMemoire base;
+
+    public ReportingMemoire(BaseMemoire base) {
+        this.base = base;
+    }
+
+    @Override
+    public List<StatistiqueReservations> getStatistiquesParAttraction() {
+        List<StatistiqueReservations> list = new ArrayList<>(base.attractions.size());
+        for (Attraction a : base.attractions.values()) {
+            BaseMemoire.Cumul c = base.statsParAttraction.getOrDefault(a.getId(), BaseMemoire.Cumul.ZERO);
+            list.add(new StatistiqueReservations(a.getId(), a.getNom(), null,
+                    c.nbReservations(), c.billets(), c.chiffreAffaires()));
+        }
+        return list;
+    }
+
+    @Override
+    public List<StatistiqueReservations> getStatistiquesParJour(LocalDate debut, LocalDate fin) {
+        List<StatistiqueReservations> list = new ArrayList<>();
+        for (Map.Entry<Long, BaseMemoire.Cumul> e : base.statsEntre(debut, fin).entrySet()) {
+            int idAttraction = BaseMemoire.attractionDeCle(e.getKey());
+            Attraction a = base.attractions.get(idAttraction);
+            if (a == null) {
+                continue; // comme la jointure sur Attraction
+            }
+            BaseMemoire.Cumul c = e.getValue();
+            list.add(new StatistiqueReservations(idAttraction, a.getNom(), BaseMemoire.jourDeCle(e.getKey()),
+                    c.nbReservations(), c.billets(), c.chiffreAffaires()));
+        }
+        return list;
+    }
+}
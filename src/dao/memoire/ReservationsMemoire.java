@@ -0,0 +1,180 @@
+package dao.memoire;
+
+import dao.ReservationRepository;
+import model.Attraction;
+import model.ContexteReservation;
+import model.Facture;
+import model.Reservation;
+import model.ReservationLigne;
+import model.Utilisateur;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Réservations rangées en mémoire, indexées par client et par créneau (attraction, jour)
+ */
+public class ReservationsMemoire implements ReservationRepository {
+
+    private final BaseMemoire base;
+
+    public ReservationsMemoire(BaseMemoire base) {
+        this.base = base;
+    }
+
+    @Override
+    public int insertReservation(Reservation r) {
+        return base.ecrire(() -> {
+            int id = base.nouvelIdReservation();
+            base.publierReservation(id, r);
+            return id;
+        });
+    }
+
+    @Override
+    public int insertReservationAvecFacture(Reservation r, double montantTotal, LocalDate dateFacture, boolean reductionAppliquee) {
+        return base.ecrire(() -> {
+            int id = base.nouvelIdReservation();
+            Facture facture = base.nouvelleFacture(id, montantTotal, dateFacture, reductionAppliquee);
+            base.publierFacture(facture); // la facture d'abord : une réservation visible a sa facture
+            base.publierReservation(id, r);
+            base.cumulerFacture(facture);
+            return id;
+        });
+    }
+
+    @Override
+    public List<Integer> insertReservationsAvecFactures(List<Reservation> reservations, List<Facture> factures) {
+        if (reservations.isEmpty() || reservations.size() != factures.size()) {
+            return new ArrayList<>();
+        }
+        return base.ecrire(() -> { // un seul passage sous verrou : le groupe apparaît d'un bloc
+            List<Integer> ids = new ArrayList<>(reservations.size());
+            for (int i = 0; i < reservations.size(); i++) {
+                int id = base.nouvelIdReservation();
+                Facture f = factures.get(i);
+                Facture facture = base.nouvelleFacture(id, f.getMontantTotal(), f.getDateFacture(), f.isReductionAppliquee());
+                base.publierFacture(facture);
+                base.publierReservation(id, reservations.get(i));
+                base.cumulerFacture(facture);
+                ids.add(id);
+            }
+            return ids;
+        });
+    }
+
+    @Override
+    public ContexteReservation getContexteReservation(int idUtilisateur, int idAttraction) {
+        Attraction a = base.attractions.get(idAttraction);
+        if (a == null) {
+            return null;
+        }
+        Utilisateur u = base.utilisateurs.get(idUtilisateur);
+        return new ContexteReservation(a.getPrix(), a.getCapacite(),
+                u != null ? u.getType() : null,
+                u != null ? u.getAge() : 0);
+    }
+
+    @Override
+    public Reservation getReservationById(int id) {
+        return base.reservations.get(id);
+    }
+
+    @Override
+    public List<Reservation> getReservationsByUtilisateur(int idUtilisateur) {
+        return lire(base.reservationsParUtilisateur.getOrDefault(idUtilisateur, Collections.emptySet()));
+    }
+
+    @Override
+    public List<Reservation> getAllReservations() {
+        return new ArrayList<>(base.reservations.values());
+    }
+
+    @Override
+    public List<Reservation> getReservationsSansFacture() {
+        List<Reservation> list = new ArrayList<>();
+        for (Reservation r : base.reservations.values()) {
+            if (base.facturesParReservation.getOrDefault(r.getId(), Collections.emptySet()).isEmpty()) {
+                list.add(r);
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public int countReservations() {
+        return base.reservations.size();
+    }
+
+    @Override
+    public int getDebutPage(int page, int taillePage) {
+        if (page <= 0) {
+            return 0;
+        }
+        long rang = (long) page * taillePage;
+        for (Integer id : base.reservations.keySet()) {
+            if (--rang == 0) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public List<ReservationLigne> getReservationsPage(int apresId, int limite) {
+        List<ReservationLigne> list = new ArrayList<>(Math.min(limite, 1_024));
+        for (Reservation r : base.reservations.tailMap(apresId, false).values()) {
+            if (list.size() == limite) {
+                break;
+            }
+            Attraction a = base.attractions.get(r.getIdAttraction());
+            list.add(new ReservationLigne(
+                    r.getId(),
+                    r.getIdUtilisateur(),
+                    a != null ? a.getNom() : null,
+                    r.getDateReservation(),
+                    r.getHeureReservation(),
+                    r.getNombreBillets(),
+                    r.getStatut()
+            ));
+        }
+        return list;
+    }
+
+    @Override
+    public Map<LocalTime, Integer> getBookedSlots(int idAttraction, LocalDate date) {
+        Map<LocalTime, Integer> slots = new HashMap<>();
+        Set<Integer> ids = base.reservationsParCreneau.getOrDefault(BaseMemoire.cleCreneau(idAttraction, date), Collections.emptySet());
+        for (Reservation r : lire(ids)) {
+            if (r.getHeureReservation() != null) {
+                slots.merge(r.getHeureReservation(), r.getNombreBillets(), Integer::sum);
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public boolean deleteReservation(int id) {
+        return base.ecrire(() -> base.retirerReservation(id));
+    }
+
+    /**
+     * Lit les réservations d'un index (une réservation retirée entre-temps est ignorée)
+     */
+    private List<Reservation> lire(Set<Integer> ids) {
+        List<Reservation> list = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Reservation r = base.reservations.get(id);
+            if (r != null) {
+                list.add(r);
+            }
+        }
+        return list;
+    }
+}
@@ -0,0 +1,74 @@
+package dao.memoire;
+
+import dao.UtilisateurRepository;
+import model.Utilisateur;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Utilisateurs rangés en mémoire, avec un index unique sur l'email
+ */
+public class UtilisateursMemoire implements UtilisateurRepository {
+
+    private final BaseMemoire base;
+
+    public UtilisateursMemoire(BaseMemoire base) {
+        this.base = base;
+    }
+
+    @Override
+    public boolean insertUtilisateur(Utilisateur u) {
+        return base.ecrire(() -> {
+            if (base.utilisateurParEmail.containsKey(u.getEmail())) {
+                return false; // email déjà pris
+            }
+            int id = base.nouvelIdUtilisateur();
+            base.utilisateurs.put(id, new Utilisateur(id, u.getNom(), u.getEmail(), u.getMotDePasse(),
+                    u.getType(), u.getAge(), u.getDateInscription()));
+            base.utilisateurParEmail.put(u.getEmail(), id);
+            return true;
+        });
+    }
+
+    @Override
+    public Utilisateur getUtilisateurById(int id) {
+        return base.utilisateurs.get(id);
+    }
+
+    @Override
+    public Utilisateur getUtilisateurByEmail(String email) {
+        Integer id = base.utilisateurParEmail.get(email);
+        return id != null ? base.utilisateurs.get(id) : null;
+    }
+
+    @Override
+    public List<Utilisateur> getAllUtilisateurs() {
+        return new ArrayList<>(base.utilisateurs.values());
+    }
+
+    @Override
+    public int getNomsApres(int apresId, int limite, LecteurNom lecteur) {
+        int dernierId = apresId;
+        int lus = 0;
+        for (Map.Entry<Integer, Utilisateur> e : base.utilisateurs.tailMap(apresId, false).entrySet()) {
+            if (lus++ == limite) {
+                break;
+            }
+            dernierId = e.getKey();
+            lecteur.lire(dernierId, e.getValue().getNom());
+        }
+        return dernierId;
+    }
+
+    @Override
+    public void getNoms(int[] ids, LecteurNom lecteur) {
+        for (int id : ids) {
+            Utilisateur u = base.utilisateurs.get(id);
+            if (u != null) {
+                lecteur.lire(id, u.getNom());
+            }
+        }
+    }
+}
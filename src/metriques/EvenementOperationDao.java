@@ -0,0 +1,58 @@
+package metriques;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Événement Flight Recorder émis pour chaque appel d'une méthode de dépôt (DAO JDBC ou en mémoire),
+ * par l'enveloppe de {@link Metriques#instrumenter}. Les requêtes SQL exécutées pendant l'appel
+ * sont des {@link EvenementRequeteSql} du même thread
+ */
+@Name("parc.OperationDao")
+@Label("Opération DAO")
+@Category({"Parc", "Base de données"})
+@Description("Appel d'une méthode de DAO, avec le nombre de lignes retournées")
+public final class EvenementOperationDao extends jdk.jfr.Event {
+
+    @Label("Opération")
+    String operation;
+
+    @Label("Lignes")
+    @Description("Taille de la liste ou de la map retournée, 1 pour un objet trouvé ou une écriture réussie")
+    int lignes;
+
+    @Label("Erreur")
+    boolean erreur;
+
+    void terminer(String operation, Object resultat, boolean ecriture, boolean erreur) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.operation = operation;
+        this.lignes = lignes(resultat, ecriture);
+        this.erreur = erreur;
+        commit();
+    }
+
+    private static int lignes(Object resultat, boolean ecriture) {
+        if (resultat instanceof Collection<?> c) {
+            return c.size();
+        }
+        if (resultat instanceof Map<?, ?> m) {
+            return m.size();
+        }
+        if (resultat instanceof Boolean b) {
+            return b ? 1 : 0;
+        }
+        if (resultat instanceof Integer i && ecriture) {
+            return i > 0 ? 1 : 0; // identifiant créé
+        }
+        return resultat == null ? 0 : 1;
+    }
+}
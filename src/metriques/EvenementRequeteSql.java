@@ -0,0 +1,71 @@
+package metriques;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement Flight Recorder émis pour chaque exécution d'une requête préparée du pool
+ * ({@code executeQuery}, {@code executeUpdate}, {@code executeBatch}...)
+ *
+ * La durée est celle de l'exécution par le pilote ; la lecture des lignes qui suit est comptée
+ * dans l'{@link EvenementOperationDao} englobant
+ */
+@Name("parc.RequeteSql")
+@Label("Requête SQL")
+@Category({"Parc", "Base de données"})
+@Description("Exécution d'une requête préparée")
+public final class EvenementRequeteSql extends jdk.jfr.Event {
+
+    private static final int LONGUEUR_MAX = 500;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Méthode")
+    String methode;
+
+    @Label("Lignes modifiées")
+    @Description("Lignes écrites par une mise à jour ou un lot, -1 pour une lecture")
+    int lignesModifiees;
+
+    @Label("Erreur")
+    boolean erreur;
+
+    /**
+     * Termine l'événement commencé par {@link #begin()} et l'enregistre s'il dépasse le seuil configuré
+     *
+     * @param sql Texte de la requête (tronqué à {@value #LONGUEUR_MAX} caractères)
+     * @param methode Méthode JDBC appelée
+     * @param resultat Valeur retournée par le pilote, null en cas d'erreur
+     */
+    public void terminer(String sql, String methode, Object resultat) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.sql = sql.length() > LONGUEUR_MAX ? sql.substring(0, LONGUEUR_MAX) + "…" : sql;
+        this.methode = methode;
+        this.lignesModifiees = lignesModifiees(resultat);
+        this.erreur = resultat == null;
+        commit();
+    }
+
+    private static int lignesModifiees(Object resultat) {
+        if (resultat instanceof Integer n) {
+            return n;
+        }
+        if (resultat instanceof Long n) {
+            return (int) Math.min(Integer.MAX_VALUE, n);
+        }
+        if (resultat instanceof int[] lot) {
+            int total = 0;
+            for (int n : lot) {
+                total += Math.max(0, n); // SUCCESS_NO_INFO (-2) ignoré
+            }
+            return total;
+        }
+        return -1;
+    }
+}
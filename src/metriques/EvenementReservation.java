@@ -0,0 +1,77 @@
+package metriques;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import model.ResultatReservation;
+
+/**
+ * Événement Flight Recorder émis pour chaque réservation, avec la durée de chacune de ses étapes :
+ * lecture du contexte en base, calcul du tarif, écriture de la réservation et de sa facture
+ *
+ * Le thread de l'événement est enregistré par JFR : une réservation faite depuis le thread Swing
+ * (AWT-EventQueue) se repère directement
+ */
+@Name("parc.Reservation")
+@Label("Réservation")
+@Category({"Parc", "Réservations"})
+@Description("Réservation d'une attraction et durée de chaque étape")
+public final class EvenementReservation extends jdk.jfr.Event {
+
+    @Label("Utilisateur")
+    int idUtilisateur;
+
+    @Label("Attraction")
+    int idAttraction;
+
+    @Label("Billets")
+    int billets;
+
+    @Label("Résultat")
+    @Description("CONFIRMEE, COMPLET ou ECHEC")
+    String resultat;
+
+    @Label("Réservation")
+    int idReservation;
+
+    @Label("Montant")
+    double montant;
+
+    @Label("Réduction appliquée")
+    boolean reduction;
+
+    @Label("Lecture")
+    @Timespan(Timespan.NANOSECONDS)
+    long lecture;
+
+    @Label("Tarification")
+    @Timespan(Timespan.NANOSECONDS)
+    long tarification;
+
+    @Label("Écriture")
+    @Timespan(Timespan.NANOSECONDS)
+    long ecriture;
+
+    /**
+     * Termine l'événement commencé par {@link #begin()} et l'enregistre s'il dépasse le seuil configuré
+     */
+    public void terminer(int idUtilisateur, int idAttraction, int billets, ResultatReservation r) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.idUtilisateur = idUtilisateur;
+        this.idAttraction = idAttraction;
+        this.billets = billets;
+        this.resultat = r.isSucces() ? "CONFIRMEE" : r.isComplet() ? "COMPLET" : "ECHEC";
+        this.idReservation = r.getIdReservation();
+        this.montant = r.getMontantTotal();
+        this.reduction = r.isReductionAppliquee();
+        this.lecture = r.getDureeLectureNanos();
+        this.tarification = r.getDureeTarificationNanos();
+        this.ecriture = r.getDureeEcritureNanos();
+        commit();
+    }
+}
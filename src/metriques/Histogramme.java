@@ -0,0 +1,85 @@
+package metriques;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogramme de durées en nanosecondes, à classes log-linéaires
+ *
+ * Chaque puissance de deux est découpée en {@value #SOUS_CLASSES} classes égales : un percentile est
+ * donné à 12,5 % près quelle que soit la durée (de la nanoseconde à plusieurs minutes), pour
+ * 496 compteurs. Enregistrer une valeur coûte un calcul d'indice et un incrément atomique, sans
+ * allocation ni verrou
+ */
+final class Histogramme {
+
+    private static final int BITS = 3;
+    private static final int SOUS_CLASSES = 1 << BITS;
+    private static final int CLASSES = (64 - BITS + 1) << BITS;
+
+    private final AtomicLongArray compteurs = new AtomicLongArray(CLASSES);
+
+    void enregistrer(long valeur) {
+        compteurs.incrementAndGet(indice(Math.max(0, valeur)));
+    }
+
+    void reinitialiser() {
+        for (int i = 0; i < CLASSES; i++) {
+            compteurs.set(i, 0);
+        }
+    }
+
+    /**
+     * Copie des compteurs, pour calculer plusieurs percentiles sur les mêmes valeurs
+     */
+    long[] copier() {
+        long[] copie = new long[CLASSES];
+        for (int i = 0; i < CLASSES; i++) {
+            copie[i] = compteurs.get(i);
+        }
+        return copie;
+    }
+
+    /**
+     * @param copie Compteurs obtenus par {@link #copier()}
+     * @param quantile Entre 0 et 1 (0.99 pour le 99e percentile)
+     * @return Borne haute de la classe contenant ce quantile, 0 si l'histogramme est vide
+     */
+    static long percentile(long[] copie, double quantile) {
+        long total = 0;
+        for (long n : copie) {
+            total += n;
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rang = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumul = 0;
+        for (int i = 0; i < copie.length; i++) {
+            cumul += copie[i];
+            if (cumul >= rang) {
+                return borneHaute(i);
+            }
+        }
+        return borneHaute(copie.length - 1);
+    }
+
+    static int indice(long valeur) {
+        if (valeur < SOUS_CLASSES) {
+            return (int) valeur; // classes exactes pour les petites valeurs
+        }
+        int exposant = 63 - Long.numberOfLeadingZeros(valeur);
+        int sousClasse = (int) (valeur >>> (exposant - BITS)) & (SOUS_CLASSES - 1);
+        return ((exposant - BITS + 1) << BITS) | sousClasse;
+    }
+
+    static long borneHaute(int indice) {
+        if (indice < SOUS_CLASSES) {
+            return indice;
+        }
+        int exposant = (indice >>> BITS) + BITS - 1;
+        long largeur = 1L << (exposant - BITS);
+        long borneBasse = (1L << exposant) | ((indice & (SOUS_CLASSES - 1)) * largeur);
+        return borneBasse + largeur - 1;
+    }
+}
@@ -0,0 +1,180 @@
+package metriques;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Mesures d'une opération (méthode de DAO, de contrôleur, route HTTP) : appels, erreurs,
+ * débit et distribution des durées
+ *
+ * Les compteurs sont des {@link LongAdder} et l'histogramme un tableau de compteurs atomiques :
+ * les threads qui enregistrent en même temps ne se bloquent pas, et la lecture ({@link #instantane()},
+ * JMX) ne ralentit pas l'enregistrement. Une mesure est obtenue une fois par {@link Metriques#mesure}
+ * puis gardée dans un champ
+ */
+public final class Mesure implements MesureMBean {
+
+    private final String couche;
+    private final String nom;
+    private final boolean active;
+
+    private final LongAdder appels = new LongAdder();
+    private final LongAdder erreurs = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final Histogramme histogramme = new Histogramme();
+    private volatile long depuisNanos = System.nanoTime();
+
+    /**
+     * Valeurs d'une mesure à un instant donné (durées en microsecondes)
+     */
+    public record Instantane(String couche, String nom, long appels, long erreurs, double debitParSeconde,
+                             double moyenneMicros, double p50Micros, double p99Micros, double maxMicros) {
+
+        public Map<String, Object> versMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("appels", appels);
+            m.put("erreurs", erreurs);
+            m.put("debitParSeconde", arrondi(debitParSeconde));
+            m.put("moyenneMicros", arrondi(moyenneMicros));
+            m.put("p50Micros", arrondi(p50Micros));
+            m.put("p99Micros", arrondi(p99Micros));
+            m.put("maxMicros", arrondi(maxMicros));
+            return m;
+        }
+
+        private static double arrondi(double valeur) {
+            return Math.round(valeur * 10) / 10.0;
+        }
+    }
+
+    Mesure(String couche, String nom, boolean active) {
+        this.couche = couche;
+        this.nom = nom;
+        this.active = active;
+    }
+
+    /**
+     * Enregistre un appel terminé
+     *
+     * @param dureeNanos Durée de l'appel
+     * @param erreur true si l'appel a échoué
+     */
+    public void enregistrer(long dureeNanos, boolean erreur) {
+        if (!active) {
+            return;
+        }
+        appels.increment();
+        if (erreur) {
+            erreurs.increment();
+        }
+        totalNanos.add(dureeNanos);
+        maxNanos.accumulate(dureeNanos);
+        histogramme.enregistrer(dureeNanos);
+    }
+
+    /**
+     * Exécute et mesure une opération ; une exception est comptée comme une erreur puis relancée
+     */
+    public <T> T mesurer(Supplier<T> operation) {
+        long debut = System.nanoTime();
+        boolean erreur = true;
+        try {
+            T resultat = operation.get();
+            erreur = false;
+            return resultat;
+        } finally {
+            enregistrer(System.nanoTime() - debut, erreur);
+        }
+    }
+
+    public Instantane instantane() {
+        long n = appels.sum();
+        long max = maxNanos.get();
+        long[] copie = histogramme.copier();
+        double secondes = (System.nanoTime() - depuisNanos) / 1e9;
+        return new Instantane(
+                couche,
+                nom,
+                n,
+                erreurs.sum(),
+                secondes <= 0 ? 0 : n / secondes,
+                n == 0 ? 0 : totalNanos.sum() / 1e3 / n,
+                Math.min(max, Histogramme.percentile(copie, 0.50)) / 1e3, // borne de classe : jamais au-delà du maximum
+                Math.min(max, Histogramme.percentile(copie, 0.99)) / 1e3,
+                max / 1e3
+        );
+    }
+
+    /**
+     * @param quantile Entre 0 et 1 (0.999 pour le 99,9e percentile)
+     * @return Le percentile des durées en microsecondes, à 12,5 % près
+     */
+    public double percentileMicros(double quantile) {
+        return Math.min(maxNanos.get(), Histogramme.percentile(histogramme.copier(), quantile)) / 1e3;
+    }
+
+    // ------------------ JMX ------------------ //
+
+    @Override
+    public String getCouche() {
+        return couche;
+    }
+
+    @Override
+    public String getNom() {
+        return nom;
+    }
+
+    @Override
+    public long getAppels() {
+        return appels.sum();
+    }
+
+    @Override
+    public long getErreurs() {
+        return erreurs.sum();
+    }
+
+    @Override
+    public double getDebitParSeconde() {
+        return instantane().debitParSeconde();
+    }
+
+    @Override
+    public double getMoyenneMicros() {
+        return instantane().moyenneMicros();
+    }
+
+    @Override
+    public double getP50Micros() {
+        return instantane().p50Micros();
+    }
+
+    @Override
+    public double getP99Micros() {
+        return instantane().p99Micros();
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return maxNanos.get() / 1e3;
+    }
+
+    /**
+     * Remet les compteurs à zéro (les appels en cours pendant la remise à zéro peuvent être
+     * comptés d'un côté ou de l'autre)
+     */
+    @Override
+    public void reinitialiser() {
+        appels.reset();
+        erreurs.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        histogramme.reinitialiser();
+        depuisNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,29 @@
+package metriques;
+
+/**
+ * Attributs JMX d'une opération mesurée (durées en microsecondes, depuis la dernière remise à zéro)
+ *
+ * @see Mesure
+ */
+public interface MesureMBean {
+
+    String getCouche();
+
+    String getNom();
+
+    long getAppels();
+
+    long getErreurs();
+
+    double getDebitParSeconde();
+
+    double getMoyenneMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+
+    void reinitialiser();
+}
@@ -0,0 +1,254 @@
+package metriques;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registre des mesures de l'application
+ *
+ * - Les dépôts de {@link dao.Stockage} sont enveloppés par {@link #instrumenter} : chaque méthode de DAO
+ *   est mesurée (couche {@code dao}) ; les contrôleurs mesurent leurs méthodes (couche {@code controleur})
+ *   et le serveur HTTP ses routes (couche {@code http})
+ * - Chaque mesure est publiée en MBean JMX ({@code parc:type=Operation,couche=...,nom=...}),
+ *   lisible avec JConsole ou VisualVM
+ * - {@link #demarrerRapport()} écrit périodiquement un instantané de toutes les mesures
+ * - Les appels de DAO, les requêtes SQL et les réservations sont aussi des événements Flight Recorder
+ *   ({@link EvenementOperationDao}, {@link EvenementRequeteSql}, {@link EvenementReservation}),
+ *   enregistrés selon les modèles du répertoire {@code jfr/}
+ *
+ * Propriétés système :
+ * - {@code parc.metriques} (true par défaut) : false désactive l'enregistrement et JMX
+ * - {@code parc.metriques.rapportSecondes} (0 par défaut, désactivé) : période du rapport
+ * - {@code parc.metriques.fichier} : fichier auquel le rapport est ajouté (sortie standard par défaut)
+ */
+public final class Metriques {
+
+    private static final boolean ACTIVES = Boolean.parseBoolean(System.getProperty("parc.metriques", "true"));
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final ConcurrentMap<String, Mesure> MESURES = new ConcurrentHashMap<>();
+    // Nombre d'erreurs SQL absorbées par les DAO sur chaque thread (voir erreurAbsorbee)
+    private static final ThreadLocal<int[]> ERREURS_ABSORBEES = ThreadLocal.withInitial(() -> new int[1]);
+    private static ScheduledExecutorService rapport;
+
+    private Metriques() {
+    }
+
+    public static boolean sontActives() {
+        return ACTIVES;
+    }
+
+    /**
+     * Retourne la mesure d'une opération, créée (et publiée en JMX) au premier appel
+     *
+     * @param couche dao, controleur, http...
+     * @param nom Nom de l'opération, par exemple {@code ReservationDAO.insertReservation}
+     */
+    public static Mesure mesure(String couche, String nom) {
+        Mesure mesure = MESURES.get(couche + '/' + nom);
+        if (mesure != null) {
+            return mesure;
+        }
+        return MESURES.computeIfAbsent(couche + '/' + nom, k -> {
+            Mesure nouvelle = new Mesure(couche, nom, ACTIVES);
+            publier(nouvelle);
+            return nouvelle;
+        });
+    }
+
+    /**
+     * @return L'instantané de toutes les mesures, triées par couche puis par nom
+     */
+    public static List<Mesure.Instantane> instantanes() {
+        List<Mesure.Instantane> liste = new ArrayList<>();
+        for (Mesure mesure : MESURES.values()) {
+            liste.add(mesure.instantane());
+        }
+        liste.sort(Comparator.comparing(Mesure.Instantane::couche).thenComparing(Mesure.Instantane::nom));
+        return liste;
+    }
+
+    private static void publier(Mesure mesure) {
+        if (!ACTIVES) {
+            return;
+        }
+        try {
+            ObjectName nom = new ObjectName("parc:type=Operation,couche=" + mesure.getCouche()
+                    + ",nom=" + ObjectName.quote(mesure.getNom()));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mesure, nom);
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ------------------ Instrumentation des dépôts ------------------ //
+
+    /**
+     * Enveloppe un dépôt pour mesurer chacune de ses méthodes, sous le nom
+     * {@code <classe de l'implémentation>.<méthode>}
+     *
+     * Les DAO ne lèvent pas d'exception (elles sont affichées puis une valeur par défaut est retournée) :
+     * en plus des exceptions, un appel pendant lequel le DAO a signalé une erreur SQL ({@link #erreurAbsorbee})
+     * et un {@code insert/update/delete} qui retourne {@code false}, un identifiant négatif ou une liste
+     * d'identifiants vide sont comptés comme des erreurs ; une lecture échouée n'est donc pas un succès.
+     * Chaque appel émet aussi un {@link EvenementOperationDao}
+     *
+     * @param type Interface du dépôt
+     * @param cible Implémentation à mesurer
+     * @param couche Couche des mesures
+     * @return Le dépôt instrumenté, ou la cible elle-même si les métriques sont désactivées
+     */
+    public static <T> T instrumenter(Class<T> type, T cible, String couche) {
+        if (!ACTIVES) {
+            return cible;
+        }
+
+        Map<Method, Mesure> mesures = new HashMap<>();
+        Map<Method, Boolean> ecritures = new HashMap<>();
+        for (Method methode : type.getMethods()) {
+            if (methode.isDefault() || Modifier.isStatic(methode.getModifiers())) {
+                continue;
+            }
+            mesures.put(methode, mesure(couche, cible.getClass().getSimpleName() + "." + methode.getName()));
+            String nom = methode.getName();
+            ecritures.put(methode, nom.startsWith("insert") || nom.startsWith("update") || nom.startsWith("delete"));
+        }
+
+        InvocationHandler mesureur = (proxy, methode, args) -> {
+            Mesure mesure = mesures.get(methode);
+            if (mesure == null) { // méthodes d'Object et méthodes par défaut
+                return invoquer(cible, methode, args);
+            }
+
+            EvenementOperationDao evenement = new EvenementOperationDao();
+            evenement.begin();
+            long debut = System.nanoTime();
+            boolean ecriture = ecritures.get(methode);
+            boolean erreur = true;
+            Object resultat = null;
+            int[] absorbees = ERREURS_ABSORBEES.get();
+            int absorbeesAvant = absorbees[0];
+            try {
+                resultat = invoquer(cible, methode, args);
+                erreur = ecriture && echec(resultat);
+                return resultat;
+            } finally {
+                erreur |= absorbees[0] != absorbeesAvant;
+                mesure.enregistrer(System.nanoTime() - debut, erreur);
+                evenement.terminer(mesure.getNom(), resultat, ecriture, erreur);
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, mesureur));
+    }
+
+    /**
+     * Compte une erreur SQL attrapée par un DAO (valeur par défaut retournée) dans l'appel mesuré en cours
+     * sur ce thread ; appelé par {@link dao.ErreursDAO#signaler}
+     */
+    public static void erreurAbsorbee() {
+        if (ACTIVES) {
+            ERREURS_ABSORBEES.get()[0]++;
+        }
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] args) throws Throwable {
+        try {
+            return methode.invoke(cible, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static boolean echec(Object resultat) {
+        return Boolean.FALSE.equals(resultat) || (resultat instanceof Integer id && id < 0)
+                || (resultat instanceof Collection<?> ids && ids.isEmpty());
+    }
+
+    // ------------------ Rapport périodique ------------------ //
+
+    /**
+     * Démarre le rapport périodique selon {@code parc.metriques.rapportSecondes} et {@code parc.metriques.fichier}
+     * (sans effet si la période est nulle, les métriques désactivées ou le rapport déjà démarré)
+     */
+    public static synchronized void demarrerRapport() {
+        long periode = Long.getLong("parc.metriques.rapportSecondes", 0);
+        if (!ACTIVES || periode <= 0 || rapport != null) {
+            return;
+        }
+
+        String fichier = System.getProperty("parc.metriques.fichier");
+        Path chemin = fichier == null ? null : Paths.get(fichier);
+
+        rapport = Executors.newSingleThreadScheduledExecutor(tache -> {
+            Thread t = new Thread(tache, "metriques-rapport");
+            t.setDaemon(true);
+            return t;
+        });
+        Map<String, Long> appelsPrecedents = new HashMap<>();
+        rapport.scheduleAtFixedRate(() -> ecrireRapport(chemin, periode, appelsPrecedents), periode, periode, TimeUnit.SECONDS);
+    }
+
+    private static void ecrireRapport(Path chemin, long periode, Map<String, Long> appelsPrecedents) {
+        String texte = rapport(periode, appelsPrecedents);
+        if (chemin == null) {
+            System.out.print(texte);
+            return;
+        }
+        try (Writer w = Files.newBufferedWriter(chemin, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(texte);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Une ligne par opération appelée depuis le démarrage ; le débit est celui de la dernière période
+     */
+    private static String rapport(long periode, Map<String, Long> appelsPrecedents) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Métriques ").append(LocalDateTime.now().format(HORODATAGE)).append(" ===\n");
+        sb.append(String.format("%-10s %-48s %10s %8s %9s %10s %10s %10s %10s%n",
+                "couche", "operation", "appels", "erreurs", "debit/s", "moy(us)", "p50(us)", "p99(us)", "max(us)"));
+
+        for (Mesure.Instantane i : instantanes()) {
+            if (i.appels() == 0) {
+                continue;
+            }
+            String cle = i.couche() + '/' + i.nom();
+            Long precedent = appelsPrecedents.put(cle, i.appels());
+            long nouveaux = i.appels() - (precedent == null || precedent > i.appels() ? 0 : precedent);
+
+            sb.append(String.format("%-10s %-48s %10d %8d %9.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    i.couche(), i.nom(), i.appels(), i.erreurs(), (double) nouveaux / periode,
+                    i.moyenneMicros(), i.p50Micros(), i.p99Micros(), i.maxMicros()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+/**
+ * Vue allégée d'une attraction pour les listes et la réservation : tout sauf la description,
+ * seule colonne de texte long de la table, qui n'est affichée que par l'écran d'administration
+ *
+ * @see dao.AttractionDAO#getAttractionsResumees()
+ */
+public class AttractionResume {
+
+    private final int id;
+    private final String nom;
+    private final double prix;
+    private final int capacite;
+    private final boolean disponible;
+
+    public AttractionResume(int id, String nom, double prix, int capacite, boolean disponible) {
+        this.id = id;
+        this.nom = nom;
+        this.prix = prix;
+        this.capacite = capacite;
+        this.disponible = disponible;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public double getPrix() {
+        return prix;
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    @Override
+    public String toString() {
+        return nom + " - " + prix + "€ [" + (disponible ? "Ouvert" : "Fermé") + "]";
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+import model.Utilisateur.TypeUtilisateur;
+
+/**
+ * Données nécessaires pour tarifer une réservation, lues en une seule requête :
+ * prix et capacité de l'attraction, profil du client
+ *
+ * @see dao.ReservationDAO#getContexteReservation(int, int)
+ */
+public class ContexteReservation {
+
+    private final double prixUnitaire;
+    private final int capacite;
+    private final TypeUtilisateur typeUtilisateur; // null si invité ou utilisateur inconnu
+    private final int age;
+
+    public ContexteReservation(double prixUnitaire, int capacite, TypeUtilisateur typeUtilisateur, int age) {
+        this.prixUnitaire = prixUnitaire;
+        this.capacite = capacite;
+        this.typeUtilisateur = typeUtilisateur;
+        this.age = age;
+    }
+
+    public double getPrixUnitaire() {
+        return prixUnitaire;
+    }
+
+    public int getCapacite() {
+        return capacite;
+    }
+
+    public TypeUtilisateur getTypeUtilisateur() {
+        return typeUtilisateur;
+    }
+
+    public int getAge() {
+        return age;
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Une ligne d'une réservation de groupe : un créneau d'une attraction et le nombre de billets voulus
+ *
+ * @see controller.ReservationController#reserverGroupe(int, java.util.List)
+ */
+public class DemandeReservation {
+
+    private final int idAttraction;
+    private final LocalDate date;
+    private final LocalTime heure; // créneau : heure pleine de 10 h à 18 h, sinon la demande est refusée
+    private final int nbBillets;
+
+    public DemandeReservation(int idAttraction, LocalDate date, LocalTime heure, int nbBillets) {
+        this.idAttraction = idAttraction;
+        this.date = date;
+        this.heure = heure;
+        this.nbBillets = nbBillets;
+    }
+
+    public int getIdAttraction() {
+        return idAttraction;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public LocalTime getHeure() {
+        return heure;
+    }
+
+    public int getNbBillets() {
+        return nbBillets;
+    }
+}
@@ -0,0 +1,61 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Ligne d'affichage d'une facture : la facture, la date et l'heure de sa réservation
+ * et le nom de l'attraction, obtenus par une seule requête avec jointures
+ *
+ * @see dao.FactureDAO#getFacturesDetailleesByUtilisateur(int)
+ */
+public class FactureDetail {
+
+    private final int idFacture;
+    private final int idReservation;
+    private final String nomAttraction;
+    private final LocalDate dateReservation;
+    private final LocalTime heureReservation;
+    private final double montantTotal;
+    private final boolean reductionAppliquee;
+
+    public FactureDetail(int idFacture, int idReservation, String nomAttraction, LocalDate dateReservation,
+                         LocalTime heureReservation, double montantTotal, boolean reductionAppliquee) {
+        this.idFacture = idFacture;
+        this.idReservation = idReservation;
+        this.nomAttraction = nomAttraction;
+        this.dateReservation = dateReservation;
+        this.heureReservation = heureReservation;
+        this.montantTotal = montantTotal;
+        this.reductionAppliquee = reductionAppliquee;
+    }
+
+    public int getIdFacture() {
+        return idFacture;
+    }
+
+    public int getIdReservation() {
+        return idReservation;
+    }
+
+    /** @return Le nom de l'attraction, ou null si elle a été supprimée */
+    public String getNomAttraction() {
+        return nomAttraction;
+    }
+
+    public LocalDate getDateReservation() {
+        return dateReservation;
+    }
+
+    public LocalTime getHeureReservation() {
+        return heureReservation;
+    }
+
+    public double getMontantTotal() {
+        return montantTotal;
+    }
+
+    public boolean isReductionAppliquee() {
+        return reductionAppliquee;
+    }
+}
@@ -0,0 +1,62 @@
+package model;
+
+import model.Reservation.StatutReservation;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Ligne de la liste administrateur des réservations : la réservation avec le nom
+ * de l'attraction déjà résolu ; le nom du client se lit dans {@code dao.NomsUtilisateurs}
+ *
+ * @see dao.ReservationDAO#getReservationsPage(int, int)
+ */
+public class ReservationLigne {
+
+    private final int id;
+    private final int idUtilisateur; // 0 pour un invité
+    private final String nomAttraction;
+    private final LocalDate dateReservation;
+    private final LocalTime heureReservation;
+    private final int nombreBillets;
+    private final StatutReservation statut;
+
+    public ReservationLigne(int id, int idUtilisateur, String nomAttraction, LocalDate dateReservation,
+                            LocalTime heureReservation, int nombreBillets, StatutReservation statut) {
+        this.id = id;
+        this.idUtilisateur = idUtilisateur;
+        this.nomAttraction = nomAttraction;
+        this.dateReservation = dateReservation;
+        this.heureReservation = heureReservation;
+        this.nombreBillets = nombreBillets;
+        this.statut = statut;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getIdUtilisateur() {
+        return idUtilisateur;
+    }
+
+    public String getNomAttraction() {
+        return nomAttraction;
+    }
+
+    public LocalDate getDateReservation() {
+        return dateReservation;
+    }
+
+    public LocalTime getHeureReservation() {
+        return heureReservation;
+    }
+
+    public int getNombreBillets() {
+        return nombreBillets;
+    }
+
+    public StatutReservation getStatut() {
+        return statut;
+    }
+}
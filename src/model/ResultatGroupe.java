@@ -0,0 +1,88 @@
+package model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Résultat d'une réservation de groupe : toutes les réservations sont créées, ou aucune
+ * En cas de refus, {@link #getLigneRefusee()} désigne la première demande en cause
+ *
+ * @see controller.ReservationController#reserverGroupe(int, List)
+ */
+public class ResultatGroupe {
+
+    private final List<Integer> idsReservations;
+    private final double montantTotal;
+    private final int ligneRefusee;
+    private final boolean complet;
+
+    private ResultatGroupe(List<Integer> idsReservations, double montantTotal, int ligneRefusee, boolean complet) {
+        this.idsReservations = idsReservations;
+        this.montantTotal = montantTotal;
+        this.ligneRefusee = ligneRefusee;
+        this.complet = complet;
+    }
+
+    /**
+     * @param idsReservations Identifiants créés, dans l'ordre des demandes
+     * @param montantTotal Somme des factures
+     */
+    public static ResultatGroupe confirme(List<Integer> idsReservations, double montantTotal) {
+        return new ResultatGroupe(Collections.unmodifiableList(idsReservations), montantTotal, -1, false);
+    }
+
+    /**
+     * Demande invalide (billets, date, attraction inconnue ou groupe trop grand)
+     *
+     * @param ligne Indice de la demande en cause, -1 si c'est le groupe entier
+     */
+    public static ResultatGroupe refuse(int ligne) {
+        return new ResultatGroupe(Collections.emptyList(), 0, ligne, false);
+    }
+
+    /**
+     * Un créneau n'a pas assez de places pour tous les billets du groupe qui le demandent
+     *
+     * @param ligne Indice de la première demande sur ce créneau
+     */
+    public static ResultatGroupe complet(int ligne) {
+        return new ResultatGroupe(Collections.emptyList(), 0, ligne, true);
+    }
+
+    /**
+     * Échec de l'écriture : aucune réservation n'a été enregistrée
+     */
+    public static ResultatGroupe echec() {
+        return new ResultatGroupe(Collections.emptyList(), 0, -1, false);
+    }
+
+    public boolean isSucces() {
+        return !idsReservations.isEmpty();
+    }
+
+    /** @return true si le groupe a été refusé parce qu'un créneau n'a plus assez de places */
+    public boolean isComplet() {
+        return complet;
+    }
+
+    /** @return Identifiants des réservations créées, dans l'ordre des demandes (vide en cas d'échec) */
+    public List<Integer> getIdsReservations() {
+        return idsReservations;
+    }
+
+    public double getMontantTotal() {
+        return montantTotal;
+    }
+
+    /** @return Indice de la demande refusée, -1 si aucune demande n'est en cause */
+    public int getLigneRefusee() {
+        return ligneRefusee;
+    }
+
+    @Override
+    public String toString() {
+        return isSucces()
+                ? "Groupe de " + idsReservations.size() + " réservations : " + montantTotal + "€"
+                : "Groupe refusé" + (ligneRefusee >= 0 ? " (demande " + ligneRefusee + ")" : "");
+    }
+}
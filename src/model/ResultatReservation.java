@@ -0,0 +1,106 @@
+package model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Résultat d'une tentative de réservation : identifiant créé, montant facturé
+ * et durée de chaque étape du traitement
+ *
+ * @see controller.ReservationController#reserver(int, int, java.time.LocalDate, java.time.LocalTime, int)
+ */
+public class ResultatReservation {
+
+    private final int idReservation;
+    private final double montantTotal;
+    private final boolean reductionAppliquee;
+    private final long dureeLectureNanos;
+    private final long dureeTarificationNanos;
+    private final long dureeEcritureNanos;
+    private final boolean complet;
+
+    public ResultatReservation(int idReservation, double montantTotal, boolean reductionAppliquee,
+                               long dureeLectureNanos, long dureeTarificationNanos, long dureeEcritureNanos) {
+        this.idReservation = idReservation;
+        this.montantTotal = montantTotal;
+        this.reductionAppliquee = reductionAppliquee;
+        this.dureeLectureNanos = dureeLectureNanos;
+        this.dureeTarificationNanos = dureeTarificationNanos;
+        this.dureeEcritureNanos = dureeEcritureNanos;
+        this.complet = false;
+    }
+
+    private ResultatReservation(long dureeLectureNanos) {
+        this.idReservation = -1;
+        this.montantTotal = 0;
+        this.reductionAppliquee = false;
+        this.dureeLectureNanos = dureeLectureNanos;
+        this.dureeTarificationNanos = 0;
+        this.dureeEcritureNanos = 0;
+        this.complet = true;
+    }
+
+    /**
+     * Résultat d'une demande rejetée avant tout accès à la base
+     */
+    public static ResultatReservation refusee() {
+        return new ResultatReservation(-1, 0, false, 0, 0, 0);
+    }
+
+    /**
+     * Résultat d'une demande rejetée faute de places sur le créneau
+     */
+    public static ResultatReservation complet(long dureeLectureNanos) {
+        return new ResultatReservation(dureeLectureNanos);
+    }
+
+    public boolean isSucces() {
+        return idReservation > 0;
+    }
+
+    /** @return true si la réservation a échoué parce que le créneau n'a plus assez de places */
+    public boolean isComplet() {
+        return complet;
+    }
+
+    public int getIdReservation() {
+        return idReservation;
+    }
+
+    public double getMontantTotal() {
+        return montantTotal;
+    }
+
+    public boolean isReductionAppliquee() {
+        return reductionAppliquee;
+    }
+
+    /** @return Durée de lecture du contexte (attraction, client) */
+    public long getDureeLectureNanos() {
+        return dureeLectureNanos;
+    }
+
+    /** @return Durée du calcul du montant */
+    public long getDureeTarificationNanos() {
+        return dureeTarificationNanos;
+    }
+
+    /** @return Durée de la transaction d'écriture (réservation + facture) */
+    public long getDureeEcritureNanos() {
+        return dureeEcritureNanos;
+    }
+
+    public long getDureeTotaleNanos() {
+        return dureeLectureNanos + dureeTarificationNanos + dureeEcritureNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Réservation #" + idReservation + " : " + montantTotal + "€" +
+                " (lecture " + micros(dureeLectureNanos) + " µs, tarif " + micros(dureeTarificationNanos) +
+                " µs, écriture " + micros(dureeEcritureNanos) + " µs)";
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
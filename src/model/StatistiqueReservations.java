@@ -0,0 +1,52 @@
+package model;
+
+import java.time.LocalDate;
+
+/**
+ * Statistiques de réservation d'une attraction, tous jours confondus ou pour un jour donné
+ *
+ * @see dao.ReportingDAO
+ */
+public class StatistiqueReservations {
+
+    private final int idAttraction;
+    private final String nomAttraction;
+    private final LocalDate jour; // null pour le cumul toutes dates
+    private final int nbReservations;
+    private final int billets;
+    private final double chiffreAffaires;
+
+    public StatistiqueReservations(int idAttraction, String nomAttraction, LocalDate jour,
+                                   int nbReservations, int billets, double chiffreAffaires) {
+        this.idAttraction = idAttraction;
+        this.nomAttraction = nomAttraction;
+        this.jour = jour;
+        this.nbReservations = nbReservations;
+        this.billets = billets;
+        this.chiffreAffaires = chiffreAffaires;
+    }
+
+    public int getIdAttraction() {
+        return idAttraction;
+    }
+
+    public String getNomAttraction() {
+        return nomAttraction;
+    }
+
+    public LocalDate getJour() {
+        return jour;
+    }
+
+    public int getNbReservations() {
+        return nbReservations;
+    }
+
+    public int getBillets() {
+        return billets;
+    }
+
+    public double getChiffreAffaires() {
+        return chiffreAffaires;
+    }
+}
@@ -1,31 +1,21 @@
 package view;
 
 import controller.ReservationController;
-import dao.AttractionDAO;
-import dao.UtilisateurDAO;
-import model.Attraction;
-import model.Reservation;
-import model.Utilisateur;
+import dao.Stockage;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 public class AllReservationsView extends JFrame {
 
     private final ReservationController reservationController;
-    private final UtilisateurDAO utilisateurDAO;
-    private final AttractionDAO attractionDAO;
+    private final ChargementEnFond chargement;
     private JTable table;
-    private DefaultTableModel tableModel;
+    private ReservationsTableModel tableModel;
 
     public AllReservationsView() {
         this.reservationController = new ReservationController();
-        this.utilisateurDAO = new UtilisateurDAO();
-        this.attractionDAO = new AttractionDAO();
+        this.chargement = new ChargementEnFond(this);
         initUI();
         loadReservations();
     }
@@ -36,9 +26,10 @@ public class AllReservationsView extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        String[] columnNames = {"ID", "Client", "Attraction", "Date", "Heure", "Billets", "Statut"};
-        tableModel = new DefaultTableModel(columnNames, 0);
+        // Modèle virtuel : les pages sont lues à la demande pendant le défilement
+        tableModel = new ReservationsTableModel(Stockage.reservations(), chargement);
         table = new JTable(tableModel);
+        add(chargement.getIndicateur(), BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
 
         JButton supprimerButton = new JButton("Supprimer réservation");
@@ -50,7 +41,11 @@ public class AllReservationsView extends JFrame {
         supprimerButton.addActionListener(e -> {
             int selectedRow = table.getSelectedRow();
             if (selectedRow >= 0) {
-                int reservationId = (int) tableModel.getValueAt(selectedRow, 0);
+                Integer reservationId = tableModel.getIdReservation(selectedRow);
+                if (reservationId == null) {
+                    JOptionPane.showMessageDialog(this, "Chargement en cours, réessayez dans un instant.");
+                    return;
+                }
 
                 int confirm = JOptionPane.showConfirmDialog(this,
                         "Êtes-vous sûr de vouloir supprimer cette réservation ?",
@@ -76,33 +71,6 @@ public class AllReservationsView extends JFrame {
     }
 
     private void loadReservations() {
-        tableModel.setRowCount(0);
-        List<Reservation> reservations = reservationController.getToutesReservations();
-
-        Map<Integer, String> utilisateurs = new HashMap<>();
-        Map<Integer, String> attractions = new HashMap<>();
-
-        for (Utilisateur u : utilisateurDAO.getAllUtilisateurs()) {
-            utilisateurs.put(u.getId(), u.getNom());
-        }
-
-        for (Attraction a : attractionDAO.getAllAttractions()) {
-            attractions.put(a.getId(), a.getNom());
-        }
-
-        for (Reservation r : reservations) {
-            String clientNom = utilisateurs.getOrDefault(r.getIdUtilisateur(), "Invité");
-            String attractionNom = attractions.getOrDefault(r.getIdAttraction(), "Inconnue");
-
-            tableModel.addRow(new Object[]{
-                    r.getId(),
-                    clientNom,
-                    attractionNom,
-                    r.getDateReservation(),
-                    (r.getHeureReservation() != null ? r.getHeureReservation() : "-"),
-                    r.getNombreBillets(),
-                    r.getStatut()
-            });
-        }
+        tableModel.recharger();
     }
 }
\ No newline at end of file
@@ -6,16 +6,19 @@ import model.Attraction;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class AttractionManagerView extends JFrame {
 
     private final AdminController controller;
+    private final ChargementEnFond chargement;
     private JTable table;
     private DefaultTableModel tableModel;
 
     public AttractionManagerView() {
         this.controller = new AdminController();
+        this.chargement = new ChargementEnFond(this);
         initUI();
         loadAttractions();
     }
@@ -42,6 +45,7 @@ public class AttractionManagerView extends JFrame {
         buttonPanel.add(supprimerButton);
         buttonPanel.add(rafraichirButton);
 
+        add(chargement.getIndicateur(), BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
@@ -76,18 +80,21 @@ public class AttractionManagerView extends JFrame {
     }
 
     private void loadAttractions() {
-        tableModel.setRowCount(0); // reset
-        List<Attraction> attractions = controller.listerAttractions();
-        for (Attraction a : attractions) {
-            tableModel.addRow(new Object[]{
-                    a.getId(),
-                    a.getNom(),
-                    a.getDescription(),
-                    a.getPrix(),
-                    a.getCapacite(),
-                    a.isDisponible() ? "Oui" : "Non"
-            });
-        }
+        chargement.chargerTable(tableModel, () -> {
+            List<Attraction> attractions = controller.listerAttractions();
+            List<Object[]> lignes = new ArrayList<>(attractions.size());
+            for (Attraction a : attractions) {
+                lignes.add(new Object[]{
+                        a.getId(),
+                        a.getNom(),
+                        a.getDescription(),
+                        a.getPrix(),
+                        a.getCapacite(),
+                        a.isDisponible() ? "Oui" : "Non"
+                });
+            }
+            return lignes;
+        });
     }
 
     private void showAttractionDialog(Attraction existing) {
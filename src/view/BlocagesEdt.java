@@ -0,0 +1,142 @@
+package view;
+
+import metriques.Mesure;
+import metriques.Metriques;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rapport glissant des blocages de l'EDT détectés par {@link SurveillanceEdt}
+ *
+ * Les {@value #CAPACITE} derniers blocages sont conservés ; le rapport les regroupe par vue et action
+ * et les classe par temps bloqué cumulé, avec la pile d'appel la plus récente de chaque groupe.
+ * Chaque blocage est aussi enregistré dans les {@link Metriques} (couche {@code edt}), donc
+ * publié en JMX avec sa distribution de durées
+ *
+ * Thread-safe : alimenté par l'EDT, lu par le thread du rapport périodique
+ */
+public final class BlocagesEdt {
+
+    static final int CAPACITE = 500;
+    private static final int LIGNES_PILE = 8;
+    private static final DateTimeFormatter HORODATAGE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * Un blocage : la vue et l'action en cause, sa durée et la pile de l'EDT pendant le blocage
+     * (null si le blocage s'est terminé avant d'être observé par le chien de garde)
+     */
+    public record Blocage(LocalDateTime date, String vue, String action, long dureeMs, StackTraceElement[] pile) {
+
+        String cle() {
+            return vue + " / " + action;
+        }
+    }
+
+    /**
+     * Blocages d'un même couple vue / action
+     */
+    public record Groupe(String vue, String action, int nombre, long totalMs, long maxMs, Blocage dernier) {
+    }
+
+    private final Deque<Blocage> derniers = new ArrayDeque<>();
+    private long total;
+    private long dejaRapportes;
+
+    synchronized void enregistrer(Blocage blocage) {
+        if (derniers.size() == CAPACITE) {
+            derniers.removeFirst();
+        }
+        derniers.addLast(blocage);
+        total++;
+        Mesure mesure = Metriques.mesure("edt", blocage.cle());
+        mesure.enregistrer(blocage.dureeMs() * 1_000_000, false);
+    }
+
+    /**
+     * @return Nombre de blocages détectés depuis le démarrage
+     */
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Les groupes de blocages récents, du plus long temps cumulé au plus court
+     */
+    public synchronized List<Groupe> classement() {
+        Map<String, Groupe> groupes = new LinkedHashMap<>();
+        for (Blocage b : derniers) {
+            groupes.merge(b.cle(), new Groupe(b.vue(), b.action(), 1, b.dureeMs(), b.dureeMs(), b),
+                    (g, n) -> new Groupe(g.vue(), g.action(), g.nombre() + 1, g.totalMs() + n.totalMs(),
+                            Math.max(g.maxMs(), n.maxMs()), n.dernier().pile() != null ? n.dernier() : g.dernier()));
+        }
+        List<Groupe> liste = new ArrayList<>(groupes.values());
+        liste.sort(Comparator.comparingLong(Groupe::totalMs).reversed());
+        return liste;
+    }
+
+    /**
+     * @return true si des blocages ont été détectés depuis le dernier appel
+     */
+    synchronized boolean nouveauxDepuisDernierRapport() {
+        boolean nouveaux = total > dejaRapportes;
+        dejaRapportes = total;
+        return nouveaux;
+    }
+
+    /**
+     * Rapport texte : classement des vues et actions bloquantes, avec une pile par groupe
+     */
+    public String rapport() {
+        List<Groupe> groupes = classement();
+        StringBuilder sb = new StringBuilder();
+        sb.append("=== Blocages de l'EDT ").append(LocalDateTime.now().format(HORODATAGE))
+                .append(" (").append(getTotal()).append(" depuis le démarrage, ")
+                .append(Math.min(getTotal(), CAPACITE)).append(" derniers classés) ===\n");
+
+        int rang = 1;
+        for (Groupe g : groupes) {
+            sb.append(String.format("%2d. %-28s %-50s %4d fois  total %7d ms  max %6d ms  dernier %s%n",
+                    rang++, g.vue(), g.action(), g.nombre(), g.totalMs(), g.maxMs(), g.dernier().date().format(HORODATAGE)));
+            if (g.dernier().pile() != null) {
+                ecrirePile(sb, g.dernier().pile());
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Les premières lignes de la pile (là où l'EDT attendait), puis seulement celles de l'application :
+     * l'écran et l'action en cause restent visibles sous les appels du pilote JDBC
+     */
+    private static void ecrirePile(StringBuilder sb, StackTraceElement[] pile) {
+        int omises = 0;
+        for (int i = 0; i < pile.length; i++) {
+            if (i < LIGNES_PILE || estApplication(pile[i])) {
+                if (omises > 0) {
+                    sb.append("        ... ").append(omises).append(" lignes\n");
+                    omises = 0;
+                }
+                sb.append("        at ").append(pile[i]).append('\n');
+            } else {
+                omises++;
+            }
+        }
+        if (omises > 0) {
+            sb.append("        ... ").append(omises).append(" lignes\n");
+        }
+    }
+
+    static boolean estApplication(StackTraceElement ligne) {
+        String classe = ligne.getClassName();
+        return classe.startsWith("view.") || classe.startsWith("controller.") || classe.startsWith("dao.")
+                || classe.startsWith("model.") || classe.startsWith("api.");
+    }
+}
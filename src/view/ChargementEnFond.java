@@ -0,0 +1,190 @@
+package view;
+
+import dao.AsyncDAO;
+import dao.ErreursDAO;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Chargement des données d'une fenêtre hors de l'EDT
+ *
+ * Les requêtes passent par {@link AsyncDAO} (threads virtuels, concurrence bornée) ; la fenêtre
+ * s'affiche tout de suite avec un indicateur de progression, puis les lignes sont ajoutées aux
+ * tables par lots de {@link #TAILLE_LOT}, chaque lot étant un événement EDT distinct : l'interface
+ * reste réactive même pour plusieurs milliers de lignes
+ *
+ * À la fermeture de la fenêtre, les chargements en cours sont annulés, requête SQL comprise
+ *
+ * Une lecture pendant laquelle un DAO a absorbé une erreur SQL ({@link ErreursDAO}) échoue : la vue
+ * affiche l'erreur au lieu d'une table ou d'une page vide
+ *
+ * Toutes les méthodes doivent être appelées sur l'EDT
+ */
+public class ChargementEnFond {
+
+    static final int TAILLE_LOT = 250;
+
+    private final JFrame fenetre;
+    private final JProgressBar indicateur = new JProgressBar();
+    private final Set<CompletableFuture<?>> enCours = new HashSet<>();
+    private final Map<DefaultTableModel, Integer> generations = new HashMap<>();
+    private final Map<DefaultTableModel, CompletableFuture<?>> chargementsTables = new HashMap<>();
+    private int remplissages; // tables en cours de remplissage
+    private boolean ferme;
+
+    /**
+     * @param fenetre Fenêtre dont la fermeture annule les chargements
+     */
+    public ChargementEnFond(JFrame fenetre) {
+        this.fenetre = fenetre;
+        indicateur.setStringPainted(true);
+        indicateur.setVisible(false);
+
+        fenetre.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                annulerTout();
+            }
+        });
+    }
+
+    /**
+     * @return La barre de progression à placer dans la fenêtre (masquée hors chargement)
+     */
+    public JProgressBar getIndicateur() {
+        return indicateur;
+    }
+
+    /**
+     * Exécute une lecture en arrière-plan puis passe son résultat à l'EDT
+     *
+     * @param lecture Lecture bloquante (DAO, contrôleur, préparation des données)
+     * @param surEdt Traitement du résultat, appelé sur l'EDT sauf si le chargement a été annulé
+     * @return Le future du chargement, annulable
+     */
+    public <T> CompletableFuture<T> charger(Callable<T> lecture, Consumer<T> surEdt) {
+        return charger(lecture, surEdt, () -> {
+        });
+    }
+
+    /**
+     * Exécute une lecture en arrière-plan puis passe son résultat à l'EDT
+     *
+     * @param lecture Lecture bloquante (DAO, contrôleur, préparation des données)
+     * @param surEdt Traitement du résultat, appelé sur l'EDT sauf si le chargement a été annulé
+     * @param surEchec Appelé sur l'EDT si la lecture a échoué, exception ou erreur SQL absorbée par un DAO
+     *                 (avant le message d'erreur), pour permettre à l'appelant de la relancer plus tard
+     * @return Le future du chargement, annulable
+     */
+    public <T> CompletableFuture<T> charger(Callable<T> lecture, Consumer<T> surEdt, Runnable surEchec) {
+        CompletableFuture<T> future = AsyncDAO.getInstance().submit(() -> ErreursDAO.verifier(lecture));
+        enCours.add(future);
+        actualiserIndicateur();
+
+        future.whenComplete((resultat, erreur) -> SwingUtilities.invokeLater(() -> {
+            enCours.remove(future);
+            actualiserIndicateur();
+            if (ferme || future.isCancelled()) {
+                return;
+            }
+            if (erreur != null) {
+                surEchec.run();
+                signalerErreur(erreur);
+                return;
+            }
+            surEdt.accept(resultat);
+        }));
+        return future;
+    }
+
+    /**
+     * Vide la table puis la remplit avec les lignes lues en arrière-plan, par lots successifs
+     * Un nouveau chargement de la même table annule le précédent
+     *
+     * @param model Modèle de la table
+     * @param lecture Lecture bloquante rendant les lignes déjà mises en forme
+     */
+    public void chargerTable(DefaultTableModel model, Callable<List<Object[]>> lecture) {
+        int gen = generations.merge(model, 1, Integer::sum);
+        CompletableFuture<?> precedent = chargementsTables.remove(model);
+        if (precedent != null) {
+            precedent.cancel(true);
+        }
+
+        model.setRowCount(0);
+        CompletableFuture<List<Object[]>> future = charger(lecture, lignes -> {
+            remplissages++;
+            ajouterLot(model, gen, lignes, 0);
+        });
+        chargementsTables.put(model, future);
+        future.whenComplete((lignes, erreur) -> SwingUtilities.invokeLater(() -> chargementsTables.remove(model, future)));
+    }
+
+    /**
+     * Annule tous les chargements en cours (appelé automatiquement à la fermeture de la fenêtre)
+     */
+    public void annulerTout() {
+        ferme = true;
+        for (CompletableFuture<?> future : Set.copyOf(enCours)) {
+            future.cancel(true);
+        }
+        enCours.clear();
+        chargementsTables.clear();
+    }
+
+    private void ajouterLot(DefaultTableModel model, int gen, List<Object[]> lignes, int debut) {
+        if (ferme || generations.get(model) != gen) {
+            remplissages--;
+            actualiserIndicateur();
+            return;
+        }
+
+        int fin = Math.min(lignes.size(), debut + TAILLE_LOT);
+        for (int i = debut; i < fin; i++) {
+            model.addRow(lignes.get(i));
+        }
+
+        if (fin < lignes.size()) {
+            indicateur.setIndeterminate(false);
+            indicateur.setMaximum(lignes.size());
+            indicateur.setValue(fin);
+            indicateur.setString(fin + " / " + lignes.size());
+            indicateur.setVisible(true);
+            SwingUtilities.invokeLater(() -> ajouterLot(model, gen, lignes, fin));
+        } else {
+            remplissages--;
+            actualiserIndicateur();
+        }
+    }
+
+    private void actualiserIndicateur() {
+        if (!enCours.isEmpty()) {
+            indicateur.setIndeterminate(true);
+            indicateur.setString("Chargement…");
+            indicateur.setVisible(true);
+        } else if (remplissages == 0) {
+            indicateur.setVisible(false);
+        }
+    }
+
+    private void signalerErreur(Throwable erreur) {
+        Throwable cause = erreur.getCause() != null ? erreur.getCause() : erreur;
+        if (cause instanceof CancellationException) {
+            return;
+        }
+        cause.printStackTrace();
+        JOptionPane.showMessageDialog(fenetre, "Erreur lors du chargement des données.", "Erreur", JOptionPane.ERROR_MESSAGE);
+    }
+}
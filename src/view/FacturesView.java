@@ -1,25 +1,19 @@
 package view;
 
 import controller.ClientController;
-import controller.ReservationController;
-import dao.AttractionDAO;
-import model.Attraction;
-import model.Facture;
-import model.Reservation;
+import model.FactureDetail;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 public class FacturesView extends JFrame {
 
     private final int idClient;
     private final ClientController clientController;
-    private final ReservationController reservationController;
-    private final AttractionDAO attractionDAO;
+    private final ChargementEnFond chargement;
 
     private JTable table;
     private DefaultTableModel tableModel;
@@ -27,8 +21,7 @@ public class FacturesView extends JFrame {
     public FacturesView(int idClient) {
         this.idClient = idClient;
         this.clientController = new ClientController();
-        this.reservationController = new ReservationController();
-        this.attractionDAO = new AttractionDAO();
+        this.chargement = new ChargementEnFond(this);
         initUI();
         loadFactures();
     }
@@ -43,36 +36,27 @@ public class FacturesView extends JFrame {
         tableModel = new DefaultTableModel(columnNames, 0);
         table = new JTable(tableModel);
 
+        add(chargement.getIndicateur(), BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
         setVisible(true);
     }
 
     private void loadFactures() {
-        tableModel.setRowCount(0);
-        List<Facture> factures = clientController.getFacturesClient(idClient);
-        List<Reservation> reservations = reservationController.getHistoriqueUtilisateur(idClient);
-        Map<Integer, Reservation> resMap = new HashMap<>();
-        Map<Integer, String> attractionMap = new HashMap<>();
-
-        for (Reservation r : reservations) {
-            resMap.put(r.getId(), r);
-        }
-
-        for (Attraction a : attractionDAO.getAllAttractions()) {
-            attractionMap.put(a.getId(), a.getNom());
-        }
-
-        for (Facture f : factures) {
-            Reservation r = resMap.get(f.getIdReservation());
-            String attraction = (r != null) ? attractionMap.getOrDefault(r.getIdAttraction(), "Inconnue") : "Inconnue";
-            tableModel.addRow(new Object[]{
-                    f.getId(),
-                    attraction,
-                    (r != null ? r.getDateReservation() : "-"),
-                    (r != null && r.getHeureReservation() != null ? r.getHeureReservation() : "-"),
-                    f.getMontantTotal() + " €",
-                    f.isReductionAppliquee() ? "✅ Oui" : "❌ Non"
-            });
-        }
+        chargement.chargerTable(tableModel, () -> {
+            List<FactureDetail> factures = clientController.getFacturesDetailleesClient(idClient);
+
+            List<Object[]> lignes = new ArrayList<>(factures.size());
+            for (FactureDetail f : factures) {
+                lignes.add(new Object[]{
+                        f.getIdFacture(),
+                        (f.getNomAttraction() != null ? f.getNomAttraction() : "Inconnue"),
+                        f.getDateReservation(),
+                        (f.getHeureReservation() != null ? f.getHeureReservation() : "-"),
+                        f.getMontantTotal() + " €",
+                        f.isReductionAppliquee() ? "✅ Oui" : "❌ Non"
+                });
+            }
+            return lignes;
+        });
     }
 }
\ No newline at end of file
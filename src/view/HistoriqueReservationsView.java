@@ -1,13 +1,13 @@
 package view;
 
 import controller.ReservationController;
-import dao.AttractionDAO;
-import model.Attraction;
+import dao.ReferenceDataCache;
 import model.Reservation;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,14 +16,14 @@ public class HistoriqueReservationsView extends JFrame {
 
     private final int idClient;
     private final ReservationController reservationController;
-    private final AttractionDAO attractionDAO;
+    private final ChargementEnFond chargement;
     private JTable table;
     private DefaultTableModel tableModel;
 
     public HistoriqueReservationsView(int idClient) {
         this.idClient = idClient;
         this.reservationController = new ReservationController();
-        this.attractionDAO = new AttractionDAO();
+        this.chargement = new ChargementEnFond(this);
         initUI();
         loadReservations();
     }
@@ -38,27 +38,31 @@ public class HistoriqueReservationsView extends JFrame {
         tableModel = new DefaultTableModel(columnNames, 0);
         table = new JTable(tableModel);
 
+        add(chargement.getIndicateur(), BorderLayout.NORTH);
         add(new JScrollPane(table), BorderLayout.CENTER);
         setVisible(true);
     }
 
     private void loadReservations() {
-        tableModel.setRowCount(0);
-        List<Reservation> reservations = reservationController.getHistoriqueUtilisateur(idClient);
+        chargement.chargerTable(tableModel, () -> {
+            List<Reservation> reservations = reservationController.getHistoriqueUtilisateur(idClient);
 
-        // Chargement des noms d'attractions (évite requêtes multiples)
-        Map<Integer, String> attractionMap = new HashMap<>();
-        attractionDAO.getAllAttractions().forEach(a -> attractionMap.put(a.getId(), a.getNom()));
+            // Chargement des noms d'attractions (évite requêtes multiples)
+            Map<Integer, String> attractionMap = new HashMap<>();
+            ReferenceDataCache.getAttractionsResumees().forEach(a -> attractionMap.put(a.getId(), a.getNom()));
 
-        for (Reservation r : reservations) {
-            tableModel.addRow(new Object[]{
-                    r.getId(),
-                    attractionMap.getOrDefault(r.getIdAttraction(), "Inconnue"),
-                    r.getDateReservation(),
-                    (r.getHeureReservation() != null ? r.getHeureReservation() : "-"),
-                    r.getNombreBillets(),
-                    r.getStatut()
-            });
-        }
+            List<Object[]> lignes = new ArrayList<>(reservations.size());
+            for (Reservation r : reservations) {
+                lignes.add(new Object[]{
+                        r.getId(),
+                        attractionMap.getOrDefault(r.getIdAttraction(), "Inconnue"),
+                        r.getDateReservation(),
+                        (r.getHeureReservation() != null ? r.getHeureReservation() : "-"),
+                        r.getNombreBillets(),
+                        r.getStatut()
+                });
+            }
+            return lignes;
+        });
     }
 }
\ No newline at end of file
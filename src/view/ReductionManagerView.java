@@ -7,16 +7,19 @@ import model.Reduction.CritereReduction;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
 
 public class ReductionManagerView extends JFrame {
 
     private final AdminController controller;
+    private final ChargementEnFond chargement;
     private JTable table;
     private DefaultTableModel tableModel;
 
     public ReductionManagerView() {
         this.controller = new AdminController();
+        this.chargement = new ChargementEnFond(this);
         initUI();
         loadReductions();
     }
@@ -41,6 +44,7 @@ public class ReductionManagerView extends JFrame {
         buttonPanel.add(supprimerButton);
         buttonPanel.add(rafraichirButton);
 
+        add(chargement.getIndicateur(), BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
 
@@ -66,16 +70,19 @@ public class ReductionManagerView extends JFrame {
     }
 
     private void loadReductions() {
-        tableModel.setRowCount(0);
-        List<Reduction> reductions = controller.listerReductions();
-        for (Reduction r : reductions) {
-            tableModel.addRow(new Object[]{
-                    r.getId(),
-                    r.getNom(),
-                    r.getPourcentage() + "%",
-                    r.getCritere()
-            });
-        }
+        chargement.chargerTable(tableModel, () -> {
+            List<Reduction> reductions = controller.listerReductions();
+            List<Object[]> lignes = new ArrayList<>(reductions.size());
+            for (Reduction r : reductions) {
+                lignes.add(new Object[]{
+                        r.getId(),
+                        r.getNom(),
+                        r.getPourcentage() + "%",
+                        r.getCritere()
+                });
+            }
+            return lignes;
+        });
     }
 
     private void showReductionDialog() {
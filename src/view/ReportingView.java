@@ -1,10 +1,9 @@
 package view;
 
 
-import controller.ReservationController;
-import dao.AttractionDAO;
-import model.Attraction;
-import model.Reservation;
+import dao.ReportingRepository;
+import dao.Stockage;
+import model.StatistiqueReservations;
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -12,18 +11,21 @@ import org.jfree.data.category.DefaultCategoryDataset;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.HashMap;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class ReportingView extends JFrame {
 
-    private final ReservationController reservationController;
-    private final AttractionDAO attractionDAO;
+    private static final int JOURS_AFFICHES = 30;
+
+    private final ReportingRepository reportingDAO;
+    private final ChargementEnFond chargement;
 
     public ReportingView() {
-        this.reservationController = new ReservationController();
-        this.attractionDAO = new AttractionDAO();
+        this.reportingDAO = Stockage.reporting();
+        this.chargement = new ChargementEnFond(this);
         initUI();
     }
 
@@ -33,28 +35,33 @@ public class ReportingView extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
 
-        JPanel chartPanel = new JPanel(new BorderLayout());
-        chartPanel.add(buildReservationsChart(), BorderLayout.CENTER);
-        add(chartPanel);
+        // Les graphiques remplacent leur onglet vide dès que leurs données sont lues
+        JTabbedPane onglets = new JTabbedPane();
+        onglets.addTab("Par attraction", new JPanel());
+        onglets.addTab("Chiffre d'affaires", new JPanel());
+        add(chargement.getIndicateur(), BorderLayout.NORTH);
+        add(onglets);
+
+        chargement.charger(this::lireReservations,
+                dataset -> onglets.setComponentAt(0, buildReservationsChart(dataset)));
+        chargement.charger(this::lireChiffreAffaires,
+                dataset -> onglets.setComponentAt(1, buildChiffreAffairesChart(dataset)));
 
         setVisible(true);
     }
 
-    private ChartPanel buildReservationsChart() {
+    private DefaultCategoryDataset lireReservations() {
         DefaultCategoryDataset dataset = new DefaultCategoryDataset();
 
-        List<Reservation> reservations = reservationController.getToutesReservations();
-        Map<Integer, Integer> countMap = new HashMap<>();
-
-        for (Reservation r : reservations) {
-            countMap.put(r.getIdAttraction(), countMap.getOrDefault(r.getIdAttraction(), 0) + 1);
-        }
-
-        for (Attraction a : attractionDAO.getAllAttractions()) {
-            int nb = countMap.getOrDefault(a.getId(), 0);
-            dataset.addValue(nb, "Réservations", a.getNom());
+        // Agrégats déjà calculés par la base : une ligne par attraction
+        for (StatistiqueReservations s : reportingDAO.getStatistiquesParAttraction()) {
+            dataset.addValue(s.getNbReservations(), "Réservations", s.getNomAttraction());
+            dataset.addValue(s.getBillets(), "Billets vendus", s.getNomAttraction());
         }
+        return dataset;
+    }
 
+    private ChartPanel buildReservationsChart(DefaultCategoryDataset dataset) {
         JFreeChart barChart = ChartFactory.createBarChart(
                 "Réservations par attraction",
                 "Attraction",
@@ -64,4 +71,33 @@ public class ReportingView extends JFrame {
 
         return new ChartPanel(barChart);
     }
-}
\ No newline at end of file
+
+    private DefaultCategoryDataset lireChiffreAffaires() {
+        DefaultCategoryDataset dataset = new DefaultCategoryDataset();
+
+        LocalDate fin = LocalDate.now();
+        LocalDate debut = fin.minusDays(JOURS_AFFICHES - 1);
+        List<StatistiqueReservations> stats = reportingDAO.getStatistiquesParJour(debut, fin);
+
+        Map<LocalDate, Double> parJour = new TreeMap<>();
+        for (LocalDate jour = debut; !jour.isAfter(fin); jour = jour.plusDays(1)) {
+            parJour.put(jour, 0.0);
+        }
+        for (StatistiqueReservations s : stats) {
+            parJour.merge(s.getJour(), s.getChiffreAffaires(), Double::sum);
+        }
+        parJour.forEach((jour, montant) -> dataset.addValue(montant, "Chiffre d'affaires", jour.toString()));
+        return dataset;
+    }
+
+    private ChartPanel buildChiffreAffairesChart(DefaultCategoryDataset dataset) {
+        JFreeChart lineChart = ChartFactory.createLineChart(
+                "Chiffre d'affaires des " + JOURS_AFFICHES + " derniers jours",
+                "Jour",
+                "Montant (€)",
+                dataset
+        );
+
+        return new ChartPanel(lineChart);
+    }
+}
@@ -1,16 +1,15 @@
 package view;
 
+import controller.InventaireCreneaux;
 import controller.ReservationController;
-import dao.AttractionDAO;
-import dao.ReservationDAO;
-import model.Attraction;
-import model.Reservation;
+import dao.ReferenceDataCache;
+import model.AttractionResume;
+import model.ResultatReservation;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 
@@ -21,16 +20,14 @@ import org.jdatepicker.impl.*;
  * Affiche une interface avec : sélection d'attraction, date, heure, nombre de billets,
  * et confirmation via une fenêtre de paiement
  *
- * Cette classe interagit avec {@link ReservationController}, {@link ReservationDAO} et {@link AttractionDAO}.
+ * Cette classe interagit avec {@link ReservationController} et le cache {@link ReferenceDataCache}.
  */
 public class ReservationView extends JFrame {
-    //On instancie le contrôleur et les DAO nécessaires pour accéder aux données
+    //On instancie le contrôleur nécessaire pour accéder aux données
     private final ReservationController reservationController;
-    private final ReservationDAO reservationDAO;
-    private final AttractionDAO attractionDAO;
     private final int idClient;
 
-    private JComboBox<Attraction> attractionBox;
+    private JComboBox<AttractionResume> attractionBox;
     private JDatePickerImpl datePicker;
     private JComboBox<String> heureBox;
     private JSpinner nbBilletsSpinner;
@@ -45,8 +42,6 @@ public class ReservationView extends JFrame {
     public ReservationView(int idClient) {
         this.idClient = idClient;
         this.reservationController = new ReservationController();
-        this.reservationDAO = new ReservationDAO();
-        this.attractionDAO = new AttractionDAO();
         initUI();
     } //Le constructeur prend l’id du client connecté en paramètre et initialise l’interface
 
@@ -109,8 +104,8 @@ public class ReservationView extends JFrame {
      * Remplit la combo box avec les attractions disponibles uniquement
      */
     private void initAttractionBox() {
-        List<Attraction> attractions = attractionDAO.getAllAttractions();
-        for (Attraction a : attractions) {
+        List<AttractionResume> attractions = ReferenceDataCache.getAttractionsResumees();
+        for (AttractionResume a : attractions) {
             if (a.isDisponible()) {
                 attractionBox.addItem(a);
             }
@@ -120,33 +115,27 @@ public class ReservationView extends JFrame {
     /**
      * Met à jour la liste des heures disponibles en fonction de l'attraction et de la date choisies
      * Filtre les heures entre 10h00 et 18h00.
-     * Marque les horaires déjà réservés comme indisponibles.
+     * Affiche les places restantes de chaque créneau et marque les créneaux complets comme indisponibles.
      */
     private void updateHeureBox() {
         heureBox.removeAllItems();
-        Attraction selectedAttraction = (Attraction) attractionBox.getSelectedItem();
+        AttractionResume selectedAttraction = (AttractionResume) attractionBox.getSelectedItem();
         if (selectedAttraction == null) return;
 
         LocalDate selectedDate = getSelectedDate();
         if (selectedDate == null) return;
 
-        List<Reservation> reservations = reservationDAO.getAllReservations();
-        List<LocalTime> heuresReservees = new ArrayList<>();
-
-        for (Reservation r : reservations) {
-            if (r.getIdAttraction() == selectedAttraction.getId() &&
-                    r.getDateReservation().isEqual(selectedDate)) {
-                heuresReservees.add(r.getHeureReservation());
-            }
-        }
-
         DefaultComboBoxModel<String> model = new DefaultComboBoxModel<>();
-        for (int heure = 10; heure <= 18; heure++) {
+        for (int heure = InventaireCreneaux.HEURE_OUVERTURE; heure <= InventaireCreneaux.HEURE_FERMETURE; heure++) {
             LocalTime t = LocalTime.of(heure, 0);
-            if (heuresReservees.contains(t)) {
+            int places = reservationController.getPlacesRestantes(
+                    selectedAttraction.getId(), selectedAttraction.getCapacite(), selectedDate, t);
+            if (places == 0) {
                 model.addElement(heure + "h00 (indisponible)");
-            } else {
+            } else if (places == InventaireCreneaux.ILLIMITE) {
                 model.addElement(heure + "h00");
+            } else {
+                model.addElement(heure + "h00 (" + places + " places)");
             }
         }
         heureBox.setModel(model);
@@ -172,7 +161,7 @@ public class ReservationView extends JFrame {
      * Affiche un résumé de réservation ou un message d’erreur
      */
     private void handleReservation() {
-        Attraction attraction = (Attraction) attractionBox.getSelectedItem();
+        AttractionResume attraction = (AttractionResume) attractionBox.getSelectedItem();
         LocalDate date = getSelectedDate();
         String heureSelection = (String) heureBox.getSelectedItem();
         int nbBillets = (int) nbBilletsSpinner.getValue();
@@ -192,13 +181,16 @@ public class ReservationView extends JFrame {
 
         // Appel PaymentView pour valider avant la réservation
         new PaymentView(() -> {
-            boolean success = reservationController.reserverAttraction(idClient, attraction.getId(), date, heureFinale, nbBillets);
-            if (success) {
+            ResultatReservation resultat = reservationController.reserver(idClient, attraction.getId(), date, heureFinale, nbBillets);
+            if (resultat.isSucces()) {
                 String resume = "Attraction réservée : " + attraction.getNom() +
                         ", le " + date +
                         " à " + heure + "h00";
                 JOptionPane.showMessageDialog(this, resume, "Résumé de réservation", JOptionPane.INFORMATION_MESSAGE);
                 dispose();
+            } else if (resultat.isComplet()) {
+                showMessage(" Plus assez de places sur ce créneau.", Color.RED);
+                updateHeureBox();
             } else {
                 showMessage(" Erreur lors de la réservation.", Color.RED);
             }
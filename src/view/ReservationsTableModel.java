@@ -0,0 +1,206 @@
+package view;
+
+import dao.NomsUtilisateurs;
+import dao.ReservationRepository;
+import model.ReservationLigne;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modèle de table virtuel pour la liste de toutes les réservations
+ *
+ * Seules les pages réellement affichées sont lues, par pagination sur clé ({@code Reservation.id}),
+ * en arrière-plan via {@link ChargementEnFond} : l'EDT n'attend jamais la base, et les lectures
+ * en cours sont annulées à la fermeture de la fenêtre. Les lignes d'une page pas encore
+ * chargée s'affichent vides le temps de la lecture. La page suivante est préchargée quand on
+ * approche de la fin de la page courante, et au plus {@link #PAGES_EN_MEMOIRE} pages sont gardées
+ * Une page dont la lecture a échoué (erreur SQL comprise, voir {@link ChargementEnFond}) n'est pas gardée :
+ * elle est redemandée après {@link #DELAI_NOUVEL_ESSAI_MS}
+ *
+ * Toutes les méthodes publiques doivent être appelées sur l'EDT
+ */
+public class ReservationsTableModel extends AbstractTableModel {
+
+    static final int TAILLE_PAGE = 200;
+    static final int PAGES_EN_MEMOIRE = 10;
+    /** Délai avant de redemander une page dont la lecture a échoué */
+    static final long DELAI_NOUVEL_ESSAI_MS = 5_000;
+
+    private static final String[] COLONNES = {"ID", "Client", "Attraction", "Date", "Heure", "Billets", "Statut"};
+
+    private final ReservationRepository reservationDAO;
+    private final ChargementEnFond chargement;
+    private final NomsUtilisateurs nomsUtilisateurs = NomsUtilisateurs.getInstance();
+
+    private final Map<Integer, List<ReservationLigne>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<ReservationLigne>> eldest) {
+            return size() > PAGES_EN_MEMOIRE;
+        }
+    };
+    private final Set<Integer> pagesEnCours = new HashSet<>();
+    private final Map<Integer, Long> pagesEnEchec = new HashMap<>(); // page -> instant de l'échec (ms)
+
+    private int nombreLignes;
+    private final Map<Integer, Integer> debutsPages = new HashMap<>(); // ID après lequel commence chaque page déjà repérée
+    private int generation; // ignore les lectures lancées avant le dernier rechargement
+
+    public ReservationsTableModel(ReservationRepository reservationDAO, ChargementEnFond chargement) {
+        this.reservationDAO = reservationDAO;
+        this.chargement = chargement;
+    }
+
+    /**
+     * Relit le nombre de réservations en arrière-plan, puis vide les pages en mémoire
+     * Le début des pages n'est pas recalculé : il est appris au fil des pages lues
+     */
+    public void recharger() {
+        int gen = ++generation;
+        chargement.charger(() -> {
+            nomsUtilisateurs.rafraichir(); // nouveaux clients seulement
+            return reservationDAO.countReservations();
+        }, total -> {
+            if (gen != generation) {
+                return;
+            }
+            pages.clear();
+            pagesEnCours.clear();
+            pagesEnEchec.clear();
+            debutsPages.clear();
+            debutsPages.put(0, 0);
+            nombreLignes = total;
+            fireTableDataChanged();
+        });
+    }
+
+    /**
+     * @return L'ID de la réservation affichée à cette ligne, ou null si sa page n'est pas encore chargée
+     */
+    public Integer getIdReservation(int ligne) {
+        ReservationLigne r = getLigne(ligne);
+        return r != null ? r.getId() : null;
+    }
+
+    @Override
+    public int getRowCount() {
+        return nombreLignes;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLONNES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLONNES[column];
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        ReservationLigne r = getLigne(rowIndex);
+        if (r == null) {
+            return columnIndex == 1 ? "Chargement…" : null;
+        }
+
+        switch (columnIndex) {
+            case 0:
+                return r.getId();
+            case 1:
+                return nomClient(r.getIdUtilisateur());
+            case 2:
+                return r.getNomAttraction() != null ? r.getNomAttraction() : "Inconnue";
+            case 3:
+                return r.getDateReservation();
+            case 4:
+                return r.getHeureReservation() != null ? r.getHeureReservation() : "-";
+            case 5:
+                return r.getNombreBillets();
+            case 6:
+                return r.getStatut();
+            default:
+                return null;
+        }
+    }
+
+    private String nomClient(int idUtilisateur) {
+        if (idUtilisateur == 0) {
+            return "Invité";
+        }
+        String nom = nomsUtilisateurs.getNom(idUtilisateur);
+        return nom != null ? nom : "Client #" + idUtilisateur; // évincé du cache depuis la lecture de la page
+    }
+
+    /**
+     * Retourne la ligne si sa page est en mémoire ; sinon demande la page et retourne null
+     * Précharge la page suivante dès qu'on dépasse la moitié de la page courante
+     */
+    private ReservationLigne getLigne(int ligne) {
+        int page = ligne / TAILLE_PAGE;
+        int index = ligne % TAILLE_PAGE;
+
+        List<ReservationLigne> lignes = pages.get(page);
+        if (lignes == null) {
+            demanderPage(page);
+            return null;
+        }
+        if (index >= TAILLE_PAGE / 2) {
+            demanderPage(page + 1);
+        }
+        return index < lignes.size() ? lignes.get(index) : null;
+    }
+
+    /**
+     * Lit une page par pagination sur clé : elle commence après la dernière réservation de la page
+     * précédente si celle-ci a été lue (défilement), sinon son début est d'abord cherché dans l'index (saut)
+     */
+    private void demanderPage(int page) {
+        if (page * TAILLE_PAGE >= nombreLignes || pages.containsKey(page) || pagesEnCours.contains(page)) {
+            return;
+        }
+        Long echec = pagesEnEchec.get(page);
+        if (echec != null && System.currentTimeMillis() - echec < DELAI_NOUVEL_ESSAI_MS) {
+            return; // pas de nouvel essai (ni de nouveau message d'erreur) à chaque repaint
+        }
+        pagesEnCours.add(page);
+        pagesEnEchec.remove(page);
+
+        int gen = generation;
+        Integer debutConnu = debutsPages.get(page);
+        chargement.charger(() -> {
+            int apresId = debutConnu != null ? debutConnu : reservationDAO.getDebutPage(page, TAILLE_PAGE);
+            if (apresId < 0) {
+                return List.<ReservationLigne>of(); // réservations supprimées depuis le comptage (une erreur SQL fait échouer la lecture)
+            }
+            List<ReservationLigne> lignes = reservationDAO.getReservationsPage(apresId, TAILLE_PAGE);
+            nomsUtilisateurs.resoudre(lignes.stream().mapToInt(ReservationLigne::getIdUtilisateur).toArray());
+            return lignes;
+        }, lignes -> {
+            if (gen != generation) {
+                return;
+            }
+            pagesEnCours.remove(page);
+            pages.put(page, lignes);
+            if (lignes.size() == TAILLE_PAGE) {
+                debutsPages.put(page + 1, lignes.get(lignes.size() - 1).getId());
+            }
+
+            int premiere = page * TAILLE_PAGE;
+            int derniere = Math.min(nombreLignes, premiere + TAILLE_PAGE) - 1;
+            if (premiere <= derniere) {
+                fireTableRowsUpdated(premiere, derniere);
+            }
+        }, () -> {
+            if (gen == generation) { // la page pourra être redemandée
+                pagesEnCours.remove(page);
+                pagesEnEchec.put(page, System.currentTimeMillis());
+            }
+        });
+    }
+}
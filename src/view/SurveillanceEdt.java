@@ -0,0 +1,316 @@
+package view;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.InvocationEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Détection des gels de l'interface : file d'événements qui chronomètre chaque événement traité
+ * par l'EDT, et chien de garde qui relève la pile de l'EDT quand un événement dépasse le seuil
+ *
+ * Chaque blocage est attribué à la fenêtre (la vue) qui a reçu l'événement et à l'action
+ * (bouton, menu, clic, tâche invokeLater...), puis ajouté au rapport glissant {@link BlocagesEdt}.
+ * Le temps passé dans une boucle d'événements imbriquée (boîte de dialogue modale) n'est pas compté
+ * comme un blocage de l'événement qui l'a ouverte : l'interface reste alors réactive
+ *
+ * Propriétés système :
+ * - {@code parc.edt.surveillance} (true par défaut) : false n'installe pas la surveillance
+ * - {@code parc.edt.seuilMs} (200 par défaut) : durée à partir de laquelle un événement est un blocage
+ * - {@code parc.edt.rapportSecondes} (60 par défaut) : période du rapport, écrit s'il y a eu de nouveaux blocages
+ * - {@code parc.edt.fichier} : fichier auquel le rapport est ajouté (sortie standard par défaut)
+ */
+public final class SurveillanceEdt extends EventQueue {
+
+    private static SurveillanceEdt instance;
+
+    private final long seuilNanos;
+    private final BlocagesEdt blocages = new BlocagesEdt();
+
+    /** Événements en cours de traitement, le plus imbriqué en tête (utilisé par l'EDT seulement) */
+    private final Deque<Segment> pile = new ArrayDeque<>();
+
+    /** Traitement observé par le chien de garde */
+    private volatile Segment courant;
+
+    /**
+     * Période de traitement ininterrompue d'un événement par l'EDT
+     */
+    private static final class Segment {
+        private final AWTEvent evenement;
+        private final Thread edt;
+        private final long debut;
+        private volatile StackTraceElement[] pileEdt;
+        private boolean actif = true; // false une fois terminé par une boucle imbriquée (EDT seulement)
+
+        private Segment(AWTEvent evenement, Thread edt, long debut) {
+            this.evenement = evenement;
+            this.edt = edt;
+            this.debut = debut;
+        }
+    }
+
+    private SurveillanceEdt(long seuilMs) {
+        this.seuilNanos = TimeUnit.MILLISECONDS.toNanos(seuilMs);
+    }
+
+    /**
+     * Installe la surveillance (une seule fois) selon les propriétés {@code parc.edt.*}
+     *
+     * @return Le rapport des blocages, ou null si la surveillance est désactivée
+     */
+    public static synchronized BlocagesEdt installer() {
+        if (instance != null) {
+            return instance.blocages;
+        }
+        if (!Boolean.parseBoolean(System.getProperty("parc.edt.surveillance", "true")) || GraphicsEnvironment.isHeadless()) {
+            return null;
+        }
+
+        instance = new SurveillanceEdt(Math.max(1, Long.getLong("parc.edt.seuilMs", 200)));
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(instance);
+        instance.demarrerChienDeGarde();
+        instance.demarrerRapport(Long.getLong("parc.edt.rapportSecondes", 60), System.getProperty("parc.edt.fichier"));
+        return instance.blocages;
+    }
+
+    /**
+     * @return Le rapport des blocages, ou null si la surveillance n'est pas installée
+     */
+    public static synchronized BlocagesEdt getBlocages() {
+        return instance == null ? null : instance.blocages;
+    }
+
+    // ------------------ Chronométrage (EDT) ------------------ //
+
+    @Override
+    protected void dispatchEvent(AWTEvent evenement) {
+        Thread edt = Thread.currentThread();
+        suspendre(edt);
+
+        Segment segment = new Segment(evenement, edt, System.nanoTime());
+        pile.push(segment);
+        courant = segment;
+        try {
+            super.dispatchEvent(evenement);
+        } finally {
+            Segment dernier = pile.pop(); // segment repris après une boucle imbriquée, ou celui du début
+            if (dernier.actif) {
+                terminer(dernier);
+            }
+            courant = null;
+            reprendre(edt); // retour dans l'événement englobant : son chronomètre repart
+        }
+    }
+
+    /**
+     * Appelé par la boucle d'événements quand elle attend le suivant : si un événement est en cours,
+     * c'est une boucle imbriquée (boîte modale) qui attend, et l'EDT n'est plus bloqué.
+     * Le chronomètre de l'événement englobant repart ensuite : si la boucle imbriquée se termine
+     * sans autre événement, son traitement reprend aussitôt
+     */
+    @Override
+    public AWTEvent getNextEvent() throws InterruptedException {
+        Thread thread = Thread.currentThread();
+        suspendre(thread);
+        try {
+            return super.getNextEvent();
+        } finally {
+            reprendre(thread);
+        }
+    }
+
+    private void reprendre(Thread thread) {
+        Segment parent = pile.peek();
+        if (parent != null && !parent.actif && parent.edt == thread) {
+            Segment reprise = new Segment(parent.evenement, thread, System.nanoTime());
+            pile.pop();
+            pile.push(reprise);
+            courant = reprise;
+        }
+    }
+
+    private void suspendre(Thread thread) {
+        Segment segment = courant;
+        if (segment != null && segment.actif && segment.edt == thread) {
+            segment.actif = false;
+            courant = null;
+            terminer(segment);
+        }
+    }
+
+    private void terminer(Segment segment) {
+        long duree = System.nanoTime() - segment.debut;
+        if (duree < seuilNanos) {
+            return;
+        }
+        try {
+            blocages.enregistrer(new BlocagesEdt.Blocage(LocalDateTime.now(), vue(segment), action(segment),
+                    TimeUnit.NANOSECONDS.toMillis(duree), segment.pileEdt));
+        } catch (RuntimeException e) {
+            e.printStackTrace(); // la surveillance ne doit jamais interrompre l'EDT
+        }
+    }
+
+    // ------------------ Chien de garde ------------------ //
+
+    private void demarrerChienDeGarde() {
+        long intervalleMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(seuilNanos) / 4);
+        Thread chien = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(intervalleMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                Segment segment = courant;
+                if (segment != null && segment.pileEdt == null && System.nanoTime() - segment.debut >= seuilNanos) {
+                    segment.pileEdt = segment.edt.getStackTrace(); // pile pendant le blocage, pas après
+                }
+            }
+        }, "surveillance-edt");
+        chien.setDaemon(true);
+        chien.start();
+    }
+
+    private void demarrerRapport(long periodeSecondes, String fichier) {
+        if (periodeSecondes <= 0) {
+            return;
+        }
+        Thread rapport = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(periodeSecondes));
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ecrireRapport(fichier);
+            }
+        }, "rapport-edt");
+        rapport.setDaemon(true);
+        rapport.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> ecrireRapport(fichier), "rapport-edt-arret"));
+    }
+
+    private void ecrireRapport(String fichier) {
+        if (!blocages.nouveauxDepuisDernierRapport()) {
+            return;
+        }
+        String texte = blocages.rapport();
+        if (fichier == null) {
+            System.out.print(texte);
+            return;
+        }
+        try (Writer w = Files.newBufferedWriter(Paths.get(fichier), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            w.write(texte);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // ------------------ Attribution ------------------ //
+
+    /**
+     * Classe de la fenêtre qui a reçu l'événement ; à défaut (tâche invokeLater, boîte de dialogue...),
+     * première classe de la vue présente dans la pile relevée
+     */
+    private static String vue(Segment segment) {
+        Object source = segment.evenement.getSource();
+        Window fenetre = source instanceof Window w ? w
+                : source instanceof Component c ? SwingUtilities.getWindowAncestor(c) : null;
+        if (fenetre != null && !fenetre.getClass().getName().startsWith("javax.swing.")) {
+            return fenetre.getClass().getSimpleName();
+        }
+
+        StackTraceElement ligne = premiereLigneVue(segment.pileEdt);
+        if (ligne != null) {
+            return classeVue(ligne);
+        }
+        return fenetre != null ? fenetre.getClass().getSimpleName() : "?";
+    }
+
+    /**
+     * Ce que l'utilisateur a déclenché
+     * Les ActionEvent ne passent pas par la file d'événements : le bouton les crée pendant le traitement
+     * du clic ou de la touche ; le libellé vient donc du bouton source du MouseEvent ou du KeyEvent,
+     * à défaut de la méthode de la vue en cours dans la pile relevée
+     */
+    private static String action(Segment segment) {
+        AWTEvent evenement = segment.evenement;
+        Object source = evenement.getSource();
+        if (evenement instanceof MouseEvent || evenement instanceof KeyEvent) {
+            String geste = evenement instanceof MouseEvent ? "souris" : "clavier";
+            if (source instanceof AbstractButton b) {
+                return "action « " + libelle(b) + " » (" + geste + ", " + nomClasse(source) + ")";
+            }
+            StackTraceElement ligne = premiereLigneVue(segment.pileEdt);
+            return geste + " (" + nomClasse(source)
+                    + (ligne != null ? ", " + classeVue(ligne) + "." + ligne.getMethodName() : "") + ")";
+        }
+        if (evenement instanceof WindowEvent w) {
+            return switch (w.getID()) {
+                case WindowEvent.WINDOW_OPENED -> "ouverture de la fenêtre";
+                case WindowEvent.WINDOW_CLOSING -> "fermeture de la fenêtre";
+                default -> "fenêtre";
+            };
+        }
+        if (evenement instanceof InvocationEvent) {
+            return "tâche invokeLater";
+        }
+        return evenement.getClass().getSimpleName();
+    }
+
+    /**
+     * Texte du bouton, ou sa commande d'action, ou son infobulle (bouton à icône seule)
+     */
+    private static String libelle(AbstractButton bouton) {
+        String texte = bouton.getText();
+        if (texte == null || texte.isEmpty()) {
+            texte = bouton.getActionCommand();
+        }
+        if (texte == null || texte.isEmpty()) {
+            texte = bouton.getToolTipText();
+        }
+        return texte == null || texte.isEmpty() ? "?" : texte;
+    }
+
+    /**
+     * @return La ligne de pile la plus récente dans une classe de la vue (hors surveillance), ou null
+     */
+    private static StackTraceElement premiereLigneVue(StackTraceElement[] pile) {
+        if (pile != null) {
+            for (StackTraceElement ligne : pile) {
+                if (ligne.getClassName().startsWith("view.") && !ligne.getClassName().startsWith(SurveillanceEdt.class.getName())) {
+                    return ligne;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Le nom de la classe de la vue, sans paquetage ni classe interne
+     */
+    private static String classeVue(StackTraceElement ligne) {
+        String classe = ligne.getClassName().substring("view.".length());
+        int interne = classe.indexOf('$');
+        return interne < 0 ? classe : classe.substring(0, interne);
+    }
+
+    private static String nomClasse(Object source) {
+        return source == null ? "?" : source.getClass().getSimpleName();
+    }
+}